@@ -0,0 +1,112 @@
+package com.bearindonesia.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * ReportService 경쟁사 리포트 분석 커널 벤치마크.
+ * 실행: ./gradlew jmh  (결과: build/results/jmh/results.json)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportKernelsBenchmark {
+
+    @Param({ "50", "500", "2000" })
+    public int size;
+
+    private List<ReportService.ClusterArticle> articles;
+    private List<String> texts;
+    private List<Set<String>> tokenSets;
+    private List<String> tagJson;
+    private List<String> keywords;
+    private List<ReportService.CompetitorDailyRow> dailyRows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        articles = SyntheticNews.articles(size, 42);
+        texts = new ArrayList<>(size);
+        tokenSets = new ArrayList<>(size);
+        for (ReportService.ClusterArticle a : articles) {
+            String text = a.titleForSimilarity();
+            texts.add(text);
+            tokenSets.add(ReportService.tokenize(text));
+        }
+        tagJson = new ArrayList<>(size);
+        keywords = new ArrayList<>(size * 4);
+        for (int i = 0; i < size; i++) {
+            tagJson.add(SyntheticNews.tagsJson(random, 3 + random.nextInt(6)));
+            for (int j = 0; j < 4; j++) {
+                keywords.add(SyntheticNews.TAGS[random.nextInt(SyntheticNews.TAGS.length)]);
+            }
+        }
+        dailyRows = SyntheticNews.dailyRows(Math.max(1, size / 50), 90, 42);
+    }
+
+    @Benchmark
+    public Object clusterBySimilarity() {
+        // 클러스터링은 입력 리스트를 바꾸지 않지만 Cluster 객체를 새로 만들므로 매번 새로 계산된다.
+        return ReportService.clusterBySimilarity(articles);
+    }
+
+    @Benchmark
+    public void tokenize(Blackhole bh) {
+        for (String text : texts) {
+            bh.consume(ReportService.tokenize(text));
+        }
+    }
+
+    @Benchmark
+    public void jaccardAdjacent(Blackhole bh) {
+        for (int i = 1; i < tokenSets.size(); i++) {
+            bh.consume(ReportService.jaccard(tokenSets.get(i - 1), tokenSets.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void parseTags(Blackhole bh) {
+        for (String json : tagJson) {
+            bh.consume(KeywordNormalizer.parseTags(json));
+        }
+    }
+
+    @Benchmark
+    public void normalizeAndFilterKeywords(Blackhole bh) {
+        for (String keyword : keywords) {
+            if (KeywordNormalizer.isMeaningfulKeyword(keyword)) {
+                bh.consume(KeywordNormalizer.normalizeKeyword(keyword));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object buildPins() {
+        // buildPins 는 키워드별 리스트를 정렬하므로 원본을 복사해서 넘긴다.
+        return ReportService.buildPins(new ArrayList<>(dailyRows));
+    }
+
+    @Benchmark
+    public double computeImpactScore() {
+        return ReportService.computeImpactScore(articles);
+    }
+}
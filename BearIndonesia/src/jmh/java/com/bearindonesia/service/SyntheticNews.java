@@ -0,0 +1,85 @@
+package com.bearindonesia.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 벤치마크용 합성 뉴스 데이터. 시드를 고정해 실행마다 같은 입력을 만든다.
+ */
+final class SyntheticNews {
+
+    static final String[] ID_WORDS = {
+        "obat", "vaksin", "harga", "pasar", "farmasi", "kesehatan", "rumah", "sakit", "izin", "edar",
+        "bpom", "kimia", "farma", "produksi", "ekspor", "impor", "bahan", "baku", "generik", "paten",
+        "kalbe", "sanbe", "dexa", "biofarma", "penjualan", "naik", "turun", "investasi", "pabrik", "baru"
+    };
+    static final String[] KO_WORDS = {
+        "제약", "백신", "인도네시아", "허가", "식약청", "수출", "수입", "원료", "제네릭", "특허",
+        "매출", "증가", "감소", "투자", "공장", "신규", "병원", "보건부", "가격", "시장"
+    };
+    static final String[] TAGS = {
+        "Kalbe Farma", "Sanbe", "Dexa Medica", "Bio Farma", "BPOM", "vaksin", "obat generik",
+        "halal", "JKN", "BPJS", "제약", "백신", "허가", "indonesia", "farmasi", "Kimia Farma"
+    };
+    static final String[] SOURCES = { "Kompas", "Tempo", "Detik", "CNBC Indonesia", "Bisnis", "Antara", "Katadata" };
+
+    private SyntheticNews() {}
+
+    static String title(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String[] dict = random.nextInt(3) == 0 ? KO_WORDS : ID_WORDS;
+            if (i > 0) sb.append(' ');
+            sb.append(dict[random.nextInt(dict.length)]);
+        }
+        return sb.toString();
+    }
+
+    static String tagsJson(Random random, int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(TAGS[random.nextInt(TAGS.length)]).append('"');
+        }
+        return sb.append(']').toString();
+    }
+
+    static List<ReportService.ClusterArticle> articles(int size, long seed) {
+        Random random = new Random(seed);
+        List<ReportService.ClusterArticle> out = new ArrayList<>(size);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < size; i++) {
+            ReportService.ClusterArticle a = new ReportService.ClusterArticle();
+            a.keyword = TAGS[random.nextInt(TAGS.length)];
+            a.articleId = (long) i;
+            a.title = title(random, 6 + random.nextInt(8));
+            a.korTitle = random.nextBoolean() ? title(random, 5 + random.nextInt(5)) : null;
+            a.korSummary = random.nextBoolean() ? title(random, 20 + random.nextInt(20)) : null;
+            a.idSummary = title(random, 20 + random.nextInt(20));
+            a.source = SOURCES[random.nextInt(SOURCES.length)];
+            a.date = start.plusDays(random.nextInt(60));
+            a.importance = random.nextInt(5) == 0 ? null : random.nextInt(101);
+            out.add(a);
+        }
+        return out;
+    }
+
+    static List<ReportService.CompetitorDailyRow> dailyRows(int keywords, int days, long seed) {
+        Random random = new Random(seed);
+        List<ReportService.CompetitorDailyRow> out = new ArrayList<>(keywords * days);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int k = 0; k < keywords; k++) {
+            for (int d = 0; d < days; d++) {
+                ReportService.CompetitorDailyRow row = new ReportService.CompetitorDailyRow();
+                row.keyword = "kw" + k;
+                row.date = start.plusDays(d);
+                // 가끔 튀는 날을 섞어 핀이 실제로 만들어지게 한다.
+                row.count = random.nextInt(20) == 0 ? 10 + random.nextInt(30) : random.nextInt(6);
+                out.add(row);
+            }
+        }
+        return out;
+    }
+}
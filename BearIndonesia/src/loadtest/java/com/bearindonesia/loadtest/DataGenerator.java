@@ -0,0 +1,331 @@
+package com.bearindonesia.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import org.flywaydb.core.Flyway;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * raw_news / processed_news / users_info / user_scrap 에 운영 규모의 합성 데이터를 넣는다.
+ *
+ * <pre>
+ * ./gradlew generateData --args='--jdbc-url=jdbc:postgresql://localhost:5432/news?reWriteBatchedInserts=true
+ *     --user=postgres --password=postgres --articles=2000000 --users=2000 --create-schema'
+ * </pre>
+ *
+ * --create-schema 는 애플리케이션과 같은 Flyway 마이그레이션(classpath:db/migration)으로 스키마를 만든다 (PostgreSQL 전용).
+ * 월 파티션 함수가 있으면 데이터를 넣기 전에 생성 기간의 파티션을 만들어 default 파티션으로 몰리지 않게 한다.
+ * 생성된 사용자는 모두 비밀번호 {@value #PASSWORD} 로 로그인할 수 있다 (LoadDriver 가 사용).
+ */
+public final class DataGenerator {
+
+    static final String PASSWORD = "loadtest-password";
+    static final String USER_EMAIL_FORMAT = "loadtest-%d@example.com";
+
+    private static final String[] ID_WORDS = {
+        "obat", "vaksin", "harga", "pasar", "farmasi", "kesehatan", "rumah", "sakit", "izin", "edar",
+        "bpom", "kimia", "produksi", "ekspor", "impor", "bahan", "baku", "generik", "paten", "industri",
+        "penjualan", "naik", "turun", "investasi", "pabrik", "baru", "pemerintah", "regulasi", "halal", "klinik"
+    };
+    private static final String[] KO_WORDS = {
+        "제약", "백신", "인도네시아", "허가", "식약청", "수출", "수입", "원료", "제네릭", "특허",
+        "매출", "증가", "감소", "투자", "공장", "신규", "병원", "보건부", "가격", "시장", "규제", "할랄"
+    };
+    private static final String[] TAGS = {
+        "Kalbe Farma", "Sanbe", "Dexa Medica", "Bio Farma", "Kimia Farma", "Phapros", "Tempo Scan",
+        "BPOM", "vaksin", "obat generik", "halal", "JKN", "BPJS", "제약", "백신", "허가", "원료의약품",
+        "bahan baku obat", "telemedicine", "rumah sakit"
+    };
+    private static final String[] SOURCES = {
+        "Kompas", "Tempo", "Detik", "CNBC Indonesia", "CNN Indonesia", "Bisnis", "Kontan", "Antara", "Katadata"
+    };
+    private static final String[] CATEGORIES = { "정책", "시장", "기업", "R&D", "유통", "규제" };
+    private static final String[] ENG_CATEGORIES = { "Policy", "Market", "Company", "R&D", "Distribution", "Regulation" };
+
+    private final Options options;
+    private final Random random;
+
+    private DataGenerator(Options options) {
+        this.options = options;
+        this.random = new Random(options.seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        new DataGenerator(options).run();
+    }
+
+    private void run() throws Exception {
+        try (Connection con = DriverManager.getConnection(options.jdbcUrl, options.user, options.password)) {
+            boolean postgres = con.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+            if (options.createSchema) {
+                if (!postgres) {
+                    throw new IllegalArgumentException("--create-schema runs the Flyway migrations and needs PostgreSQL");
+                }
+                createSchema();
+            }
+            if (postgres) {
+                ensurePartitions(con);
+            }
+            con.setAutoCommit(false);
+            long articleStart = nextId(con, "raw_news");
+            long processedStart = nextId(con, "processed_news");
+            long userStart = nextId(con, "users_info");
+
+            long started = System.nanoTime();
+            insertArticles(con, postgres, articleStart, processedStart);
+            insertUsers(con, userStart);
+            insertScraps(con, userStart, articleStart);
+            if (postgres) {
+                syncSequences(con);
+            }
+            con.commit();
+            System.out.printf(
+                    Locale.ROOT,
+                    "Generated %d articles, %d users, ~%d scraps in %.1f s%n",
+                    options.articles,
+                    options.users,
+                    (long) options.users * options.scrapsPerUser,
+                    (System.nanoTime() - started) / 1e9
+            );
+        }
+    }
+
+    private void createSchema() {
+        Flyway.configure()
+                .dataSource(options.jdbcUrl, options.user, options.password)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    private void ensurePartitions(Connection con) throws Exception {
+        try (Statement st = con.createStatement();
+             ResultSet rs = st.executeQuery("SELECT to_regproc('ensure_news_partitions') IS NOT NULL")) {
+            rs.next();
+            if (!rs.getBoolean(1)) {
+                return;
+            }
+        }
+        try (PreparedStatement ps = con.prepareStatement("SELECT ensure_news_partitions(?, ?)")) {
+            LocalDate end = LocalDate.now();
+            ps.setObject(1, end.minusDays((long) options.months * 30));
+            ps.setObject(2, end);
+            ps.execute();
+        }
+    }
+
+    private void insertArticles(Connection con, boolean postgres, long rawStart, long processedStart) throws Exception {
+        String rawSql = """
+            INSERT INTO raw_news (id, title, content, link, img, source, keyword, published_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        String processedSql = """
+            INSERT INTO processed_news (
+                id, raw_news_id, kor_title, kor_summary, kor_content, id_summary, category, eng_category,
+                keyword, tags, importance, insight, semantic_confidence, tag_mismatch, category_mismatch,
+                is_pharma_related
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+        LocalDate end = LocalDate.now();
+        int spanDays = options.months * 30;
+        try (PreparedStatement raw = con.prepareStatement(rawSql);
+             PreparedStatement processed = con.prepareStatement(processedSql)) {
+            for (int i = 0; i < options.articles; i++) {
+                long rawId = rawStart + i;
+                String keyword = pick(TAGS);
+                String title = sentence(ID_WORDS, 8 + random.nextInt(8));
+                raw.setLong(1, rawId);
+                raw.setString(2, title);
+                raw.setString(3, sentence(ID_WORDS, 120 + random.nextInt(200)));
+                raw.setString(4, "https://news.example.com/" + rawId);
+                raw.setString(5, random.nextInt(4) == 0 ? null : "https://img.example.com/" + rawId + ".jpg");
+                raw.setString(6, pick(SOURCES));
+                raw.setString(7, keyword);
+                // 최근 기사일수록 많이 나오도록 앞쪽에 몰린 분포를 쓴다.
+                int daysAgo = (int) (spanDays * Math.pow(random.nextDouble(), 1.5));
+                raw.setObject(8, end.minusDays(daysAgo));
+                raw.addBatch();
+
+                int category = random.nextInt(CATEGORIES.length);
+                processed.setLong(1, processedStart + i);
+                processed.setLong(2, rawId);
+                processed.setString(3, sentence(KO_WORDS, 6 + random.nextInt(6)));
+                processed.setString(4, sentence(KO_WORDS, 30 + random.nextInt(30)));
+                processed.setString(5, sentence(KO_WORDS, 150 + random.nextInt(150)));
+                processed.setString(6, sentence(ID_WORDS, 30 + random.nextInt(30)));
+                processed.setString(7, CATEGORIES[category]);
+                processed.setString(8, ENG_CATEGORIES[category]);
+                processed.setString(9, keyword);
+                String tags = tagsJson(keyword);
+                if (postgres) {
+                    processed.setObject(10, tags, Types.OTHER);
+                } else {
+                    processed.setString(10, tags);
+                }
+                if (random.nextInt(10) == 0) {
+                    processed.setNull(11, Types.INTEGER);
+                } else {
+                    processed.setInt(11, random.nextInt(101));
+                }
+                processed.setString(12, random.nextInt(3) == 0 ? sentence(KO_WORDS, 20) : null);
+                processed.setFloat(13, 0.5f + random.nextFloat() / 2);
+                processed.setBoolean(14, random.nextInt(20) == 0);
+                processed.setBoolean(15, random.nextInt(20) == 0);
+                processed.setBoolean(16, random.nextInt(10) < 7);
+                processed.addBatch();
+
+                if ((i + 1) % options.batchSize == 0 || i + 1 == options.articles) {
+                    raw.executeBatch();
+                    processed.executeBatch();
+                    con.commit();
+                    if ((i + 1) % (options.batchSize * 20) == 0 || i + 1 == options.articles) {
+                        System.out.printf(Locale.ROOT, "  articles: %d / %d%n", i + 1, options.articles);
+                    }
+                }
+            }
+        }
+    }
+
+    private void insertUsers(Connection con, long userStart) throws Exception {
+        // 해시는 한 번만 만든다 (사용자마다 bcrypt 를 돌리면 생성 시간이 대부분 여기에 쓰인다).
+        String hash = new BCryptPasswordEncoder(10).encode(PASSWORD);
+        try (PreparedStatement ps = con.prepareStatement(
+                "INSERT INTO users_info (id, username, name, password_hash, role) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < options.users; i++) {
+                long id = userStart + i;
+                ps.setLong(1, id);
+                ps.setString(2, String.format(Locale.ROOT, USER_EMAIL_FORMAT, i));
+                ps.setString(3, "Load Test " + i);
+                ps.setString(4, hash);
+                ps.setString(5, i == 0 ? "ADMIN" : "USER");
+                ps.addBatch();
+                if ((i + 1) % options.batchSize == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+            con.commit();
+        }
+    }
+
+    private void insertScraps(Connection con, long userStart, long articleStart) throws Exception {
+        if (options.articles == 0) {
+            return;
+        }
+        try (PreparedStatement ps = con.prepareStatement(
+                "INSERT INTO user_scrap (user_id, raw_news_id, comment) VALUES (?, ?, ?)")) {
+            int pending = 0;
+            for (int u = 0; u < options.users; u++) {
+                // 스크랩 수는 사용자마다 다르게 (0 ~ 2 * 평균)
+                int count = random.nextInt(options.scrapsPerUser * 2 + 1);
+                Set<Long> chosen = new HashSet<>();
+                while (chosen.size() < Math.min(count, options.articles)) {
+                    chosen.add(articleStart + random.nextInt(options.articles));
+                }
+                for (Long rawId : chosen) {
+                    ps.setLong(1, userStart + u);
+                    ps.setLong(2, rawId);
+                    ps.setString(3, random.nextInt(5) == 0 ? "메모 " + rawId : null);
+                    ps.addBatch();
+                    if (++pending == options.batchSize) {
+                        ps.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            ps.executeBatch();
+            con.commit();
+        }
+    }
+
+    private static long nextId(Connection con, String table) throws Exception {
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1) + 1;
+        }
+    }
+
+    /**
+     * id 를 직접 넣었으므로 serial/identity 컬럼이면 시퀀스를 맞춰 둔다.
+     */
+    private static void syncSequences(Connection con) throws Exception {
+        try (Statement st = con.createStatement()) {
+            for (String table : new String[] { "raw_news", "processed_news", "users_info" }) {
+                st.execute("""
+                    SELECT setval(seq, (SELECT COALESCE(MAX(id), 1) FROM %s))
+                    FROM (SELECT pg_get_serial_sequence('%s', 'id') AS seq) s
+                    WHERE seq IS NOT NULL
+                    """.formatted(table, table));
+            }
+        }
+    }
+
+    private String tagsJson(String keyword) {
+        int count = 2 + random.nextInt(6);
+        StringBuilder sb = new StringBuilder("[\"").append(keyword).append('"');
+        for (int i = 1; i < count; i++) {
+            sb.append(",\"").append(pick(TAGS)).append('"');
+        }
+        return sb.append(']').toString();
+    }
+
+    private String sentence(String[] dict, int words) {
+        StringBuilder sb = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(dict[random.nextInt(dict.length)]);
+        }
+        return sb.toString();
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static final class Options {
+        String jdbcUrl = "jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true";
+        String user = "postgres";
+        String password = "postgres";
+        int articles = 1_000_000;
+        int users = 1_000;
+        int scrapsPerUser = 50;
+        int months = 24;
+        int batchSize = 5_000;
+        long seed = 42L;
+        boolean createSchema;
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            for (String arg : args) {
+                String key = arg.contains("=") ? arg.substring(0, arg.indexOf('=')) : arg;
+                String value = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "true";
+                switch (key) {
+                    case "--jdbc-url" -> o.jdbcUrl = value;
+                    case "--user" -> o.user = value;
+                    case "--password" -> o.password = value;
+                    case "--articles" -> o.articles = Integer.parseInt(value);
+                    case "--users" -> o.users = Integer.parseInt(value);
+                    case "--scraps-per-user" -> o.scrapsPerUser = Integer.parseInt(value);
+                    case "--months" -> o.months = Integer.parseInt(value);
+                    case "--batch" -> o.batchSize = Math.max(1, Integer.parseInt(value));
+                    case "--seed" -> o.seed = Long.parseLong(value);
+                    case "--create-schema" -> o.createSchema = Boolean.parseBoolean(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            return o;
+        }
+    }
+}
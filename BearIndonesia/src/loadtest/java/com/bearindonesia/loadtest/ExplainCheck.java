@@ -0,0 +1,191 @@
+package com.bearindonesia.loadtest;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 주요 조회를 EXPLAIN 해서 article_view(V6) 와 원본 테이블 인덱스를 타는지 확인한다.
+ * 하나라도 기대한 인덱스가 계획에 없으면 계획을 출력하고 종료 코드 1 로 끝난다.
+ *
+ * <pre>
+ * ./gradlew generateData --args='--jdbc-url=jdbc:postgresql://localhost:5432/bear --user=postgres --password=postgres --articles=300000'
+ * ./gradlew explainCheck --args='--jdbc-url=jdbc:postgresql://localhost:5432/bear --user=postgres --password=postgres'
+ * </pre>
+ *
+ * 데이터가 작아 플래너가 순차 스캔을 고르면 --no-seqscan=true 로 인덱스를 "쓸 수 있는지"만 본다.
+ * 같은 조회를 작은 데이터와 --no-seqscan 조건으로 확인하는 것은 ./gradlew test 의 NewsIndexPlanTest 가 매번 한다.
+ */
+public final class ExplainCheck {
+
+    private static final LocalDate LAST_MONTH = LocalDate.now().minusMonths(1).withDayOfMonth(1);
+
+    private static final List<Check> CHECKS = List.of(
+            new Check(
+                    "search",
+                    """
+                    SELECT a.id
+                    FROM article_view a
+                    WHERE LOWER(a.display_title) LIKE LOWER(CONCAT('%', ?, '%'))
+                       OR LOWER(a.display_summary) LIKE LOWER(CONCAT('%', ?, '%'))
+                    """,
+                    List.of("idx_article_view_title_trgm", "idx_article_view_summary_trgm"),
+                    List.of("vaksin", "vaksin")
+            ),
+            new Check(
+                    "tag filter",
+                    """
+                    SELECT a.id
+                    FROM article_view a
+                    WHERE LOWER(a.tags_text) LIKE LOWER(CONCAT('%', ?, '%'))
+                    """,
+                    List.of("idx_article_view_tags_trgm"),
+                    List.of("Kalbe")
+            ),
+            new Check(
+                    "articles by month",
+                    """
+                    SELECT a.id, a.published_date
+                    FROM article_view a
+                    WHERE a.published_date BETWEEN ? AND ?
+                    ORDER BY a.published_date DESC NULLS LAST, a.id DESC
+                    """,
+                    List.of("idx_article_view_published_date"),
+                    List.of(Date.valueOf(LAST_MONTH), Date.valueOf(LAST_MONTH.plusMonths(1).minusDays(1)))
+            ),
+            new Check(
+                    "top articles by importance",
+                    """
+                    SELECT a.id
+                    FROM article_view a
+                    ORDER BY a.importance DESC NULLS LAST, a.published_date DESC NULLS LAST, a.id DESC
+                    LIMIT 50
+                    """,
+                    List.of("idx_article_view_importance"),
+                    List.of()
+            ),
+            new Check(
+                    "article_view sync",
+                    "SELECT id FROM article_view_source WHERE id = ANY(?)",
+                    List.of("processed_news_id_date_key"),
+                    List.of((Object) new Long[] {1L, 2L, 3L})
+            ),
+            new Check(
+                    "ingest raw_news by link",
+                    "SELECT id FROM raw_news WHERE link = ANY(?)",
+                    List.of("idx_raw_news_link"),
+                    List.of((Object) new String[] {"https://example.com/a", "https://example.com/b"})
+            ),
+            new Check(
+                    "ingest processed_news by raw id",
+                    "SELECT id FROM processed_news WHERE raw_news_id = ANY(?)",
+                    List.of("idx_processed_news_raw_news_id"),
+                    List.of((Object) new Long[] {1L, 2L, 3L})
+            ),
+            new Check(
+                    "scrap list",
+                    "SELECT raw_news_id FROM user_scrap WHERE user_id = ? ORDER BY created_at DESC",
+                    List.of("idx_user_scrap_user_created", "user_scrap_pkey"),
+                    List.of(1L)
+            )
+    );
+
+    private ExplainCheck() {}
+
+    public static void main(String[] args) throws Exception {
+        String jdbcUrl = null;
+        String user = null;
+        String password = null;
+        boolean noSeqscan = false;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Options must be --key=value: " + arg);
+            }
+            String value = arg.substring(eq + 1);
+            switch (arg.substring(0, eq)) {
+                case "--jdbc-url" -> jdbcUrl = value;
+                case "--user" -> user = value;
+                case "--password" -> password = value;
+                case "--no-seqscan" -> noSeqscan = Boolean.parseBoolean(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (jdbcUrl == null) {
+            throw new IllegalArgumentException("--jdbc-url is required");
+        }
+
+        int failures = 0;
+        try (Connection con = DriverManager.getConnection(jdbcUrl, user, password)) {
+            try (Statement st = con.createStatement()) {
+                st.execute("ANALYZE raw_news");
+                st.execute("ANALYZE processed_news");
+                st.execute("ANALYZE article_view");
+                st.execute("ANALYZE user_scrap");
+                if (noSeqscan) {
+                    st.execute("SET enable_seqscan = off");
+                }
+            }
+            for (Check check : CHECKS) {
+                String plan = explain(con, check);
+                String used = null;
+                for (String index : check.indexes()) {
+                    for (String name : indexFamily(con, index)) {
+                        if (used == null && plan.contains(name)) {
+                            used = name;
+                        }
+                    }
+                }
+                if (used != null) {
+                    System.out.printf(Locale.ROOT, "OK    %-28s uses %s%n", check.name(), used);
+                } else {
+                    failures++;
+                    System.out.printf(Locale.ROOT, "FAIL  %-28s expected one of %s%n%s%n", check.name(), check.indexes(), plan);
+                }
+            }
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static String explain(Connection con, Check check) throws Exception {
+        try (PreparedStatement ps = con.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + check.sql())) {
+            for (int i = 0; i < check.params().size(); i++) {
+                ps.setObject(i + 1, check.params().get(i));
+            }
+            StringBuilder sb = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sb.append("      ").append(rs.getString(1)).append('\n');
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * 부모 인덱스 이름과, 파티션마다 자동으로 붙은 자식 인덱스 이름들.
+     */
+    private static List<String> indexFamily(Connection con, String index) throws Exception {
+        List<String> names = new ArrayList<>();
+        names.add(index);
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)")) {
+            ps.setString(1, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+
+    private record Check(String name, String sql, List<String> indexes, List<Object> params) {}
+}
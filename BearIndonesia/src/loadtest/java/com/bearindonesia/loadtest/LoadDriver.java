@@ -0,0 +1,266 @@
+package com.bearindonesia.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실행 중인 서버에 검색/기사 목록/경쟁사 리포트/스크랩 요청을 섞어 보내고
+ * 엔드포인트별 지연 백분위(p50/p90/p99/max)와 처리량을 출력한다.
+ *
+ * <pre>
+ * ./gradlew loadTest --args='--base-url=http://localhost:8080 --concurrency=32 --duration=60 --users=200'
+ * </pre>
+ *
+ * 사용자 계정은 DataGenerator 가 만든 loadtest-N@example.com 을 쓴다.
+ * 서버의 레이트리밋에 걸리지 않게 하려면 RATELIMIT_ENABLED=false 로 띄운다 (429 는 따로 집계된다).
+ */
+public final class LoadDriver {
+
+    private static final String[] QUERIES = { "vaksin", "obat", "BPOM", "Kalbe", "제약", "허가", "harga", "halal" };
+    private static final String[] COMPETITORS = { "Kalbe Farma", "Sanbe", "Dexa Medica", "Bio Farma", "Kimia Farma" };
+
+    private final Options options;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final List<String> tokens = new ArrayList<>();
+
+    private LoadDriver(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, options.concurrency / 4)))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadDriver(Options.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        login();
+        System.out.printf(Locale.ROOT, "Logged in %d users. Running %d workers for %d s (warm-up %d s)...%n",
+                tokens.size(), options.concurrency, options.durationSeconds, options.warmupSeconds);
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+        for (int w = 0; w < options.concurrency; w++) {
+            long seed = options.seed + w;
+            workers.submit(() -> worker(new Random(seed), warmupEnd, end));
+        }
+        workers.shutdown();
+        workers.awaitTermination(options.durationSeconds + options.warmupSeconds + 120L, TimeUnit.SECONDS);
+        report();
+        System.exit(0);
+    }
+
+    private void login() throws Exception {
+        for (int i = 0; i < options.users; i++) {
+            String email = String.format(Locale.ROOT, DataGenerator.USER_EMAIL_FORMAT, i);
+            String body = objectMapper.writeValueAsString(Map.of("email", email, "password", DataGenerator.PASSWORD));
+            HttpResponse<String> resp = client.send(
+                    json(URI.create(options.baseUrl + "/auth/login")).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                    HttpResponse.BodyHandlers.ofString()
+            );
+            if (resp.statusCode() == 200) {
+                JsonNode node = objectMapper.readTree(resp.body());
+                tokens.add(node.path("token").asText());
+            }
+        }
+        if (tokens.isEmpty() && options.scrapWeight > 0) {
+            throw new IllegalStateException("No load test user could log in. Run generateData first.");
+        }
+    }
+
+    private void worker(Random random, long warmupEnd, long end) {
+        int total = options.searchWeight + options.articlesWeight + options.reportWeight + options.scrapWeight;
+        while (System.nanoTime() < end) {
+            int pick = random.nextInt(total);
+            String name;
+            HttpRequest request;
+            if ((pick -= options.searchWeight) < 0) {
+                name = "POST /api/search";
+                String body = "{\"query\":\"" + QUERIES[random.nextInt(QUERIES.length)] + "\",\"sortBy\":\"relevance\",\"filterType\":\"all\"}";
+                request = json(URI.create(options.baseUrl + "/api/search")).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+            } else if ((pick -= options.articlesWeight) < 0) {
+                name = "GET /api/articles";
+                request = json(URI.create(options.baseUrl + "/api/articles")).GET().build();
+            } else if ((pick -= options.reportWeight) < 0) {
+                name = "GET /api/report/competitors";
+                LocalDate to = LocalDate.now().minusDays(random.nextInt(90));
+                LocalDate from = to.minusDays(30);
+                String keywords = COMPETITORS[random.nextInt(COMPETITORS.length)] + "," + COMPETITORS[random.nextInt(COMPETITORS.length)];
+                URI uri = URI.create(options.baseUrl + "/api/report/competitors?start=" + from + "&end=" + to
+                        + "&keywords=" + keywords.replace(" ", "%20"));
+                request = json(uri).GET().build();
+            } else {
+                String token = tokens.get(random.nextInt(tokens.size()));
+                if (random.nextBoolean()) {
+                    name = "GET /api/scrap";
+                    request = json(URI.create(options.baseUrl + "/api/scrap")).header("Authorization", "Bearer " + token).GET().build();
+                } else {
+                    name = "POST /api/scrap/status";
+                    StringBuilder ids = new StringBuilder("{\"ids\":[");
+                    for (int i = 0; i < 20; i++) {
+                        if (i > 0) ids.append(',');
+                        ids.append(1 + random.nextInt(Math.max(1, options.maxArticleId)));
+                    }
+                    ids.append("]}");
+                    request = json(URI.create(options.baseUrl + "/api/scrap/status"))
+                            .header("Authorization", "Bearer " + token)
+                            .POST(HttpRequest.BodyPublishers.ofString(ids.toString()))
+                            .build();
+                }
+            }
+            long started = System.nanoTime();
+            int status;
+            try {
+                HttpResponse<Void> resp = client.send(request, HttpResponse.BodyHandlers.discarding());
+                status = resp.statusCode();
+            } catch (Exception e) {
+                status = -1;
+            }
+            long elapsed = System.nanoTime() - started;
+            if (started >= warmupEnd) {
+                recorders.computeIfAbsent(name, k -> new Recorder()).record(elapsed, status);
+            }
+        }
+    }
+
+    private HttpRequest.Builder json(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                .header("Content-Type", "application/json");
+    }
+
+    private void report() {
+        System.out.printf(Locale.ROOT, "%n%-30s %8s %9s %9s %9s %9s %9s %7s %7s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "429", "errors");
+        Map<String, Recorder> sorted = new LinkedHashMap<>();
+        recorders.keySet().stream().sorted().forEach(k -> sorted.put(k, recorders.get(k)));
+        long total = 0;
+        for (Map.Entry<String, Recorder> e : sorted.entrySet()) {
+            Recorder.Snapshot s = e.getValue().snapshot();
+            total += s.count();
+            System.out.printf(Locale.ROOT, "%-30s %8d %9.1f %9.1f %9.1f %9.1f %9.1f %7d %7d%n",
+                    e.getKey(),
+                    s.count(),
+                    s.count() / (double) options.durationSeconds,
+                    s.percentileMs(0.50),
+                    s.percentileMs(0.90),
+                    s.percentileMs(0.99),
+                    s.percentileMs(1.0),
+                    s.throttled(),
+                    s.errors());
+        }
+        System.out.printf(Locale.ROOT, "%-30s %8d %9.1f%n", "total", total, total / (double) options.durationSeconds);
+    }
+
+    /**
+     * 지연 시간을 그대로 모아 두었다가 끝에서 정렬해 백분위를 구한다.
+     * 수백만 건 이하 규모에서는 히스토그램보다 단순하고 정확하다.
+     */
+    private static final class Recorder {
+        private long[] samples = new long[4096];
+        private int size;
+        private long throttled;
+        private long errors;
+
+        synchronized void record(long nanos, int status) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+            if (status == 429) {
+                throttled++;
+            } else if (status < 200 || status >= 400) {
+                errors++;
+            }
+        }
+
+        synchronized Snapshot snapshot() {
+            long[] copy = Arrays.copyOf(samples, size);
+            Arrays.sort(copy);
+            return new Snapshot(copy, throttled, errors);
+        }
+
+        record Snapshot(long[] sorted, long throttled, long errors) {
+            int count() {
+                return sorted.length;
+            }
+
+            double percentileMs(double p) {
+                if (sorted.length == 0) {
+                    return 0.0;
+                }
+                int idx = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+                return sorted[Math.max(0, idx)] / 1e6;
+            }
+        }
+    }
+
+    private static final class Options {
+        String baseUrl = "http://localhost:8080";
+        int concurrency = 16;
+        int durationSeconds = 60;
+        int warmupSeconds = 10;
+        int timeoutSeconds = 30;
+        int users = 100;
+        int maxArticleId = 1_000_000;
+        int searchWeight = 40;
+        int articlesWeight = 10;
+        int reportWeight = 20;
+        int scrapWeight = 30;
+        long seed = 7L;
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("Options must be --key=value: " + arg);
+                }
+                String key = arg.substring(0, eq);
+                String value = arg.substring(eq + 1);
+                switch (key) {
+                    case "--base-url" -> o.baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    case "--concurrency" -> o.concurrency = Math.max(1, Integer.parseInt(value));
+                    case "--duration" -> o.durationSeconds = Math.max(1, Integer.parseInt(value));
+                    case "--warmup" -> o.warmupSeconds = Math.max(0, Integer.parseInt(value));
+                    case "--timeout" -> o.timeoutSeconds = Math.max(1, Integer.parseInt(value));
+                    case "--users" -> o.users = Math.max(0, Integer.parseInt(value));
+                    case "--max-article-id" -> o.maxArticleId = Integer.parseInt(value);
+                    case "--mix" -> {
+                        // search:articles:report:scrap
+                        String[] w = value.split(":");
+                        o.searchWeight = Integer.parseInt(w[0]);
+                        o.articlesWeight = Integer.parseInt(w[1]);
+                        o.reportWeight = Integer.parseInt(w[2]);
+                        o.scrapWeight = Integer.parseInt(w[3]);
+                    }
+                    case "--seed" -> o.seed = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            return o;
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.bearindonesia;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BearIndonesiaApplication {
   public static void main(String[] args) {
     SpringApplication.run(BearIndonesiaApplication.class, args);
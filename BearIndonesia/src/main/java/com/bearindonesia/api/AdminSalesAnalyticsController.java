@@ -0,0 +1,81 @@
+package com.bearindonesia.api;
+
+import com.bearindonesia.auth.SecurityUtils;
+import com.bearindonesia.sales.analytics.SalesAnalyticsService;
+import com.bearindonesia.sales.analytics.SalesDimension;
+import com.bearindonesia.sales.analytics.SalesGroupRow;
+import com.bearindonesia.sales.analytics.SalesPeriodRow;
+import com.bearindonesia.sales.analytics.SalesSummary;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping({"/admin/sales/reports/{id}/analytics", "/api/admin/sales/reports/{id}/analytics"})
+public class AdminSalesAnalyticsController {
+
+    private final SalesAnalyticsService service;
+
+    public AdminSalesAnalyticsController(SalesAnalyticsService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/summary")
+    public SalesSummary summary(@PathVariable("id") long id) {
+        SecurityUtils.requireAdmin();
+        return service.summary(id);
+    }
+
+    @GetMapping("/group")
+    public List<SalesGroupRow> group(
+            @PathVariable("id") long id,
+            @RequestParam(value = "by", required = false) String by,
+            @RequestParam(value = "product", required = false) String product,
+            @RequestParam(value = "region", required = false) String region,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "limit", defaultValue = "100") int limit
+    ) {
+        SecurityUtils.requireAdmin();
+        return service.groupBy(
+                id,
+                SalesDimension.fromParam(by),
+                product,
+                region,
+                parseMonth(from),
+                parseMonth(to),
+                clamp(limit)
+        );
+    }
+
+    @GetMapping("/period-over-period")
+    public List<SalesPeriodRow> periodOverPeriod(
+            @PathVariable("id") long id,
+            @RequestParam(value = "by", required = false) String by,
+            @RequestParam(value = "month", required = false) String month,
+            @RequestParam(value = "limit", defaultValue = "100") int limit
+    ) {
+        SecurityUtils.requireAdmin();
+        return service.periodOverPeriod(id, SalesDimension.fromParam(by), parseMonth(month), clamp(limit));
+    }
+
+    private static YearMonth parseMonth(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("월 형식이 올바르지 않습니다. (YYYY-MM)");
+        }
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, 1000));
+    }
+}
@@ -2,10 +2,18 @@ package com.bearindonesia.api;
 
 import com.bearindonesia.auth.AuthUser;
 import com.bearindonesia.auth.SecurityUtils;
+import com.bearindonesia.sales.SalesReportFileRef;
 import com.bearindonesia.sales.SalesReportIdResponse;
 import com.bearindonesia.sales.SalesReportListResponse;
 import com.bearindonesia.sales.SalesReportService;
+import com.bearindonesia.sales.SalesReportStatus;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping({"/admin/sales", "/api/admin/sales"})
@@ -39,8 +48,9 @@ public class AdminSalesReportController {
             @RequestParam(value = "title", required = false) String title
     ) {
         AuthUser admin = SecurityUtils.requireAdmin();
-        long id = service.create(admin, title, file);
-        return ResponseEntity.status(HttpStatus.CREATED).body(new SalesReportIdResponse(id));
+        SalesReportIdResponse created = service.create(admin, title, file);
+        HttpStatus status = created.status() == SalesReportStatus.READY ? HttpStatus.CREATED : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(created);
     }
 
     @GetMapping("/reports/{id}/html")
@@ -55,4 +65,33 @@ public class AdminSalesReportController {
                 .contentType(MediaType.parseMediaType("text/html; charset=utf-8"))
                 .body(html);
     }
+
+    @GetMapping("/reports/{id}/file")
+    public ResponseEntity<?> downloadFile(@PathVariable("id") long id) throws IOException {
+        SecurityUtils.requireAdmin();
+        Optional<SalesReportFileRef> ref = service.findFile(id);
+        Optional<StreamingResponseBody> file = ref.isEmpty() ? Optional.empty() : service.openFile(ref.get(), id);
+        if (file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON)
+                    .body(new MessageResponse("not found"));
+        }
+        String filename = ref.get().originalFilename() == null ? "report-" + id + ".xlsx" : ref.get().originalFilename();
+        StreamingResponseBody body = file.get();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename, StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(body);
+    }
+
+    @PostMapping("/blobs/migrate")
+    public Map<String, Integer> migrateBlobs(
+            @RequestParam(value = "limit", required = false, defaultValue = "200") int limit
+    ) {
+        SecurityUtils.requireAdmin();
+        int migrated = service.migrateLegacyBlobs(Math.max(1, Math.min(limit, 5000)));
+        return Map.of("migrated", migrated);
+    }
 }
@@ -0,0 +1,36 @@
+package com.bearindonesia.api;
+
+import com.bearindonesia.auth.SecurityUtils;
+import com.bearindonesia.metrics.SlowQuery;
+import com.bearindonesia.metrics.SlowQueryLog;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping({"/admin/slow-queries", "/api/admin/slow-queries"})
+public class AdminSlowQueryController {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public AdminSlowQueryController(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @GetMapping
+    public List<SlowQuery> list(@RequestParam(value = "limit", defaultValue = "50") int limit) {
+        SecurityUtils.requireAdmin();
+        return slowQueryLog.recent(Math.max(1, Math.min(limit, 1000)));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        SecurityUtils.requireAdmin();
+        slowQueryLog.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,22 +2,28 @@ package com.bearindonesia.api;
 
 import com.bearindonesia.dto.ArticleDto;
 import com.bearindonesia.service.ArticleService;
+import com.bearindonesia.snapshot.MonthSnapshotService;
+import com.bearindonesia.snapshot.MonthSnapshotStore.SnapshotFile;
 import lombok.Data;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api")
 public class ArticleController {
 
     private final ArticleService articleService;
+    private final MonthSnapshotService monthSnapshots;
 
-    public ArticleController(ArticleService articleService) {
+    public ArticleController(ArticleService articleService, MonthSnapshotService monthSnapshots) {
         this.articleService = articleService;
+        this.monthSnapshots = monthSnapshots;
     }
 
     @PostMapping("/search")
@@ -37,19 +43,33 @@ public class ArticleController {
         return articleService.listProcessedArticles();
     }
 
+    // 지난 달은 스냅샷 파일로 응답한다 (ETag 재검증).
     @GetMapping("/articles/excel")
-    public ResponseEntity<byte[]> downloadExcel(
+    public ResponseEntity<?> downloadExcel(
             @RequestParam int year,
-            @RequestParam int month
+            @RequestParam int month,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        byte[] data = articleService.exportProcessedArticlesExcel(year, month);
         String filename = String.format("%04d-%02d-news.xlsx", year, month);
+        String disposition = "attachment; filename=\"" + filename + "\"";
+        Optional<SnapshotFile> snapshot = monthSnapshots.excel(yearMonth(year, month));
+        if (snapshot.isPresent()) {
+            return monthSnapshots.respond(snapshot.get(), ifNoneMatch, disposition);
+        }
+        byte[] data = articleService.exportProcessedArticlesExcel(year, month);
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
                 .body(data);
     }
 
+    private YearMonth yearMonth(int year, int month) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("월은 01부터 12까지 입력해 주세요.");
+        }
+        return YearMonth.of(year, month);
+    }
+
     @Data
     public static class SearchRequest {
         private String query;
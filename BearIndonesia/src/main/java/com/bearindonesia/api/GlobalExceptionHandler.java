@@ -3,6 +3,7 @@ package com.bearindonesia.api;
 import com.bearindonesia.auth.UnauthorizedException;
 import com.bearindonesia.auth.DuplicateEmailException;
 import com.bearindonesia.auth.ForbiddenException;
+import com.bearindonesia.auth.ServiceBusyException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -43,6 +44,16 @@ public class GlobalExceptionHandler {
                 .body(new MessageResponse(ex.getMessage()));
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<MessageResponse> handleServiceBusy(
+            ServiceBusyException ex,
+            HttpServletRequest request
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new MessageResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<MessageResponse> handleInvalidBody(
             HttpMessageNotReadableException ex,
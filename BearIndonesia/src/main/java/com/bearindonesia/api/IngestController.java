@@ -0,0 +1,67 @@
+package com.bearindonesia.api;
+
+import com.bearindonesia.auth.ForbiddenException;
+import com.bearindonesia.auth.UnauthorizedException;
+import com.bearindonesia.ingest.BulkIngestService;
+import com.bearindonesia.ingest.IngestResult;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.zip.GZIPInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 파이프라인용 대량 적재 API. JWT 대신 X-Ingest-Token 공유 토큰으로 막는다 (ingest.token 이 비어 있으면 꺼짐).
+ * 본문은 NDJSON (한 줄에 IngestArticle 하나), Content-Encoding: gzip 도 받는다.
+ */
+@RestController
+@RequestMapping("/ingest")
+public class IngestController {
+
+    private final BulkIngestService ingestService;
+    private final byte[] token;
+
+    public IngestController(BulkIngestService ingestService, @Value("${ingest.token:}") String token) {
+        this.ingestService = ingestService;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PostMapping("/articles")
+    public IngestResult ingestArticles(
+            @RequestHeader(value = "X-Ingest-Token", required = false) String ingestToken,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body
+    ) {
+        requireToken(ingestToken);
+        return ingestService.ingest(decode(body, contentEncoding));
+    }
+
+    private void requireToken(String given) {
+        if (token.length == 0) {
+            throw new ForbiddenException("적재 API 가 설정되지 않았습니다.");
+        }
+        if (given == null || !MessageDigest.isEqual(token, given.getBytes(StandardCharsets.UTF_8))) {
+            throw new UnauthorizedException("적재 토큰이 올바르지 않습니다.");
+        }
+    }
+
+    private static InputStream decode(InputStream body, String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.isBlank() || "identity".equalsIgnoreCase(contentEncoding.trim())) {
+            return body;
+        }
+        if (!"gzip".equalsIgnoreCase(contentEncoding.trim())) {
+            throw new IllegalArgumentException("지원하지 않는 Content-Encoding 입니다.");
+        }
+        try {
+            return new GZIPInputStream(body, 64 * 1024);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("gzip 본문을 읽을 수 없습니다.");
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.bearindonesia.api;
 
-import com.bearindonesia.dto.NewsletterCoreNewsItemDto;
 import com.bearindonesia.newsletter.NewsletterService;
 import com.bearindonesia.service.ArticleService;
+import com.bearindonesia.snapshot.MonthSnapshotService;
+import com.bearindonesia.snapshot.MonthSnapshotStore.SnapshotFile;
 import java.time.YearMonth;
-import java.util.List;
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -18,20 +21,30 @@ public class NewsletterController {
 
     private final NewsletterService newsletterService;
     private final ArticleService articleService;
+    private final MonthSnapshotService monthSnapshots;
 
-    public NewsletterController(NewsletterService newsletterService, ArticleService articleService) {
+    public NewsletterController(
+            NewsletterService newsletterService,
+            ArticleService articleService,
+            MonthSnapshotService monthSnapshots
+    ) {
         this.newsletterService = newsletterService;
         this.articleService = articleService;
+        this.monthSnapshots = monthSnapshots;
     }
 
     @GetMapping("/newsletter")
-    public ResponseEntity<byte[]> getNewsletter(
+    public ResponseEntity<?> getNewsletter(
             @RequestParam String year,
-            @RequestParam String month
+            @RequestParam String month,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         int yearValue = parseYear(year);
         int monthValue = parseMonth(month);
-        YearMonth.of(yearValue, monthValue);
+        Optional<SnapshotFile> snapshot = monthSnapshots.newsletter(YearMonth.of(yearValue, monthValue));
+        if (snapshot.isPresent()) {
+            return monthSnapshots.respond(snapshot.get(), ifNoneMatch, null);
+        }
 
         ResponseEntity<byte[]> response = newsletterService.fetchNewsletter(yearValue, monthValue);
         MediaType contentType = response.getHeaders().getContentType();
@@ -41,16 +54,20 @@ public class NewsletterController {
     }
 
     @GetMapping("/newsletter/core-news")
-    public List<NewsletterCoreNewsItemDto> getCoreNews(
+    public ResponseEntity<?> getCoreNews(
             @RequestParam String year,
             @RequestParam String month,
-            @RequestParam(required = false, defaultValue = "10") int limit
+            @RequestParam(required = false, defaultValue = "10") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         int yearValue = parseYear(year);
         int monthValue = parseMonth(month);
-        YearMonth.of(yearValue, monthValue);
         int safeLimit = Math.max(1, Math.min(limit, 50));
-        return articleService.listTopCoreNewsByMonth(yearValue, monthValue, safeLimit);
+        Optional<SnapshotFile> snapshot = monthSnapshots.coreNews(YearMonth.of(yearValue, monthValue), safeLimit);
+        if (snapshot.isPresent()) {
+            return monthSnapshots.respond(snapshot.get(), ifNoneMatch, null);
+        }
+        return ResponseEntity.ok(articleService.listTopCoreNewsByMonth(yearValue, monthValue, safeLimit));
     }
 
     private int parseYear(String year) {
@@ -1,9 +1,16 @@
 package com.bearindonesia.api;
 
+import com.bearindonesia.wordcloud.TermFrequencies;
+import com.bearindonesia.wordcloud.TermFrequency;
+import com.bearindonesia.wordcloud.TermFrequencyService;
 import com.bearindonesia.wordcloud.WordCloudRequest;
 import com.bearindonesia.wordcloud.WordCloudService;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,9 +20,17 @@ import org.springframework.web.bind.annotation.*;
 public class WordCloudController {
 
     private final WordCloudService wordCloudService;
+    private final TermFrequencyService termFrequencyService;
+    private final int maxDays;
 
-    public WordCloudController(WordCloudService wordCloudService) {
+    public WordCloudController(
+            WordCloudService wordCloudService,
+            TermFrequencyService termFrequencyService,
+            @Value("${wordcloud.terms.max-days:366}") int maxDays
+    ) {
         this.wordCloudService = wordCloudService;
+        this.termFrequencyService = termFrequencyService;
+        this.maxDays = Math.max(1, maxDays);
     }
 
     @PostMapping("/wordcloud")
@@ -26,6 +41,21 @@ public class WordCloudController {
                 .body(wordCloudService.generate(request));
     }
 
+    // 아직 집계하지 않은 날이 백그라운드에서 만들어지는 중이면 있는 만큼 202 로 답한다.
+    @GetMapping("/wordcloud/terms")
+    public ResponseEntity<List<TermFrequency>> terms(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(required = false, defaultValue = "100") int limit
+    ) {
+        validateRequest(new WordCloudRequest(startDate, endDate));
+        LocalDate start = LocalDate.parse(startDate);
+        LocalDate end = LocalDate.parse(endDate);
+        int safeLimit = Math.max(1, Math.min(limit, 500));
+        TermFrequencies result = termFrequencyService.frequencies(start, end, safeLimit);
+        return ResponseEntity.status(result.complete() ? HttpStatus.OK : HttpStatus.ACCEPTED).body(result.terms());
+    }
+
     private void validateRequest(WordCloudRequest request) {
         if (request == null || request.startDate() == null || request.endDate() == null) {
             throw new IllegalArgumentException("기간을 선택해 주세요.");
@@ -33,11 +63,20 @@ public class WordCloudController {
         if (request.startDate().isBlank() || request.endDate().isBlank()) {
             throw new IllegalArgumentException("기간을 선택해 주세요.");
         }
+        LocalDate start;
+        LocalDate end;
         try {
-            LocalDate.parse(request.startDate());
-            LocalDate.parse(request.endDate());
+            start = LocalDate.parse(request.startDate());
+            end = LocalDate.parse(request.endDate());
         } catch (DateTimeParseException e) {
             throw new IllegalArgumentException("기간 형식이 올바르지 않습니다. (YYYY-MM-DD)");
         }
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("종료일은 시작일 이후여야 합니다.");
+        }
+        // 날마다 집계를 만들거나 합치므로 기간이 길면 한 요청이 DB 를 오래 붙잡는다.
+        if (ChronoUnit.DAYS.between(start, end) + 1 > maxDays) {
+            throw new IllegalArgumentException("기간은 최대 " + maxDays + "일까지 선택할 수 있습니다.");
+        }
     }
 }
@@ -0,0 +1,372 @@
+package com.bearindonesia.article;
+
+import com.bearindonesia.dto.ArticleDto;
+import com.bearindonesia.dto.KeywordDto;
+import com.bearindonesia.dto.NewsletterCoreNewsItemDto;
+import com.bearindonesia.ingest.IngestEvent;
+import jakarta.annotation.PreDestroy;
+import java.sql.Array;
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 기사 목록·월별 목록·월별 핵심 뉴스를 메모리에서 처리하는 article_view 열 지향 캐시.
+ * 정렬·필터·top-K 에 쓰는 열만 ArticleColumns 로 들고 있고,
+ * 제목과 이미지는 핵심 뉴스를 처음 요청할 때 통째로, 본문 같은 긴 텍스트는 응답할 범위를 조회 한 번으로 읽어 스냅샷 행 순서에 끼운다.
+ * 워터마크 (행 수, 최대 id, 최근 refreshed_at) 가 바뀌면 스냅샷을 새로 만든다.
+ * IngestEvent 는 ingest-debounce-ms 동안 모아서 전용 스레드에서 한 번 확인한다 (이벤트 스레드는 기다리지 않는다).
+ * 주기 갱신은 알림을 놓쳤거나 복제본이 늦었을 때의 안전망이다.
+ * 아직 적재 전이거나 꺼져 있으면 빈 Optional 을 돌려주고, 호출자는 DB 로 조회한다.
+ */
+@Component
+public class ArticleColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleColumnStore.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long ingestDebounceMs;
+    private final ThreadPoolExecutor reloader;
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+
+    public ArticleColumnStore(
+            @Qualifier("readJdbcTemplate") JdbcTemplate jdbcTemplate,
+            @Value("${article.store.enabled:true}") boolean enabled,
+            @Value("${article.store.ingest-debounce-ms:2000}") long ingestDebounceMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.ingestDebounceMs = Math.max(0, ingestDebounceMs);
+        this.reloader = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                r -> {
+                    Thread t = new Thread(r, "article-store-reloader");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresh();
+    }
+
+    /**
+     * 이미 예약된 확인이 있으면 그쪽에 합친다. 확인이 도는 중에 온 이벤트는 다음 확인을 하나 더 예약한다.
+     */
+    @EventListener
+    public void onIngest(IngestEvent event) {
+        if (!enabled || !reloadQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reloader.execute(this::reloadAfterIngest);
+        } catch (RejectedExecutionException e) {
+            reloadQueued.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${article.store.refresh-ms:60000}", initialDelayString = "${article.store.refresh-ms:60000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String watermark = watermark();
+            Snapshot current = snapshot;
+            if (current != null && current.columns.watermark.equals(watermark)) {
+                return;
+            }
+            long startedAt = System.nanoTime();
+            ArticleColumns columns = load(watermark, current == null ? 0 : current.columns.size);
+            snapshot = new Snapshot(columns);
+            reloads.increment();
+            log.info("Loaded {} articles into the column store ({} KiB, {} ms).",
+                    columns.size, columns.approxBytes() / 1024, (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Article column store refresh failed; keeping the previous snapshot.", e);
+        }
+    }
+
+    /**
+     * 전체 목록 (importance DESC NULLS LAST, published_date DESC NULLS LAST, id DESC).
+     */
+    public Optional<List<ArticleDto>> listByImportance() {
+        Snapshot s = current();
+        if (s == null) {
+            return Optional.empty();
+        }
+        return Optional.of(materialize(s.columns, s.columns.byImportance, ""));
+    }
+
+    /**
+     * 해당 월 목록 (published_date DESC NULLS LAST, id DESC).
+     */
+    public Optional<List<ArticleDto>> listMonth(YearMonth month) {
+        Snapshot s = current();
+        if (s == null) {
+            return Optional.empty();
+        }
+        int[] range = s.columns.monthRange(month);
+        int[] rows = new int[range[1] - range[0]];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = range[0] + i;
+        }
+        return Optional.of(materialize(s.columns, rows, " WHERE published_date BETWEEN ? AND ?",
+                Date.valueOf(month.atDay(1)), Date.valueOf(month.atEndOfMonth())));
+    }
+
+    /**
+     * 해당 월에서 목록 순서로 앞선 limit 개의 제목·이미지.
+     */
+    public Optional<List<NewsletterCoreNewsItemDto>> topCoreNews(YearMonth month, int limit) {
+        Snapshot s = current();
+        if (s == null) {
+            return Optional.empty();
+        }
+        int[] range = s.columns.monthRange(month);
+        int[] rows = s.columns.topByImportance(range[0], range[1], limit);
+        Headlines headlines = s.headlines();
+        List<NewsletterCoreNewsItemDto> out = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            NewsletterCoreNewsItemDto dto = new NewsletterCoreNewsItemDto();
+            dto.title = headlines.titles[row];
+            dto.img = headlines.images[row];
+            out.add(dto);
+        }
+        return Optional.of(out);
+    }
+
+    public ArticleStoreStats stats() {
+        Snapshot s = snapshot;
+        return new ArticleStoreStats(
+                hits.sum(),
+                misses.sum(),
+                reloads.sum(),
+                s == null ? 0 : s.columns.size,
+                s == null ? 0 : s.columns.dictionary.length,
+                s == null ? 0 : s.approxBytes()
+        );
+    }
+
+    private Snapshot current() {
+        Snapshot s = enabled ? snapshot : null;
+        if (s == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return s;
+    }
+
+    private void reloadAfterIngest() {
+        try {
+            Thread.sleep(ingestDebounceMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reloadQueued.set(false);
+            return;
+        }
+        reloadQueued.set(false);
+        refresh();
+    }
+
+    private String watermark() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) AS cnt, COALESCE(MAX(id), 0) AS max_id, MAX(refreshed_at) AS refreshed FROM article_view",
+                (rs, rowNum) -> rs.getLong("cnt") + "-" + rs.getLong("max_id") + "-" + rs.getString("refreshed")
+        );
+    }
+
+    private ArticleColumns load(String watermark, int expectedRows) {
+        ArticleColumns.Builder builder = new ArticleColumns.Builder(expectedRows);
+        jdbcTemplate.query(
+                """
+                SELECT id, raw_news_id, published_date, importance, semantic_confidence,
+                       tag_mismatch, category_mismatch, source, category, eng_category, tag_names
+                FROM article_view
+                ORDER BY published_date DESC NULLS LAST, id DESC
+                """,
+                rs -> {
+                    Date date = rs.getDate("published_date");
+                    Object imp = rs.getObject("importance");
+                    Object conf = rs.getObject("semantic_confidence");
+                    Array tags = rs.getArray("tag_names");
+                    builder.add(
+                            rs.getLong("id"),
+                            rs.getLong("raw_news_id"),
+                            date == null ? null : date.toLocalDate(),
+                            imp == null ? null : ((Number) imp).intValue(),
+                            conf == null ? null : ((Number) conf).floatValue(),
+                            (Boolean) rs.getObject("tag_mismatch"),
+                            (Boolean) rs.getObject("category_mismatch"),
+                            rs.getString("source"),
+                            rs.getString("category"),
+                            rs.getString("eng_category"),
+                            tags == null ? null : (String[]) tags.getArray()
+                    );
+                }
+        );
+        return builder.build(watermark);
+    }
+
+    /**
+     * rows 의 긴 텍스트를 filter 범위 조회 한 번으로 읽어 같은 순서의 DTO 로 만든다.
+     * 스냅샷 이후 들어온 행은 버리고, 스냅샷 이후 지워진 행은 결과에서 빠진다.
+     */
+    private List<ArticleDto> materialize(ArticleColumns columns, int[] rows, String filter, Object... args) {
+        if (rows.length == 0) {
+            return new ArrayList<>();
+        }
+        Map<Long, Integer> positions = new HashMap<>(rows.length * 2);
+        for (int i = 0; i < rows.length; i++) {
+            positions.put(columns.ids[rows[i]], i);
+        }
+        ArticleDto[] slots = new ArticleDto[rows.length];
+        jdbcTemplate.query(
+                "SELECT id, title, link, content, img, kor_title, kor_summary, id_summary, kor_content, insight " +
+                        "FROM article_view" + filter,
+                rs -> {
+                    Integer pos = positions.get(rs.getLong("id"));
+                    if (pos == null) {
+                        return;
+                    }
+                    ArticleDto dto = new ArticleDto();
+                    dto.title = rs.getString("title");
+                    dto.link = rs.getString("link");
+                    dto.content = rs.getString("content");
+                    dto.img = rs.getString("img");
+                    dto.korTitle = rs.getString("kor_title");
+                    dto.korSummary = rs.getString("kor_summary");
+                    dto.idSummary = rs.getString("id_summary");
+                    dto.korContent = rs.getString("kor_content");
+                    dto.insight = rs.getString("insight");
+                    fill(dto, columns, rows[pos]);
+                    slots[pos] = dto;
+                },
+                args
+        );
+        List<ArticleDto> out = new ArrayList<>(rows.length);
+        for (ArticleDto dto : slots) {
+            if (dto != null) {
+                out.add(dto);
+            }
+        }
+        return out;
+    }
+
+    private static void fill(ArticleDto dto, ArticleColumns columns, int row) {
+        dto.id = columns.ids[row];
+        dto.rawNewsId = columns.rawIds[row];
+        dto.date = columns.date(row);
+        dto.source = columns.string(columns.source[row]);
+        dto.category = columns.string(columns.category[row]);
+        dto.engCategory = columns.string(columns.engCategory[row]);
+        dto.semanticConfidence = columns.confidence(row);
+        dto.tagMismatch = columns.tagMismatch(row);
+        dto.categoryMismatch = columns.categoryMismatch(row);
+        dto.importance = columns.importance(row);
+        List<KeywordDto> tags = new ArrayList<>();
+        for (String name : columns.tags(row)) {
+            KeywordDto k = new KeywordDto();
+            k.name = name;
+            tags.add(k);
+        }
+        dto.tags = tags;
+    }
+
+    /**
+     * 제목·이미지 열. 핵심 뉴스를 처음 요청할 때 스냅샷 행 순서대로 한 번 읽는다.
+     */
+    private record Headlines(String[] titles, String[] images, long approxBytes) {}
+
+    private final class Snapshot {
+
+        final ArticleColumns columns;
+        private volatile Headlines headlines;
+
+        Snapshot(ArticleColumns columns) {
+            this.columns = columns;
+        }
+
+        Headlines headlines() {
+            Headlines h = headlines;
+            if (h == null) {
+                synchronized (this) {
+                    h = headlines;
+                    if (h == null) {
+                        h = loadHeadlines();
+                        headlines = h;
+                    }
+                }
+            }
+            return h;
+        }
+
+        long approxBytes() {
+            Headlines h = headlines;
+            return columns.approxBytes() + (h == null ? 0 : h.approxBytes());
+        }
+
+        private Headlines loadHeadlines() {
+            Map<Long, Integer> rowById = new HashMap<>(columns.size * 2);
+            for (int row = 0; row < columns.size; row++) {
+                rowById.put(columns.ids[row], row);
+            }
+            String[] titles = new String[columns.size];
+            String[] images = new String[columns.size];
+            jdbcTemplate.query(
+                    "SELECT id, display_title, img FROM article_view",
+                    rs -> {
+                        Integer row = rowById.get(rs.getLong("id"));
+                        if (row != null) {
+                            titles[row] = rs.getString("display_title");
+                            images[row] = rs.getString("img");
+                        }
+                    }
+            );
+            long bytes = 16L * 2 + 4L * 2 * columns.size;
+            for (int i = 0; i < columns.size; i++) {
+                bytes += titles[i] == null ? 0 : 56 + titles[i].length() * 2L;
+                bytes += images[i] == null ? 0 : 56 + images[i].length() * 2L;
+            }
+            return new Headlines(titles, images, bytes);
+        }
+    }
+}
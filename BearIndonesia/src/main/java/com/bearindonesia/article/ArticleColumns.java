@@ -0,0 +1,288 @@
+package com.bearindonesia.article;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * article_view 의 열 지향 불변 스냅샷.
+ * 행 순서는 (published_date DESC NULLS LAST, id DESC) 라서 월 필터는 이진 탐색 한 번으로 구간이 나온다.
+ * 숫자는 원시 배열, source/category/eng_category/태그는 공유 사전의 int 코드로 둔다.
+ * 제목·본문 같은 긴 텍스트는 들고 있지 않는다 (ArticleColumnStore 가 필요할 때 읽는다).
+ */
+final class ArticleColumns {
+
+    static final int NO_DATE = Integer.MIN_VALUE;
+    static final int NO_IMPORTANCE = Integer.MIN_VALUE;
+    static final int NO_CODE = -1;
+
+    // flags 비트: 값이 있는지(HAS_*)와 값(*)을 따로 둬서 Boolean 의 null 을 표현한다.
+    static final int HAS_TAG_MISMATCH = 1;
+    static final int TAG_MISMATCH = 1 << 1;
+    static final int HAS_CATEGORY_MISMATCH = 1 << 2;
+    static final int CATEGORY_MISMATCH = 1 << 3;
+
+    static final ArticleColumns EMPTY = new Builder(0).build("");
+
+    final long[] ids;
+    final long[] rawIds;
+    final int[] epochDays;
+    final int[] importance;
+    final float[] confidence;
+    final byte[] flags;
+    final int[] source;
+    final int[] category;
+    final int[] engCategory;
+    final int[] tagStart;
+    final int[] tagCodes;
+    final String[] dictionary;
+    /** 목록 순서 (importance DESC NULLS LAST, published_date DESC NULLS LAST, id DESC) 의 행 번호. */
+    final int[] byImportance;
+    /** 행 번호 → byImportance 안의 순위. */
+    final int[] importanceRank;
+    final String watermark;
+    final int size;
+
+    private ArticleColumns(Builder b, String watermark) {
+        this.size = b.size;
+        this.ids = Arrays.copyOf(b.ids, size);
+        this.rawIds = Arrays.copyOf(b.rawIds, size);
+        this.epochDays = Arrays.copyOf(b.epochDays, size);
+        this.importance = Arrays.copyOf(b.importance, size);
+        this.confidence = Arrays.copyOf(b.confidence, size);
+        this.flags = Arrays.copyOf(b.flags, size);
+        this.source = Arrays.copyOf(b.source, size);
+        this.category = Arrays.copyOf(b.category, size);
+        this.engCategory = Arrays.copyOf(b.engCategory, size);
+        this.tagStart = Arrays.copyOf(b.tagStart, size + 1);
+        this.tagCodes = Arrays.copyOf(b.tagCodes, b.tagCount);
+        this.dictionary = b.dictionary.toArray(new String[0]);
+        this.watermark = watermark;
+
+        // 행이 이미 날짜·id 내림차순이라 importance 로 안정 정렬하면 목록 순서가 된다.
+        this.byImportance = IntStream.range(0, size)
+                .boxed()
+                .sorted(Comparator.comparingLong(row -> importanceKey(importance[row])))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.importanceRank = new int[size];
+        for (int rank = 0; rank < size; rank++) {
+            importanceRank[byImportance[rank]] = rank;
+        }
+    }
+
+    /**
+     * 해당 월 행의 [from, to) 구간.
+     */
+    int[] monthRange(YearMonth month) {
+        int first = (int) month.atDay(1).toEpochDay();
+        int last = (int) month.atEndOfMonth().toEpochDay();
+        return new int[] { firstAtOrBefore(last), firstAtOrBefore(first - 1) };
+    }
+
+    /**
+     * [from, to) 구간에서 목록 순서로 앞선 limit 개 행.
+     */
+    int[] topByImportance(int from, int to, int limit) {
+        int[] ranks = new int[to - from];
+        for (int row = from; row < to; row++) {
+            ranks[row - from] = importanceRank[row];
+        }
+        Arrays.sort(ranks);
+        int n = Math.min(Math.max(0, limit), ranks.length);
+        int[] rows = new int[n];
+        for (int i = 0; i < n; i++) {
+            rows[i] = byImportance[ranks[i]];
+        }
+        return rows;
+    }
+
+    LocalDate date(int row) {
+        return epochDays[row] == NO_DATE ? null : LocalDate.ofEpochDay(epochDays[row]);
+    }
+
+    Integer importance(int row) {
+        return importance[row] == NO_IMPORTANCE ? null : importance[row];
+    }
+
+    Float confidence(int row) {
+        return Float.isNaN(confidence[row]) ? null : confidence[row];
+    }
+
+    Boolean tagMismatch(int row) {
+        return flag(row, HAS_TAG_MISMATCH, TAG_MISMATCH);
+    }
+
+    Boolean categoryMismatch(int row) {
+        return flag(row, HAS_CATEGORY_MISMATCH, CATEGORY_MISMATCH);
+    }
+
+    String string(int code) {
+        return code == NO_CODE ? null : dictionary[code];
+    }
+
+    List<String> tags(int row) {
+        List<String> out = new ArrayList<>(tagStart[row + 1] - tagStart[row]);
+        for (int i = tagStart[row]; i < tagStart[row + 1]; i++) {
+            out.add(dictionary[tagCodes[i]]);
+        }
+        return out;
+    }
+
+    /**
+     * 배열과 사전 문자열의 대략적인 힙 크기 (객체 헤더 포함 추정치).
+     */
+    long approxBytes() {
+        long bytes = 8L * (ids.length + rawIds.length)
+                + 4L * (epochDays.length + importance.length + confidence.length)
+                + flags.length
+                + 4L * (source.length + category.length + engCategory.length)
+                + 4L * (tagStart.length + tagCodes.length)
+                + 4L * (byImportance.length + importanceRank.length)
+                + 16L * 13;
+        for (String s : dictionary) {
+            bytes += 56 + s.length() * 2L;
+        }
+        return bytes;
+    }
+
+    private Boolean flag(int row, int has, int value) {
+        return (flags[row] & has) == 0 ? null : (flags[row] & value) != 0;
+    }
+
+    // 날짜 내림차순 배열에서 epochDays[i] <= day 인 첫 행 (없으면 size).
+    private int firstAtOrBefore(int day) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] != NO_DATE && epochDays[mid] > day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static long importanceKey(int importance) {
+        return importance == NO_IMPORTANCE ? Long.MAX_VALUE : -(long) importance;
+    }
+
+    /**
+     * 행을 (published_date DESC NULLS LAST, id DESC) 순서로 받아 배열을 채운다.
+     */
+    static final class Builder {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private long[] ids;
+        private long[] rawIds;
+        private int[] epochDays;
+        private int[] importance;
+        private float[] confidence;
+        private byte[] flags;
+        private int[] source;
+        private int[] category;
+        private int[] engCategory;
+        private int[] tagStart;
+        private int[] tagCodes;
+        private int size;
+        private int tagCount;
+
+        Builder(int expectedRows) {
+            int capacity = Math.max(16, expectedRows);
+            ids = new long[capacity];
+            rawIds = new long[capacity];
+            epochDays = new int[capacity];
+            importance = new int[capacity];
+            confidence = new float[capacity];
+            flags = new byte[capacity];
+            source = new int[capacity];
+            category = new int[capacity];
+            engCategory = new int[capacity];
+            tagStart = new int[capacity + 1];
+            tagCodes = new int[capacity * 4];
+        }
+
+        void add(
+                long id,
+                long rawId,
+                LocalDate date,
+                Integer importance,
+                Float confidence,
+                Boolean tagMismatch,
+                Boolean categoryMismatch,
+                String source,
+                String category,
+                String engCategory,
+                String[] tags
+        ) {
+            if (size == ids.length) {
+                grow();
+            }
+            int row = size++;
+            this.ids[row] = id;
+            this.rawIds[row] = rawId;
+            this.epochDays[row] = date == null ? NO_DATE : (int) date.toEpochDay();
+            this.importance[row] = importance == null ? NO_IMPORTANCE : importance;
+            this.confidence[row] = confidence == null ? Float.NaN : confidence;
+            int f = 0;
+            if (tagMismatch != null) {
+                f |= HAS_TAG_MISMATCH | (tagMismatch ? TAG_MISMATCH : 0);
+            }
+            if (categoryMismatch != null) {
+                f |= HAS_CATEGORY_MISMATCH | (categoryMismatch ? CATEGORY_MISMATCH : 0);
+            }
+            this.flags[row] = (byte) f;
+            this.source[row] = code(source);
+            this.category[row] = code(category);
+            this.engCategory[row] = code(engCategory);
+            int tagLength = tags == null ? 0 : tags.length;
+            if (tagCount + tagLength > tagCodes.length) {
+                tagCodes = Arrays.copyOf(tagCodes, Math.max(tagCodes.length * 2, tagCount + tagLength));
+            }
+            for (int i = 0; i < tagLength; i++) {
+                tagCodes[tagCount++] = code(tags[i]);
+            }
+            tagStart[row + 1] = tagCount;
+        }
+
+        ArticleColumns build(String watermark) {
+            return new ArticleColumns(this, watermark);
+        }
+
+        private int code(String value) {
+            if (value == null) {
+                return NO_CODE;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                codes.put(value, code);
+                dictionary.add(value);
+            }
+            return code;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            rawIds = Arrays.copyOf(rawIds, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            importance = Arrays.copyOf(importance, capacity);
+            confidence = Arrays.copyOf(confidence, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            source = Arrays.copyOf(source, capacity);
+            category = Arrays.copyOf(category, capacity);
+            engCategory = Arrays.copyOf(engCategory, capacity);
+            tagStart = Arrays.copyOf(tagStart, capacity + 1);
+        }
+    }
+}
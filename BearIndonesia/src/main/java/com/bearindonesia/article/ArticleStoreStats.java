@@ -0,0 +1,10 @@
+package com.bearindonesia.article;
+
+public record ArticleStoreStats(
+        long hits,
+        long misses,
+        long reloads,
+        int rows,
+        int dictionaryEntries,
+        long approxBytes
+) {}
@@ -1,5 +1,6 @@
 package com.bearindonesia.auth;
 
+import java.util.Optional;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
@@ -8,17 +9,27 @@ public class AuthService {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final LastLoginRecorder lastLoginRecorder;
 
-    public AuthService(JwtService jwtService, UserRepository userRepository) {
+    public AuthService(
+            JwtService jwtService,
+            UserRepository userRepository,
+            PasswordHasher passwordHasher,
+            LastLoginRecorder lastLoginRecorder
+    ) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.lastLoginRecorder = lastLoginRecorder;
     }
 
     public AuthResponse register(RegisterRequest req) {
         validateRegister(req);
+        String passwordHash = passwordHasher.hash(req.password());
         UserInfo user;
         try {
-            user = userRepository.createUser(req.email().trim(), req.name().trim(), req.password());
+            user = userRepository.createUser(req.email().trim(), req.name().trim(), passwordHash);
         } catch (DuplicateKeyException e) {
             throw new DuplicateEmailException("이미 사용 중인 이메일입니다.");
         }
@@ -28,10 +39,17 @@ public class AuthService {
 
     public AuthResponse login(LoginRequest req) {
         validateLogin(req);
-        UserInfo user = userRepository
-                .findByEmailAndPassword(req.email().trim(), req.password())
-                .orElseThrow(() -> new UnauthorizedException("이메일 또는 비밀번호가 올바르지 않습니다."));
-        userRepository.updateLastLogin(user.id());
+        Optional<UserCredentials> credentials = userRepository.findCredentialsByEmail(req.email().trim());
+        String storedHash = credentials.map(UserCredentials::passwordHash).orElse(null);
+        if (!passwordHasher.matches(req.password(), storedHash)) {
+            throw new UnauthorizedException("이메일 또는 비밀번호가 올바르지 않습니다.");
+        }
+        UserInfo user = credentials.get().user();
+        if (passwordHasher.needsRehash(storedHash)) {
+            // pgcrypto 로 만든 해시(cost 6)나 낮은 cost 해시는 로그인 성공 시 현재 cost 로 다시 저장한다.
+            userRepository.replacePasswordHash(user.id(), storedHash, passwordHasher.hash(req.password()));
+        }
+        lastLoginRecorder.record(user.id());
         String token = jwtService.createToken(user.id(), user.email(), user.name(), user.role());
         return new AuthResponse(token, new UserResponse(user.id(), user.email(), user.name(), user.role()));
     }
@@ -41,7 +59,11 @@ public class AuthService {
         if (req.currentPassword().equals(req.newPassword())) {
             throw new UnauthorizedException("새 비밀번호가 현재 비밀번호와 같습니다.");
         }
-        boolean updated = userRepository.updatePassword(userId, req.currentPassword(), req.newPassword());
+        String storedHash = userRepository.findPasswordHash(userId).orElse(null);
+        if (!passwordHasher.matches(req.currentPassword(), storedHash)) {
+            throw new UnauthorizedException("현재 비밀번호가 올바르지 않습니다.");
+        }
+        boolean updated = userRepository.replacePasswordHash(userId, storedHash, passwordHasher.hash(req.newPassword()));
         if (!updated) {
             throw new UnauthorizedException("현재 비밀번호가 올바르지 않습니다.");
         }
@@ -1,6 +1,7 @@
 package com.bearindonesia.auth;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
@@ -14,11 +15,14 @@ import org.springframework.stereotype.Service;
 public class JwtService {
 
     private final SecretKey key;
+    private final JwtParser parser;
+    private final VerifiedTokenCache tokenCache;
     private final long expiresSeconds;
 
     public JwtService(
             @Value("${JWT_SECRET}") String secret,
-            @Value("${JWT_EXPIRES_MINUTES:120}") long expiresMinutes) {
+            @Value("${JWT_EXPIRES_MINUTES:120}") long expiresMinutes,
+            VerifiedTokenCache tokenCache) {
         if (secret == null || secret.isBlank()) {
             throw new IllegalStateException("JWT_SECRET is required");
         }
@@ -26,6 +30,9 @@ public class JwtService {
             throw new IllegalStateException("JWT_SECRET must be at least 32 characters");
         }
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        // JwtParser 는 불변이고 스레드 안전하므로 한 번만 만든다.
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.tokenCache = tokenCache;
         this.expiresSeconds = Math.max(1, expiresMinutes) * 60L;
     }
 
@@ -42,16 +49,27 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * 검증된 토큰은 exp 까지 캐시되므로 같은 토큰의 반복 요청은 서명 검증과 클레임 파싱을 건너뛴다.
+     */
     public AuthUser parseToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return tokenCache.get(token, this::verify);
+    }
+
+    public TokenCacheStats tokenCacheStats() {
+        return tokenCache.stats();
+    }
+
+    private VerifiedTokenCache.VerifiedToken verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
         Long userId = claims.get("uid", Long.class);
         String email = claims.getSubject();
         String name = claims.get("name", String.class);
         String roleStr = claims.get("role", String.class);
-        return new AuthUser(userId, email, name, UserRole.fromDb(roleStr));
+        Date exp = claims.getExpiration();
+        return new VerifiedTokenCache.VerifiedToken(
+                new AuthUser(userId, email, name, UserRole.fromDb(roleStr)),
+                exp == null ? 0L : exp.getTime()
+        );
     }
 }
@@ -0,0 +1,36 @@
+package com.bearindonesia.auth;
+
+import com.bearindonesia.writebehind.WriteBehindBuffer;
+import com.bearindonesia.writebehind.WriteBehindRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import org.springframework.stereotype.Component;
+
+/**
+ * 로그인 시각을 요청 경로에서 바로 쓰지 않고 모아 두었다가 한 번의 UPDATE 로 반영한다.
+ */
+@Component
+public class LastLoginRecorder {
+
+    private final WriteBehindBuffer<Long, Instant> buffer;
+
+    public LastLoginRecorder(WriteBehindRegistry registry, UserRepository userRepository) {
+        this.buffer = registry.register(
+                "users_info.last_login_at",
+                (a, b) -> a.isAfter(b) ? a : b,
+                userRepository::updateLastLogins
+        );
+    }
+
+    public void record(Long userId) {
+        buffer.put(userId, Instant.now());
+    }
+
+    /**
+     * DataSource 가 닫히기 전에 남은 값을 쓴다.
+     */
+    @PreDestroy
+    public void flush() {
+        buffer.flush();
+    }
+}
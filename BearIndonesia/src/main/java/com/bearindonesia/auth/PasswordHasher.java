@@ -0,0 +1,137 @@
+package com.bearindonesia.auth;
+
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * 애플리케이션 쪽 bcrypt 해시/검증.
+ * pgcrypto crypt(?, gen_salt('bf')) 와 같은 $2a$ 형식이라 기존 해시를 그대로 검증할 수 있다.
+ * bcrypt 는 비밀번호의 앞 72바이트(UTF-8)만 쓴다. pgcrypto 는 넘는 부분을 조용히 자르고 BCryptPasswordEncoder 는 예외를 던지므로,
+ * 여기서 먼저 72바이트로 잘라 두 쪽이 같은 해시를 만들고 검증하게 한다 (73바이트째부터는 비밀번호에 영향이 없다).
+ * bcrypt 는 CPU 를 많이 쓰므로 전용 풀(크기/큐 제한)에서만 돌리고, 풀이 가득 차면 503 으로 거절한다.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final int MAX_PASSWORD_BYTES = 72;
+
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+    // 존재하지 않는 계정도 같은 시간만큼 검증하도록 쓰는 더미 해시
+    private final String dummyHash;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    public PasswordHasher(
+            @Value("${auth.password.bcrypt-cost:10}") int cost,
+            @Value("${auth.password.hash-threads:2}") int threads,
+            @Value("${auth.password.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password.timeout-ms:5000}") long timeoutMs
+    ) {
+        this.cost = Math.max(4, Math.min(31, cost));
+        this.encoder = new BCryptPasswordEncoder(BCryptPasswordEncoder.BCryptVersion.$2A, this.cost);
+        this.dummyHash = encode("not-a-real-password");
+        this.timeoutMs = Math.max(1, timeoutMs);
+        int poolSize = Math.max(1, threads);
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "password-hasher-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public String hash(String rawPassword) {
+        return run(() -> encode(rawPassword));
+    }
+
+    /**
+     * 해시가 없으면(계정 없음) 더미 해시로 검증해 응답 시간으로 계정 존재 여부가 드러나지 않게 한다.
+     */
+    public boolean matches(String rawPassword, String storedHash) {
+        if (storedHash == null || storedHash.isBlank()) {
+            run(() -> check(rawPassword, dummyHash));
+            return false;
+        }
+        return run(() -> check(rawPassword, storedHash));
+    }
+
+    /**
+     * 저장된 해시의 cost 가 설정값보다 낮으면(pgcrypto 기본 cost 6 등) 다시 해시해야 한다.
+     */
+    public boolean needsRehash(String storedHash) {
+        return storedHash != null && encoder.upgradeEncoding(storedHash);
+    }
+
+    private String encode(String rawPassword) {
+        return BCrypt.hashpw(truncate(rawPassword), BCrypt.gensalt("$2a", cost));
+    }
+
+    private static boolean check(String rawPassword, String storedHash) {
+        try {
+            return BCrypt.checkpw(truncate(rawPassword), storedHash);
+        } catch (IllegalArgumentException e) {
+            // bcrypt 형식이 아닌 해시
+            return false;
+        }
+    }
+
+    /**
+     * 문자 경계와 무관하게 바이트 단위로 자른다 (pgcrypto 와 같은 방식).
+     */
+    static byte[] truncate(String rawPassword) {
+        byte[] bytes = (rawPassword == null ? "" : rawPassword).getBytes(StandardCharsets.UTF_8);
+        return bytes.length > MAX_PASSWORD_BYTES ? Arrays.copyOf(bytes, MAX_PASSWORD_BYTES) : bytes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("요청이 많아 잠시 후 다시 시도해 주세요.");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceBusyException("요청이 많아 잠시 후 다시 시도해 주세요.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("요청이 중단되었습니다.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.bearindonesia.auth;
 
+import com.bearindonesia.ratelimit.RateLimitFilter;
 import java.util.List;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,10 +22,16 @@ public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
     private final SecurityErrorHandlers securityErrorHandlers;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter, SecurityErrorHandlers securityErrorHandlers) {
+    public SecurityConfig(
+            JwtAuthFilter jwtAuthFilter,
+            SecurityErrorHandlers securityErrorHandlers,
+            RateLimitFilter rateLimitFilter
+    ) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.securityErrorHandlers = securityErrorHandlers;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     /**
@@ -47,6 +54,7 @@ public class SecurityConfig {
                 .anyRequest().permitAll()
         );
         http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JwtAuthFilter.class);
         return http.build();
     }
 
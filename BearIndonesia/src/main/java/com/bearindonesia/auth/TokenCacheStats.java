@@ -0,0 +1,3 @@
+package com.bearindonesia.auth;
+
+public record TokenCacheStats(long hits, long misses, long evictions, int entries, double hitRate) {}
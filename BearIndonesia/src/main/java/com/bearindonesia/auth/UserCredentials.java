@@ -0,0 +1,3 @@
+package com.bearindonesia.auth;
+
+public record UserCredentials(UserInfo user, String passwordHash) {}
@@ -1,7 +1,11 @@
 package com.bearindonesia.auth;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -16,39 +20,78 @@ public class UserRepository {
         this.jdbcTemplate = jdbcTemplate;
     }
 
-    public Optional<UserInfo> findByEmailAndPassword(String email, String password) {
+    public Optional<UserCredentials> findCredentialsByEmail(String email) {
         String sql = """
-            SELECT id, username, name, role
+            SELECT id, username, name, role, password_hash
             FROM users_info
             WHERE username = ?
-              AND password_hash = crypt(?, password_hash)
             """;
-        return jdbcTemplate.query(sql, userRowMapper(), email, password)
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new UserCredentials(
+                        userRowMapper().mapRow(rs, rowNum),
+                        rs.getString("password_hash")
+                ), email)
                 .stream()
                 .findFirst();
     }
 
-    public UserInfo createUser(String email, String name, String password) {
+    public Optional<String> findPasswordHash(Long userId) {
+        return jdbcTemplate.query(
+                        "SELECT password_hash FROM users_info WHERE id = ?",
+                        (rs, rowNum) -> rs.getString("password_hash"),
+                        userId
+                )
+                .stream()
+                .findFirst();
+    }
+
+    public UserInfo createUser(String email, String name, String passwordHash) {
         String sql = """
             INSERT INTO users_info (username, name, password_hash)
-            VALUES (?, ?, crypt(?, gen_salt('bf')))
+            VALUES (?, ?, ?)
             RETURNING id, username, name, role
             """;
-        return jdbcTemplate.queryForObject(sql, userRowMapper(), email, name, password);
-    }
-
-    public void updateLastLogin(Long userId) {
-        jdbcTemplate.update("UPDATE users_info SET last_login_at = NOW() WHERE id = ?", userId);
+        return jdbcTemplate.queryForObject(sql, userRowMapper(), email, name, passwordHash);
     }
 
-    public boolean updatePassword(Long userId, String currentPassword, String newPassword) {
+    /**
+     * 여러 사용자의 last_login_at 을 한 문장으로 갱신한다. 이미 더 늦은 값이 있으면 유지한다.
+     */
+    public void updateLastLogins(Map<Long, Instant> lastLogins) {
+        if (lastLogins.isEmpty()) {
+            return;
+        }
+        Long[] ids = new Long[lastLogins.size()];
+        Timestamp[] times = new Timestamp[lastLogins.size()];
+        int i = 0;
+        for (Map.Entry<Long, Instant> e : lastLogins.entrySet()) {
+            ids[i] = e.getKey();
+            times[i] = Timestamp.from(e.getValue());
+            i++;
+        }
         String sql = """
-            UPDATE users_info
-            SET password_hash = crypt(?, gen_salt('bf'))
-            WHERE id = ?
-              AND password_hash = crypt(?, password_hash)
+            UPDATE users_info u
+            SET last_login_at = GREATEST(u.last_login_at, v.ts)
+            FROM unnest(?::bigint[], ?::timestamptz[]) AS v(id, ts)
+            WHERE u.id = v.id
             """;
-        int updated = jdbcTemplate.update(sql, newPassword, userId, currentPassword);
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setArray(2, con.createArrayOf("timestamptz", times));
+            return ps;
+        });
+    }
+
+    /**
+     * 해시가 읽어 간 값 그대로일 때만 바꾼다. 그 사이 비밀번호가 바뀌었으면 false.
+     */
+    public boolean replacePasswordHash(Long userId, String expectedHash, String newHash) {
+        int updated = jdbcTemplate.update(
+                "UPDATE users_info SET password_hash = ? WHERE id = ? AND password_hash = ?",
+                newHash,
+                userId,
+                expectedHash
+        );
         return updated > 0;
     }
 
@@ -0,0 +1,101 @@
+package com.bearindonesia.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 서명 검증이 끝난 토큰의 AuthUser 캐시.
+ * 키는 토큰의 SHA-256 이라 원문 토큰을 메모리에 들고 있지 않고, 항목은 토큰 exp 에 맞춰 만료된다.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(@Value("${auth.token-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    /**
+     * 캐시에 있으면 바로 돌려주고, 없으면 verifier 로 검증한 뒤 exp 까지 캐시한다.
+     */
+    public AuthUser get(String token, Function<String, VerifiedToken> verifier) {
+        if (maxEntries == 0) {
+            return verifier.apply(token).user();
+        }
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(key);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                hits.increment();
+                return cached.user();
+            }
+            entries.remove(key, cached);
+        }
+        misses.increment();
+        VerifiedToken verified = verifier.apply(token);
+        if (verified.expiresAtMillis() > now) {
+            if (entries.size() >= maxEntries) {
+                evict(now);
+            }
+            entries.put(key, new Entry(verified.user(), verified.expiresAtMillis()));
+        }
+        return verified.user();
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public TokenCacheStats stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        return new TokenCacheStats(h, m, evictions.sum(), entries.size(), h + m == 0 ? 0.0 : (double) h / (h + m));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.token-cache.purge-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(e -> e.expiresAtMillis() <= now);
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(e -> e.expiresAtMillis() <= now);
+        // 만료된 항목을 지워도 가득 차 있으면 임의 항목을 덜어낸다. 다음 요청에서 다시 검증될 뿐이다.
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record VerifiedToken(AuthUser user, long expiresAtMillis) {}
+
+    private record Entry(AuthUser user, long expiresAtMillis) {}
+}
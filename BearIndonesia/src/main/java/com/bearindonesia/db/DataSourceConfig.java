@@ -0,0 +1,179 @@
+package com.bearindonesia.db;
+
+import com.bearindonesia.metrics.MeteredJdbcTemplate;
+import com.bearindonesia.metrics.SlowQueryLog;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * 워크로드별로 분리한 DataSource/JdbcTemplate 구성.
+ * <ul>
+ *   <li>interactive(primary): 로그인, 스크랩, 기사 목록 등 사용자 요청. 기본 JdbcTemplate.</li>
+ *   <li>read: interactive 조회를 복제본으로 보내는 라우팅. @Qualifier("readJdbcTemplate").</li>
+ *   <li>analytics: 경쟁사 리포트 같은 무거운 집계. 복제본이 있으면 복제본으로. @Qualifier("analyticsJdbcTemplate").</li>
+ *   <li>bulk: 엑셀 내보내기와 대량 적재. @Qualifier("bulkJdbcTemplate").</li>
+ * </ul>
+ * 풀마다 크기, 커넥션 대기 한도, statement_timeout 을 따로 둬서 무거운 작업이 사용자 요청의 커넥션을 뺏지 못하게 한다.
+ * 대기 시간은 풀 이름 태그가 붙은 hikaricp.connections.acquire / pending 메트릭으로 나온다.
+ * db.replica.urls 가 비어 있으면 read 는 primary, analytics 는 자기 풀로 간다.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private final DataSourceProperties properties;
+    private final List<String> replicaUrls;
+    private final String replicaUsername;
+    private final String replicaPassword;
+    private final double maxLagSeconds;
+    private final MeterRegistry registry;
+    private final SlowQueryLog slowQueryLog;
+
+    public DataSourceConfig(
+            DataSourceProperties properties,
+            @Value("${db.replica.urls:}") String replicaUrls,
+            @Value("${db.replica.username:}") String replicaUsername,
+            @Value("${db.replica.password:}") String replicaPassword,
+            @Value("${db.replica.max-lag-seconds:30}") double maxLagSeconds,
+            MeterRegistry registry,
+            SlowQueryLog slowQueryLog
+    ) {
+        this.properties = properties;
+        this.replicaUrls = Arrays.stream(replicaUrls.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        this.replicaUsername = replicaUsername.isBlank() ? properties.determineUsername() : replicaUsername;
+        this.replicaPassword = replicaPassword.isBlank() ? properties.determinePassword() : replicaPassword;
+        this.maxLagSeconds = maxLagSeconds;
+        this.registry = registry;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(
+            @Value("${db.pool.interactive.statement-timeout-ms:10000}") long statementTimeoutMs
+    ) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        // spring.datasource.hikari.connection-init-sql 을 주면 그쪽이 우선한다.
+        ds.setConnectionInitSql(statementTimeoutSql(statementTimeoutMs));
+        return ds;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource readDataSource(
+            DataSource dataSource,
+            @Value("${db.replica.pool-size:10}") int poolSize,
+            @Value("${db.pool.interactive.statement-timeout-ms:10000}") long statementTimeoutMs,
+            @Value("${db.pool.interactive.connection-timeout-ms:5000}") long connectionTimeoutMs
+    ) {
+        return routing("replica-", dataSource, poolSize, statementTimeoutMs, connectionTimeoutMs);
+    }
+
+    @Bean
+    public HikariDataSource analyticsPrimaryDataSource(
+            @Value("${db.pool.analytics.size:4}") int size,
+            @Value("${db.pool.analytics.statement-timeout-ms:60000}") long statementTimeoutMs,
+            @Value("${db.pool.analytics.connection-timeout-ms:30000}") long connectionTimeoutMs
+    ) {
+        return pool("analytics", properties.determineUrl(), properties.determineUsername(), properties.determinePassword(),
+                size, statementTimeoutMs, connectionTimeoutMs, true);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource analyticsDataSource(
+            @Qualifier("analyticsPrimaryDataSource") DataSource analyticsPrimaryDataSource,
+            @Value("${db.pool.analytics.size:4}") int size,
+            @Value("${db.pool.analytics.statement-timeout-ms:60000}") long statementTimeoutMs,
+            @Value("${db.pool.analytics.connection-timeout-ms:30000}") long connectionTimeoutMs
+    ) {
+        return routing("analytics-replica-", analyticsPrimaryDataSource, size, statementTimeoutMs, connectionTimeoutMs);
+    }
+
+    @Bean
+    public HikariDataSource bulkDataSource(
+            @Value("${db.pool.bulk.size:2}") int size,
+            @Value("${db.pool.bulk.statement-timeout-ms:300000}") long statementTimeoutMs,
+            @Value("${db.pool.bulk.connection-timeout-ms:60000}") long connectionTimeoutMs
+    ) {
+        return pool("bulk", properties.determineUrl(), properties.determineUsername(), properties.determinePassword(),
+                size, statementTimeoutMs, connectionTimeoutMs, false);
+    }
+
+    @Bean
+    @Primary
+    public MeteredJdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new MeteredJdbcTemplate(dataSource, registry, "primary", slowQueryLog);
+    }
+
+    @Bean
+    public MeteredJdbcTemplate readJdbcTemplate(@Qualifier("readDataSource") DataSource readDataSource) {
+        return new MeteredJdbcTemplate(readDataSource, registry, "read", slowQueryLog);
+    }
+
+    @Bean
+    public MeteredJdbcTemplate analyticsJdbcTemplate(@Qualifier("analyticsDataSource") DataSource analyticsDataSource) {
+        return new MeteredJdbcTemplate(analyticsDataSource, registry, "analytics", slowQueryLog);
+    }
+
+    @Bean
+    public MeteredJdbcTemplate bulkJdbcTemplate(@Qualifier("bulkDataSource") DataSource bulkDataSource) {
+        return new MeteredJdbcTemplate(bulkDataSource, registry, "bulk", slowQueryLog);
+    }
+
+    private ReplicaRoutingDataSource routing(
+            String prefix,
+            DataSource fallback,
+            int poolSize,
+            long statementTimeoutMs,
+            long connectionTimeoutMs
+    ) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = pool(prefix + i, replicaUrls.get(i), replicaUsername, replicaPassword,
+                    poolSize, statementTimeoutMs, connectionTimeoutMs, true);
+            // 빈이 아니라서 Boot 가 메트릭을 붙여 주지 않는다.
+            replica.setMetricRegistry(registry);
+            replicas.add(new ReplicaRoutingDataSource.Replica(replica.getPoolName(), replica));
+        }
+        return new ReplicaRoutingDataSource(fallback, replicas, maxLagSeconds);
+    }
+
+    private HikariDataSource pool(
+            String name,
+            String url,
+            String username,
+            String password,
+            int size,
+            long statementTimeoutMs,
+            long connectionTimeoutMs,
+            boolean readOnly
+    ) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName(name);
+        ds.setJdbcUrl(url);
+        ds.setUsername(username);
+        ds.setPassword(password);
+        ds.setDriverClassName(properties.determineDriverClassName());
+        ds.setMaximumPoolSize(Math.max(1, size));
+        ds.setMinimumIdle(Math.min(2, Math.max(1, size)));
+        ds.setConnectionTimeout(Math.max(250, connectionTimeoutMs));
+        ds.setConnectionInitSql(statementTimeoutSql(statementTimeoutMs));
+        ds.setReadOnly(readOnly);
+        return ds;
+    }
+
+    private static String statementTimeoutSql(long statementTimeoutMs) {
+        return "SET statement_timeout = " + Math.max(0, statementTimeoutMs);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bearindonesia.db;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * raw_news / processed_news 월 파티션 관리 (V5__partition_news_by_month.sql 의 함수 호출).
+ * 이번 달부터 months-ahead 달 뒤까지 파티션을 미리 만들고,
+ * retain-months 가 0 보다 크면 그보다 오래된 파티션을 떼어 archive-schema 로 옮긴다.
+ */
+@Component
+public class NewsPartitionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(NewsPartitionJob.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retainMonths;
+    private final String archiveSchema;
+
+    public NewsPartitionJob(
+            @Qualifier("bulkJdbcTemplate") JdbcTemplate jdbcTemplate,
+            @Value("${db.partition.enabled:true}") boolean enabled,
+            @Value("${db.partition.months-ahead:3}") int monthsAhead,
+            @Value("${db.partition.retain-months:0}") int retainMonths,
+            @Value("${db.partition.archive-schema:archive}") String archiveSchema
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = Math.max(1, monthsAhead);
+        this.retainMonths = Math.max(0, retainMonths);
+        this.archiveSchema = archiveSchema;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${db.partition.cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        try {
+            Integer created = jdbcTemplate.queryForObject(
+                    "SELECT ensure_news_partitions(?, ?)",
+                    Integer.class,
+                    Date.valueOf(thisMonth),
+                    Date.valueOf(thisMonth.plusMonths(monthsAhead))
+            );
+            if (created != null && created > 0) {
+                log.info("Created {} news partitions up to {}.", created, thisMonth.plusMonths(monthsAhead));
+            }
+            if (retainMonths > 0) {
+                LocalDate cutoff = thisMonth.minusMonths(retainMonths);
+                Integer detached = jdbcTemplate.queryForObject(
+                        "SELECT detach_news_partitions(?, ?)",
+                        Integer.class,
+                        Date.valueOf(cutoff),
+                        archiveSchema
+                );
+                if (detached != null && detached > 0) {
+                    log.info("Detached {} news partitions older than {} into schema '{}'.", detached, cutoff, archiveSchema);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("News partition maintenance failed.", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.bearindonesia.db;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 복제본 지연을 주기적으로 재고 db.replica.lag / db.replica.healthy 게이지로 내보낸다.
+ * 죽은 복제본은 커넥션 타임아웃만큼 붙잡히므로 스케줄러 풀(spring.task.scheduling.pool.size)을 한 스레드보다 크게 둔다.
+ */
+@Component
+public class ReplicaLagMonitor {
+
+    private final List<ReplicaRoutingDataSource> routers;
+
+    public ReplicaLagMonitor(List<ReplicaRoutingDataSource> routers, MeterRegistry registry) {
+        this.routers = routers;
+        for (ReplicaRoutingDataSource router : routers) {
+            register(router, registry);
+        }
+    }
+
+    private static void register(ReplicaRoutingDataSource router, MeterRegistry registry) {
+        for (ReplicaRoutingDataSource.Replica r : router.replicas()) {
+            Gauge.builder("db.replica.lag", r, ReplicaRoutingDataSource.Replica::lagSeconds)
+                    .tag("replica", r.name())
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("db.replica.healthy", r, x -> x.healthy() ? 1 : 0)
+                    .tag("replica", r.name())
+                    .register(registry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${db.replica.check-ms:5000}")
+    public void refresh() {
+        for (ReplicaRoutingDataSource router : routers) {
+            router.refreshLag();
+        }
+    }
+}
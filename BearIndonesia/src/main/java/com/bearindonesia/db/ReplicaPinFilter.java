@@ -0,0 +1,28 @@
+package com.bearindonesia.db;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 요청 하나의 복제본 조회를 같은 복제본으로 보낸다 ({@link ReplicaRoutingDataSource#pinScope()}).
+ * StreamingResponseBody 처럼 다른 스레드에서 도는 본문 쓰기는 범위 밖이라 커넥션마다 고른다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReplicaPinFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (ReplicaRoutingDataSource.PinScope ignored = ReplicaRoutingDataSource.pinScope()) {
+            chain.doFilter(request, response);
+        }
+    }
+}
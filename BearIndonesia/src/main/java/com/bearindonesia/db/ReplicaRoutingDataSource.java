@@ -0,0 +1,199 @@
+package com.bearindonesia.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 읽기 전용 조회를 복제본으로 보내는 DataSource.
+ * 복제 지연이 maxLagSeconds 를 넘거나 연결이 안 되는 복제본은 빼고, 남은 복제본이 없으면 primary 로 보낸다.
+ * 지연 측정은 {@link #refreshLag()} 가 주기적으로 한다.
+ * {@link #pinScope()} 안에서는 처음 고른 복제본을 계속 쓴다 (한 요청의 조회들이 서로 다른 복제본을 보며 시점이 뒤로 가지 않게).
+ * 고정된 복제본이 로테이션에서 빠지면 다시 고른다.
+ * 범위 안에서 쓰기가 있었으면({@link #pinToPrimary()}) 그 뒤 조회는 모두 primary 로 보낸다 (방금 쓴 내용을 읽도록).
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    static final String PRIMARY = "primary";
+
+    private static final String LAG_SQL = """
+        SELECT CASE
+            WHEN NOT pg_is_in_recovery() THEN 0
+            WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+        END
+        """;
+
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    // 요청 단위로 라우터별 고정 대상. pinScope() 밖에서는 null 이라 커넥션마다 돌아가며 고른다.
+    private static final ThreadLocal<Pins> PINS = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, double maxLagSeconds) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLagSeconds = maxLagSeconds;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica r : this.replicas) {
+            targets.put(r.name(), r.dataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * 닫을 때까지 이 스레드의 라우팅 대상을 라우터마다 하나로 고정한다. 중첩되면 바깥 범위를 그대로 쓴다.
+     */
+    public static PinScope pinScope() {
+        if (PINS.get() != null) {
+            return () -> {};
+        }
+        PINS.set(new Pins());
+        return PINS::remove;
+    }
+
+    /**
+     * 이 스레드의 pinScope() 가 끝날 때까지 모든 라우터를 primary 로 고정한다. 범위 밖이면 아무것도 하지 않는다.
+     */
+    public static void pinToPrimary() {
+        Pins pins = PINS.get();
+        if (pins != null) {
+            pins.primaryOnly = true;
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Pins pins = PINS.get();
+        if (pins == null) {
+            return choose();
+        }
+        if (pins.primaryOnly) {
+            return PRIMARY;
+        }
+        Object pinned = pins.byRouter.get(this);
+        if (pinned == null || !inRotation(pinned)) {
+            pinned = choose();
+            pins.byRouter.put(this, pinned);
+        }
+        return pinned;
+    }
+
+    private boolean inRotation(Object key) {
+        if (PRIMARY.equals(key)) {
+            // primary 로 떨어졌던 요청은 primary 에 머문다 (primary 가 가장 최신이다).
+            return true;
+        }
+        for (Replica r : replicas) {
+            if (r.name().equals(key)) {
+                return r.healthy;
+            }
+        }
+        return false;
+    }
+
+    private Object choose() {
+        int size = replicas.size();
+        if (size == 0) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica r = replicas.get((start + i) % size);
+            if (r.healthy) {
+                return r.name();
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * 각 복제본의 재생 지연을 재서 라우팅 대상 여부를 갱신한다.
+     */
+    public void refreshLag() {
+        for (Replica r : replicas) {
+            boolean wasHealthy = r.healthy;
+            try (Connection con = r.dataSource().getConnection();
+                 Statement st = con.createStatement();
+                 ResultSet rs = st.executeQuery(LAG_SQL)) {
+                rs.next();
+                r.lagSeconds = rs.getDouble(1);
+                r.healthy = r.lagSeconds <= maxLagSeconds;
+            } catch (Exception e) {
+                r.lagSeconds = Double.NaN;
+                r.healthy = false;
+            }
+            if (wasHealthy != r.healthy) {
+                log.warn("Replica {} is now {} (lag {} s).", r.name(), r.healthy ? "in rotation" : "out of rotation", r.lagSeconds);
+            }
+        }
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        for (Replica r : replicas) {
+            if (r.dataSource() instanceof AutoCloseable c) {
+                try {
+                    c.close();
+                } catch (Exception ignored) {
+                    // 종료 중 오류는 무시한다.
+                }
+            }
+        }
+    }
+
+    private static final class Pins {
+        final Map<ReplicaRoutingDataSource, Object> byRouter = new HashMap<>();
+        boolean primaryOnly;
+    }
+
+    public interface PinScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // 첫 지연 측정 전까지는 라우팅하지 않는다.
+        volatile boolean healthy;
+        volatile double lagSeconds = Double.NaN;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public boolean healthy() {
+            return healthy;
+        }
+
+        public double lagSeconds() {
+            return lagSeconds;
+        }
+    }
+}
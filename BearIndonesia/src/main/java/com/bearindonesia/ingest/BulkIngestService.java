@@ -0,0 +1,438 @@
+package com.bearindonesia.ingest;
+
+import com.bearindonesia.auth.ServiceBusyException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * NDJSON 기사 스트림을 raw_news / processed_news 에 대량 적재한다.
+ * 줄은 Jackson 스트리밍 파서로 하나씩 읽어 바로 CSV 로 바꿔 배치 버퍼에 쌓고,
+ * 배치가 차면 bulk 풀 커넥션 하나에서 COPY 로 임시 테이블에 넣은 뒤 집합 연산 몇 번으로 갱신/삽입하고 커밋한다.
+ * raw_news 는 link, processed_news 는 raw_news_id 로 찾는다 (파티션 테이블이라 ON CONFLICT 를 쓸 수 없다).
+ * 배치마다 따로 커밋하므로 실패한 배치만 결과에 표시되고 나머지는 남는다.
+ */
+@Service
+public class BulkIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkIngestService.class);
+
+    private static final String STAGE_DDL = """
+            CREATE TEMP TABLE IF NOT EXISTS ingest_stage (
+                seq INTEGER NOT NULL,
+                link TEXT NOT NULL,
+                title TEXT,
+                content TEXT,
+                img TEXT,
+                source TEXT,
+                keyword TEXT,
+                published_date DATE,
+                has_processed BOOLEAN NOT NULL,
+                kor_title TEXT,
+                kor_summary TEXT,
+                kor_content TEXT,
+                id_summary TEXT,
+                category TEXT,
+                eng_category TEXT,
+                processed_keyword TEXT,
+                tags JSONB,
+                importance INTEGER,
+                insight TEXT,
+                semantic_confidence REAL,
+                tag_mismatch BOOLEAN,
+                category_mismatch BOOLEAN,
+                is_pharma_related BOOLEAN,
+                raw_id BIGINT,
+                processed_id BIGINT
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String COPY_STAGE = """
+            COPY ingest_stage (
+                seq, link, title, content, img, source, keyword, published_date, has_processed,
+                kor_title, kor_summary, kor_content, id_summary, category, eng_category, processed_keyword,
+                tags, importance, insight, semantic_confidence, tag_mismatch, category_mismatch, is_pharma_related
+            ) FROM STDIN (FORMAT csv)
+            """;
+
+    // 한 배치 안에서 같은 link 가 여러 번 오면 마지막 줄만 남긴다.
+    private static final String DEDUPE_STAGE =
+            "DELETE FROM ingest_stage s USING ingest_stage t WHERE t.link = s.link AND t.seq > s.seq";
+
+    // 동시에 들어온 배치끼리 같은 link 를 두 번 삽입하지 않도록 조회~삽입 구간을 직렬화한다.
+    private static final String LOCK = "SELECT pg_advisory_xact_lock(hashtext('news_ingest'))";
+
+    private static final String MATCH_RAW = """
+            UPDATE ingest_stage s
+            SET raw_id = r.id
+            FROM (
+                SELECT DISTINCT ON (link) id, link
+                FROM raw_news
+                WHERE link IN (SELECT link FROM ingest_stage)
+                ORDER BY link, id
+            ) r
+            WHERE r.link = s.link
+            """;
+
+    private static final String UPDATE_RAW = """
+            UPDATE raw_news r
+            SET title = COALESCE(s.title, r.title),
+                content = COALESCE(s.content, r.content),
+                img = COALESCE(s.img, r.img),
+                source = COALESCE(s.source, r.source),
+                keyword = COALESCE(s.keyword, r.keyword),
+                published_date = COALESCE(s.published_date, r.published_date)
+            FROM ingest_stage s
+            WHERE r.id = s.raw_id
+              AND (COALESCE(s.title, r.title), COALESCE(s.content, r.content), COALESCE(s.img, r.img),
+                   COALESCE(s.source, r.source), COALESCE(s.keyword, r.keyword),
+                   COALESCE(s.published_date, r.published_date))
+                  IS DISTINCT FROM (r.title, r.content, r.img, r.source, r.keyword, r.published_date)
+            """;
+
+    private static final String INSERT_RAW = """
+            WITH inserted AS (
+                INSERT INTO raw_news (title, content, link, img, source, keyword, published_date)
+                SELECT title, content, link, img, source, keyword, published_date
+                FROM ingest_stage
+                WHERE raw_id IS NULL
+                RETURNING id, link
+            )
+            UPDATE ingest_stage s
+            SET raw_id = i.id
+            FROM inserted i
+            WHERE i.link = s.link
+            """;
+
+    private static final String MATCH_PROCESSED = """
+            UPDATE ingest_stage s
+            SET processed_id = p.id
+            FROM (
+                SELECT DISTINCT ON (raw_news_id) id, raw_news_id
+                FROM processed_news
+                WHERE raw_news_id IN (SELECT raw_id FROM ingest_stage WHERE has_processed)
+                ORDER BY raw_news_id, id
+            ) p
+            WHERE s.has_processed AND p.raw_news_id = s.raw_id
+            """;
+
+    private static final String UPDATE_PROCESSED = """
+            UPDATE processed_news p
+            SET kor_title = COALESCE(s.kor_title, p.kor_title),
+                kor_summary = COALESCE(s.kor_summary, p.kor_summary),
+                kor_content = COALESCE(s.kor_content, p.kor_content),
+                id_summary = COALESCE(s.id_summary, p.id_summary),
+                category = COALESCE(s.category, p.category),
+                eng_category = COALESCE(s.eng_category, p.eng_category),
+                keyword = COALESCE(s.processed_keyword, p.keyword),
+                tags = COALESCE(s.tags, p.tags),
+                importance = COALESCE(s.importance, p.importance),
+                insight = COALESCE(s.insight, p.insight),
+                semantic_confidence = COALESCE(s.semantic_confidence, p.semantic_confidence),
+                tag_mismatch = COALESCE(s.tag_mismatch, p.tag_mismatch),
+                category_mismatch = COALESCE(s.category_mismatch, p.category_mismatch),
+                is_pharma_related = COALESCE(s.is_pharma_related, p.is_pharma_related)
+            FROM ingest_stage s
+            WHERE p.id = s.processed_id
+              AND (COALESCE(s.kor_title, p.kor_title), COALESCE(s.kor_summary, p.kor_summary),
+                   COALESCE(s.kor_content, p.kor_content), COALESCE(s.id_summary, p.id_summary),
+                   COALESCE(s.category, p.category), COALESCE(s.eng_category, p.eng_category),
+                   COALESCE(s.processed_keyword, p.keyword), COALESCE(s.tags, p.tags),
+                   COALESCE(s.importance, p.importance), COALESCE(s.insight, p.insight),
+                   COALESCE(s.semantic_confidence, p.semantic_confidence),
+                   COALESCE(s.tag_mismatch, p.tag_mismatch), COALESCE(s.category_mismatch, p.category_mismatch),
+                   COALESCE(s.is_pharma_related, p.is_pharma_related))
+                  IS DISTINCT FROM (p.kor_title, p.kor_summary, p.kor_content, p.id_summary, p.category,
+                                    p.eng_category, p.keyword, p.tags, p.importance, p.insight,
+                                    p.semantic_confidence, p.tag_mismatch, p.category_mismatch, p.is_pharma_related)
+            """;
+
+    // published_date 가 없으면 V5 라우팅 트리거가 raw_news 에서 채운다.
+    private static final String INSERT_PROCESSED = """
+            INSERT INTO processed_news (
+                raw_news_id, published_date, kor_title, kor_summary, kor_content, id_summary, category,
+                eng_category, keyword, tags, importance, insight, semantic_confidence, tag_mismatch,
+                category_mismatch, is_pharma_related
+            )
+            SELECT raw_id, published_date, kor_title, kor_summary, kor_content, id_summary, category,
+                   eng_category, processed_keyword, tags, importance, insight, semantic_confidence, tag_mismatch,
+                   category_mismatch, is_pharma_related
+            FROM ingest_stage
+            WHERE has_processed AND processed_id IS NULL
+            """;
+
+    private final JdbcTemplate bulkJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long batchMaxBytes;
+    private final int maxErrors;
+    private final Semaphore permits;
+
+    public BulkIngestService(
+            @Qualifier("bulkJdbcTemplate") JdbcTemplate bulkJdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${ingest.batch-size:5000}") int batchSize,
+            @Value("${ingest.batch-max-bytes:33554432}") long batchMaxBytes,
+            @Value("${ingest.max-concurrent:2}") int maxConcurrent,
+            @Value("${ingest.max-errors:100}") int maxErrors
+    ) {
+        this.bulkJdbcTemplate = bulkJdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchMaxBytes = Math.max(1024, batchMaxBytes);
+        this.maxErrors = Math.max(0, maxErrors);
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    public IngestResult ingest(InputStream in) {
+        if (!permits.tryAcquire()) {
+            throw new ServiceBusyException("다른 적재 작업이 진행 중입니다. 잠시 후 다시 시도해 주세요.");
+        }
+        try {
+            return run(in);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private IngestResult run(InputStream in) {
+        long startedAt = System.nanoTime();
+        List<IngestBatchResult> batches = new ArrayList<>();
+        List<IngestLineError> errors = new ArrayList<>();
+        long lines = 0;
+        long rejected = 0;
+        boolean completed = true;
+        Batch batch = new Batch(1);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                long line = parser.currentTokenLocation().getLineNr();
+                lines++;
+                String problem;
+                if (token == JsonToken.START_OBJECT) {
+                    problem = append(batch, line, objectMapper.readTree(parser));
+                } else {
+                    parser.skipChildren();
+                    problem = "JSON 객체가 아닙니다.";
+                }
+                if (problem != null) {
+                    rejected++;
+                    if (errors.size() < maxErrors) {
+                        errors.add(new IngestLineError(line, problem));
+                    }
+                }
+                if (batch.rows >= batchSize || batch.buffer.size() >= batchMaxBytes) {
+                    batches.add(flush(batch));
+                    batch = new Batch(batch.index + 1);
+                }
+            }
+        } catch (IOException e) {
+            // 문법 오류나 연결 끊김: 여기까지 읽은 완전한 줄은 그대로 적재한다.
+            completed = false;
+            long line = e instanceof JsonProcessingException jpe && jpe.getLocation() != null
+                    ? jpe.getLocation().getLineNr()
+                    : -1;
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new IngestLineError(line, "JSON 형식이 올바르지 않아 여기서 읽기를 멈췄습니다."));
+            }
+            log.warn("Ingest stream stopped at line {}: {}", line, e.getMessage());
+        }
+        if (batch.rows > 0) {
+            batches.add(flush(batch));
+        }
+
+        long accepted = batches.stream().filter(IngestBatchResult::committed).mapToLong(IngestBatchResult::rows).sum();
+        long millis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Ingested {} lines in {} batches ({} rejected, {} failed batches, {} ms).",
+                lines, batches.size(), rejected, batches.stream().filter(b -> !b.committed()).count(), millis);
+        return new IngestResult(lines, accepted, rejected, completed, batches, errors, millis);
+    }
+
+    private String append(Batch batch, long line, JsonNode node) throws IOException {
+        IngestArticle article;
+        try {
+            article = objectMapper.treeToValue(node, IngestArticle.class);
+        } catch (JsonProcessingException e) {
+            return "필드 형식이 올바르지 않습니다.";
+        }
+        if (article.link == null || article.link.isBlank()) {
+            return "link 가 없습니다.";
+        }
+        LocalDate date = null;
+        if (article.publishedDate != null && !article.publishedDate.isBlank()) {
+            String value = article.publishedDate.trim();
+            try {
+                date = LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value);
+            } catch (DateTimeParseException e) {
+                return "publishedDate 형식이 올바르지 않습니다 (yyyy-MM-dd).";
+            }
+        }
+        batch.append(line, article, date, tagsJson(article.processed));
+        return null;
+    }
+
+    private String tagsJson(IngestArticle.Processed processed) {
+        if (processed == null || processed.tags == null || processed.tags.isNull()) {
+            return null;
+        }
+        if (processed.tags.isTextual()) {
+            ArrayNode names = objectMapper.createArrayNode();
+            for (String part : processed.tags.asText().split(",")) {
+                if (!part.isBlank()) {
+                    names.add(part.trim());
+                }
+            }
+            return names.toString();
+        }
+        return processed.tags.toString();
+    }
+
+    private IngestBatchResult flush(Batch batch) {
+        long startedAt = System.nanoTime();
+        try {
+            batch.out.flush();
+            return bulkJdbcTemplate.execute((ConnectionCallback<IngestBatchResult>) con -> load(con, batch, startedAt));
+        } catch (DataAccessException | IOException | UncheckedIOException e) {
+            String message = e instanceof DataAccessException dae ? dae.getMostSpecificCause().getMessage() : e.getMessage();
+            log.warn("Ingest batch {} (lines {}-{}) failed.", batch.index, batch.firstLine, batch.lastLine, e);
+            return new IngestBatchResult(batch.index, batch.firstLine, batch.lastLine, batch.rows,
+                    0, 0, 0, 0, 0, false, message, (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+
+    private IngestBatchResult load(Connection con, Batch batch, long startedAt) throws SQLException {
+        boolean autoCommit = con.getAutoCommit();
+        con.setAutoCommit(false);
+        try (Statement st = con.createStatement()) {
+            st.execute(STAGE_DDL);
+            try {
+                con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGE, batch.buffer.input());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // 임시 테이블은 autovacuum 이 통계를 모으지 않아서 조인 계획을 위해 직접 ANALYZE 한다.
+            st.execute("ANALYZE ingest_stage");
+            int duplicates = st.executeUpdate(DEDUPE_STAGE);
+            st.execute(LOCK);
+            st.executeUpdate(MATCH_RAW);
+            int rawUpdated = st.executeUpdate(UPDATE_RAW);
+            int rawInserted = st.executeUpdate(INSERT_RAW);
+            st.executeUpdate(MATCH_PROCESSED);
+            int processedUpdated = st.executeUpdate(UPDATE_PROCESSED);
+            int processedInserted = st.executeUpdate(INSERT_PROCESSED);
+            con.commit();
+            return new IngestBatchResult(batch.index, batch.firstLine, batch.lastLine, batch.rows, duplicates,
+                    rawInserted, rawUpdated, processedInserted, processedUpdated, true, null,
+                    (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (SQLException | RuntimeException e) {
+            con.rollback();
+            throw e;
+        } finally {
+            con.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * 배치 하나 분량의 CSV (COPY_STAGE 열 순서). 줄을 객체로 들고 있지 않고 읽는 즉시 인코딩한다.
+     */
+    private static final class Batch {
+
+        final int index;
+        final Buffer buffer = new Buffer();
+        final Writer out = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        long firstLine;
+        long lastLine;
+        int rows;
+
+        Batch(int index) {
+            this.index = index;
+        }
+
+        void append(long line, IngestArticle a, LocalDate date, String tags) throws IOException {
+            if (rows == 0) {
+                firstLine = line;
+            }
+            lastLine = line;
+            IngestArticle.Processed p = a.processed;
+            out.write(Integer.toString(rows++));
+            field(a.link.trim());
+            field(a.title);
+            field(a.content);
+            field(a.img);
+            field(a.source);
+            field(a.keyword);
+            field(date);
+            field(p != null);
+            field(p == null ? null : p.korTitle);
+            field(p == null ? null : p.korSummary);
+            field(p == null ? null : p.korContent);
+            field(p == null ? null : p.idSummary);
+            field(p == null ? null : p.category);
+            field(p == null ? null : p.engCategory);
+            field(p == null ? null : p.keyword);
+            field(tags);
+            field(p == null ? null : p.importance);
+            field(p == null ? null : p.insight);
+            field(p == null ? null : p.semanticConfidence);
+            field(p == null ? null : p.tagMismatch);
+            field(p == null ? null : p.categoryMismatch);
+            field(p == null ? null : p.isPharmaRelated);
+            out.write('\n');
+        }
+
+        // CSV: null 은 빈 칸, 값은 항상 따옴표로 감싼다 ("" 는 빈 문자열). text 에 못 들어가는 NUL 은 뺀다.
+        private void field(Object value) throws IOException {
+            out.write(',');
+            if (value == null) {
+                return;
+            }
+            String s = value.toString();
+            if (s.indexOf('\0') >= 0) {
+                s = s.replace("\0", "");
+            }
+            out.write('"');
+            out.write(s.indexOf('"') >= 0 ? s.replace("\"", "\"\"") : s);
+            out.write('"');
+        }
+    }
+
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer() {
+            super(1 << 20);
+        }
+
+        InputStream input() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bearindonesia.ingest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * NDJSON 한 줄. link 로 raw_news 를 찾고, processed 가 있으면 그 기사의 processed_news 도 함께 적재한다.
+ * 값이 없거나 null 인 필드는 기존 값을 그대로 둔다.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class IngestArticle {
+    public String link;
+    public String title;
+    public String content;
+    public String img;
+    public String source;
+    public String keyword;
+    public String publishedDate;
+    public Processed processed;
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Processed {
+        public String korTitle;
+        public String korSummary;
+        public String korContent;
+        public String idSummary;
+        public String category;
+        public String engCategory;
+        public String keyword;
+        /** JSON 배열/객체 그대로, 또는 쉼표로 구분한 문자열. */
+        public JsonNode tags;
+        public Integer importance;
+        public String insight;
+        public Float semanticConfidence;
+        public Boolean tagMismatch;
+        public Boolean categoryMismatch;
+        public Boolean isPharmaRelated;
+    }
+}
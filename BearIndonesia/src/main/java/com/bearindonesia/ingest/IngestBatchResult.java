@@ -0,0 +1,19 @@
+package com.bearindonesia.ingest;
+
+/**
+ * 배치(트랜잭션) 하나의 결과. committed 가 false 면 firstLine~lastLine 을 다시 보내면 된다.
+ */
+public record IngestBatchResult(
+        int batch,
+        long firstLine,
+        long lastLine,
+        int rows,
+        int duplicates,
+        int rawInserted,
+        int rawUpdated,
+        int processedInserted,
+        int processedUpdated,
+        boolean committed,
+        String error,
+        long millis
+) {}
@@ -0,0 +1,58 @@
+package com.bearindonesia.ingest;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * article_view 변경 알림.
+ * articleIds/dates 는 바뀐 행의 id 와 published_date (변경 전후 모두). articleIds 는 페이로드 한도로 잘릴 수 있다.
+ * resync 가 true 면 dates 가 전부가 아니다 (날짜가 한도를 넘었거나, 재연결 중 놓친 수정·삭제가 있거나, 대기열이 넘쳤다).
+ * 받는 쪽은 dates 에 있는 날은 그대로 처리하고, 나머지는 전체를 다시 확인한다.
+ */
+public record IngestEvent(
+        String operation,
+        long count,
+        long maxId,
+        List<Long> articleIds,
+        Set<LocalDate> dates,
+        boolean resync
+) {
+
+    static final String OVERFLOW = "OVERFLOW";
+    private static final String MERGED = "MERGED";
+
+    public Set<YearMonth> months() {
+        return dates.stream().map(YearMonth::from).collect(Collectors.toSet());
+    }
+
+    /**
+     * 대기열이 넘쳐 버린 이벤트 대신 보내는 이벤트. 무엇이 바뀌었는지 모르므로 날짜 없이 resync 다.
+     */
+    static IngestEvent overflow(long maxId) {
+        return new IngestEvent(OVERFLOW, 0, maxId, List.of(), Set.of(), true);
+    }
+
+    /**
+     * 밀린 이벤트 두 개를 하나로 합친다. 날짜와 id 는 합집합, resync 는 하나라도 true 면 true 다.
+     */
+    IngestEvent merge(IngestEvent other) {
+        Set<Long> ids = new LinkedHashSet<>(articleIds);
+        ids.addAll(other.articleIds);
+        Set<LocalDate> mergedDates = new HashSet<>(dates);
+        mergedDates.addAll(other.dates);
+        return new IngestEvent(
+                operation.equals(other.operation) ? operation : MERGED,
+                count + other.count,
+                Math.max(maxId, other.maxId),
+                new ArrayList<>(ids),
+                mergedDates,
+                resync || other.resync
+        );
+    }
+}
@@ -0,0 +1,309 @@
+package com.bearindonesia.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * article_view_changed 채널(V8 트리거)을 LISTEN 해서 IngestEvent 로 다시 발행한다.
+ * 풀을 쓰지 않고 전용 커넥션 하나를 들고 있으며, 끊기면 지수 백오프로 다시 붙는다.
+ * 끊긴 동안 놓친 알림은 마지막으로 본 id 이후의 행을 읽어 resync 이벤트 하나로 보낸다.
+ * LISTEN 스레드는 이벤트를 크기 제한 대기열에 넣기만 하고, 받는 쪽 핸들러는 별도 dispatch 스레드에서 돈다.
+ * dispatch 가 밀리면 쌓인 이벤트를 하나로 합쳐 보내고, 대기열이 넘치면 버린 대신 resync 이벤트를 보낸다.
+ */
+@Component
+public class IngestEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestEventListener.class);
+
+    static final String CHANNEL = "article_view_changed";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+    private final int pollMs;
+    private final long maxBackoffMs;
+    private final int catchUpLimit;
+    private final BlockingQueue<IngestEvent> queue;
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+    private Thread dispatcher;
+    private volatile long lastSeenId;
+
+    private final LongAdder notifications = new LongAdder();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+
+    public IngestEventListener(
+            DataSourceProperties dataSourceProperties,
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher publisher,
+            @Value("${ingest.events.enabled:true}") boolean enabled,
+            @Value("${ingest.events.poll-ms:10000}") int pollMs,
+            @Value("${ingest.events.max-backoff-ms:30000}") long maxBackoffMs,
+            @Value("${ingest.events.catch-up-limit:5000}") int catchUpLimit,
+            @Value("${ingest.events.queue-capacity:1000}") int queueCapacity
+    ) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.publisher = publisher;
+        this.enabled = enabled;
+        this.pollMs = Math.max(100, pollMs);
+        this.maxBackoffMs = Math.max(1000, maxBackoffMs);
+        this.catchUpLimit = Math.max(1, catchUpLimit);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "ingest-events");
+        thread.setDaemon(true);
+        thread.start();
+        dispatcher = new Thread(this::dispatch, "ingest-events-dispatch");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        closeQuietly(connection);
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+
+    public IngestListenerStats stats() {
+        return new IngestListenerStats(
+                notifications.sum(), published.sum(), reconnects.sum(), coalesced.sum(), overflows.sum(), connection != null);
+    }
+
+    private void run() {
+        long backoff = 1000;
+        boolean firstConnect = true;
+        while (running) {
+            try (Connection conn = open()) {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("LISTEN " + CHANNEL);
+                }
+                connection = conn;
+                // LISTEN 이후에 워터마크를 읽어야 그 사이에 커밋된 행을 놓치지 않는다.
+                if (firstConnect) {
+                    lastSeenId = maxId();
+                    firstConnect = false;
+                } else {
+                    reconnects.increment();
+                    catchUp();
+                }
+                backoff = 1000;
+                listen(conn.unwrap(PGConnection.class), conn);
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Ingest listener connection lost; reconnecting in {} ms.", backoff, e);
+                connection = null;
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff = Math.min(backoff * 2, maxBackoffMs);
+            }
+        }
+        connection = null;
+    }
+
+    private void listen(PGConnection pg, Connection conn) throws SQLException {
+        while (running) {
+            PGNotification[] received = pg.getNotifications(pollMs);
+            if (received == null || received.length == 0) {
+                // 조용한 동안에도 반쯤 끊긴 커넥션을 알아채도록 한 번 찔러 본다.
+                try (Statement st = conn.createStatement()) {
+                    st.execute("SELECT 1");
+                }
+                continue;
+            }
+            for (PGNotification n : received) {
+                notifications.increment();
+                IngestEvent event = parse(n.getParameter());
+                if (event != null) {
+                    lastSeenId = Math.max(lastSeenId, event.maxId());
+                    enqueue(event);
+                }
+            }
+        }
+    }
+
+    private void catchUp() {
+        List<Long> ids = new ArrayList<>();
+        Set<LocalDate> dates = new HashSet<>();
+        jdbcTemplate.query(
+                "SELECT id, published_date FROM article_view WHERE id > ? ORDER BY id LIMIT ?",
+                rs -> {
+                    ids.add(rs.getLong("id"));
+                    Date date = rs.getDate("published_date");
+                    if (date != null) {
+                        dates.add(date.toLocalDate());
+                    }
+                },
+                lastSeenId,
+                catchUpLimit
+        );
+        long maxId = ids.isEmpty() ? lastSeenId : ids.get(ids.size() - 1);
+        if (ids.size() >= catchUpLimit) {
+            maxId = Math.max(maxId, maxId());
+        }
+        log.info("Ingest listener reconnected; {} articles after id {}.", ids.size(), lastSeenId);
+        lastSeenId = maxId;
+        // 새로 들어온 행의 날짜는 알지만 끊긴 동안의 수정·삭제는 id 로 알 수 없으니 항상 resync 로 보낸다.
+        enqueue(new IngestEvent("CATCH_UP", ids.size(), maxId, ids, dates, true));
+    }
+
+    private IngestEvent parse(String payload) {
+        try {
+            JsonNode root = objectMapper.readTree(payload);
+            JsonNode idsNode = root.path("ids");
+            JsonNode datesNode = root.path("dates");
+            List<Long> ids = new ArrayList<>();
+            for (JsonNode id : idsNode) {
+                ids.add(id.asLong());
+            }
+            Set<LocalDate> dates = new HashSet<>();
+            for (JsonNode date : datesNode) {
+                dates.add(LocalDate.parse(date.asText()));
+            }
+            return new IngestEvent(
+                    root.path("op").asText(),
+                    root.path("count").asLong(),
+                    root.path("maxId").asLong(),
+                    ids,
+                    dates,
+                    // ids 만 잘린 것은 날짜로 처리하는 쪽에 상관없다. 날짜를 모를 때만 전체 확인이 필요하다.
+                    !datesNode.isArray()
+            );
+        } catch (Exception e) {
+            log.warn("Ignoring malformed {} payload: {}", CHANNEL, payload, e);
+            return null;
+        }
+    }
+
+    private void enqueue(IngestEvent event) {
+        if (!queue.offer(event)) {
+            overflows.increment();
+            overflowed.set(true);
+        }
+    }
+
+    /**
+     * 대기열에서 꺼낸 이벤트에 그 사이 쌓인 이벤트를 합쳐 한 번에 발행한다.
+     * 넘쳐서 버린 이벤트가 있으면 resync 이벤트를 합친다.
+     */
+    private void dispatch() {
+        List<IngestEvent> backlog = new ArrayList<>();
+        while (running) {
+            IngestEvent event;
+            try {
+                event = queue.poll(pollMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backlog.clear();
+            queue.drainTo(backlog);
+            for (IngestEvent next : backlog) {
+                event = event == null ? next : event.merge(next);
+                coalesced.increment();
+            }
+            if (overflowed.getAndSet(false)) {
+                IngestEvent overflow = IngestEvent.overflow(lastSeenId);
+                event = event == null ? overflow : event.merge(overflow);
+            }
+            if (event != null) {
+                publish(event);
+            }
+        }
+    }
+
+    private void publish(IngestEvent event) {
+        try {
+            publisher.publishEvent(event);
+            published.increment();
+        } catch (RuntimeException e) {
+            log.warn("Ingest event handler failed for {}.", event.operation(), e);
+        }
+    }
+
+    private long maxId() {
+        Long id = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM article_view", Long.class);
+        return id == null ? 0 : id;
+    }
+
+    private Connection open() throws SQLException {
+        Properties info = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            info.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            info.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        info.setProperty("ApplicationName", "bear-ingest-listener");
+        info.setProperty("tcpKeepAlive", "true");
+        Connection conn = DriverManager.getConnection(dataSourceProperties.determineUrl(), info);
+        conn.setAutoCommit(true);
+        return conn;
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+            // 종료 중이므로 무시한다.
+        }
+    }
+}
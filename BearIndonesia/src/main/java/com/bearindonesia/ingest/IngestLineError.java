@@ -0,0 +1,3 @@
+package com.bearindonesia.ingest;
+
+public record IngestLineError(long line, String message) {}
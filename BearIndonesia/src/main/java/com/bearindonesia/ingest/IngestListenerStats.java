@@ -0,0 +1,10 @@
+package com.bearindonesia.ingest;
+
+public record IngestListenerStats(
+        long notifications,
+        long published,
+        long reconnects,
+        long coalesced,
+        long overflows,
+        boolean connected
+) {}
@@ -0,0 +1,18 @@
+package com.bearindonesia.ingest;
+
+import java.util.List;
+
+/**
+ * 적재 요청 전체 결과. completed 가 false 면 JSON 문법 오류로 스트림을 끝까지 읽지 못한 것이다.
+ * accepted 는 커밋된 배치의 줄 수다 (실패한 배치는 batches 에서 committed=false 로 보인다).
+ * errors 는 앞에서부터 ingest.max-errors 개까지만 담고, rejected 는 전체 개수다.
+ */
+public record IngestResult(
+        long lines,
+        long accepted,
+        long rejected,
+        boolean completed,
+        List<IngestBatchResult> batches,
+        List<IngestLineError> errors,
+        long millis
+) {}
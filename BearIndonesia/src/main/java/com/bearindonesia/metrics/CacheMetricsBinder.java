@@ -0,0 +1,115 @@
+package com.bearindonesia.metrics;
+
+import com.bearindonesia.article.ArticleColumnStore;
+import com.bearindonesia.auth.VerifiedTokenCache;
+import com.bearindonesia.ingest.IngestEventListener;
+import com.bearindonesia.ratelimit.RateLimitFilter;
+import com.bearindonesia.scrap.ScrapMembershipCache;
+import com.bearindonesia.snapshot.MonthSnapshotStore;
+import com.bearindonesia.wordcloud.WordCloudCache;
+import com.bearindonesia.writebehind.WriteBehindRegistry;
+import com.bearindonesia.writebehind.WriteBehindStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.function.ToDoubleFunction;
+import org.springframework.stereotype.Component;
+
+/**
+ * 앱 내부 캐시/버퍼/레이트리밋 카운터를 Micrometer 로 노출한다.
+ * 각 컴포넌트는 자체 stats() 만 제공하고, 미터 등록은 여기 한 곳에서 한다.
+ */
+@Component
+public class CacheMetricsBinder implements MeterBinder {
+
+    private final WordCloudCache wordCloudCache;
+    private final VerifiedTokenCache tokenCache;
+    private final ScrapMembershipCache scrapCache;
+    private final RateLimitFilter rateLimitFilter;
+    private final WriteBehindRegistry writeBehindRegistry;
+    private final ArticleColumnStore articleStore;
+    private final MonthSnapshotStore snapshotStore;
+    private final IngestEventListener ingestListener;
+
+    public CacheMetricsBinder(
+            WordCloudCache wordCloudCache,
+            VerifiedTokenCache tokenCache,
+            ScrapMembershipCache scrapCache,
+            RateLimitFilter rateLimitFilter,
+            WriteBehindRegistry writeBehindRegistry,
+            ArticleColumnStore articleStore,
+            MonthSnapshotStore snapshotStore,
+            IngestEventListener ingestListener
+    ) {
+        this.wordCloudCache = wordCloudCache;
+        this.tokenCache = tokenCache;
+        this.scrapCache = scrapCache;
+        this.rateLimitFilter = rateLimitFilter;
+        this.writeBehindRegistry = writeBehindRegistry;
+        this.articleStore = articleStore;
+        this.snapshotStore = snapshotStore;
+        this.ingestListener = ingestListener;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "app.cache.requests", "wordcloud", "memory_hit", wordCloudCache, c -> c.stats().memoryHits());
+        counter(registry, "app.cache.requests", "wordcloud", "disk_hit", wordCloudCache, c -> c.stats().diskHits());
+        counter(registry, "app.cache.requests", "wordcloud", "coalesced", wordCloudCache, c -> c.stats().coalesced());
+        counter(registry, "app.cache.requests", "wordcloud", "miss", wordCloudCache, c -> c.stats().renders());
+        Gauge.builder("app.cache.size", wordCloudCache, c -> c.stats().memoryEntries()).tag("cache", "wordcloud").register(registry);
+        Gauge.builder("app.cache.disk.bytes", wordCloudCache, c -> c.stats().diskBytes()).tag("cache", "wordcloud").register(registry);
+
+        counter(registry, "app.cache.requests", "jwt", "hit", tokenCache, c -> c.stats().hits());
+        counter(registry, "app.cache.requests", "jwt", "miss", tokenCache, c -> c.stats().misses());
+        Gauge.builder("app.cache.hit.ratio", tokenCache, c -> c.stats().hitRate()).tag("cache", "jwt").register(registry);
+        Gauge.builder("app.cache.size", tokenCache, c -> c.stats().entries()).tag("cache", "jwt").register(registry);
+
+        counter(registry, "app.cache.requests", "scrap", "hit", scrapCache, c -> c.stats().hits());
+        counter(registry, "app.cache.requests", "scrap", "miss", scrapCache, c -> c.stats().loads());
+        Gauge.builder("app.cache.size", scrapCache, c -> c.stats().users()).tag("cache", "scrap").register(registry);
+
+        counter(registry, "app.cache.requests", "articles", "hit", articleStore, c -> c.stats().hits());
+        counter(registry, "app.cache.requests", "articles", "miss", articleStore, c -> c.stats().misses());
+        Gauge.builder("app.cache.size", articleStore, c -> c.stats().rows()).tag("cache", "articles").register(registry);
+        Gauge.builder("app.cache.heap.bytes", articleStore, c -> c.stats().approxBytes()).tag("cache", "articles").register(registry);
+
+        counter(registry, "app.cache.requests", "month-snapshot", "hit", snapshotStore, c -> c.stats().hits());
+        counter(registry, "app.cache.requests", "month-snapshot", "miss", snapshotStore, c -> c.stats().builds());
+        FunctionCounter.builder("app.cache.invalidations", snapshotStore, c -> c.stats().invalidations())
+                .tag("cache", "month-snapshot").register(registry);
+        Gauge.builder("app.cache.size", snapshotStore, c -> c.stats().mappedFiles()).tag("cache", "month-snapshot").register(registry);
+
+        FunctionCounter.builder("app.ingest.notifications", ingestListener, l -> l.stats().notifications()).register(registry);
+        FunctionCounter.builder("app.ingest.reconnects", ingestListener, l -> l.stats().reconnects()).register(registry);
+        FunctionCounter.builder("app.ingest.coalesced", ingestListener, l -> l.stats().coalesced()).register(registry);
+        FunctionCounter.builder("app.ingest.overflows", ingestListener, l -> l.stats().overflows()).register(registry);
+        Gauge.builder("app.ingest.connected", ingestListener, l -> l.stats().connected() ? 1 : 0).register(registry);
+
+        for (String endpoint : rateLimitFilter.stats().allowed().keySet()) {
+            FunctionCounter.builder("app.ratelimit.requests", rateLimitFilter, f -> f.stats().allowed().get(endpoint))
+                    .tag("endpoint", endpoint).tag("result", "allowed").register(registry);
+            FunctionCounter.builder("app.ratelimit.requests", rateLimitFilter, f -> f.stats().throttled().get(endpoint))
+                    .tag("endpoint", endpoint).tag("result", "throttled").register(registry);
+        }
+
+        Gauge.builder("app.writebehind.pending", writeBehindRegistry, r -> r.stats().stream().mapToInt(WriteBehindStats::pending).sum())
+                .register(registry);
+        FunctionCounter.builder("app.writebehind.failures", writeBehindRegistry, r -> r.stats().stream().mapToLong(WriteBehindStats::failures).sum())
+                .register(registry);
+        FunctionCounter.builder("app.writebehind.dropped", writeBehindRegistry, r -> r.stats().stream().mapToLong(WriteBehindStats::dropped).sum())
+                .register(registry);
+    }
+
+    private static <T> void counter(
+            MeterRegistry registry,
+            String name,
+            String cache,
+            String result,
+            T source,
+            ToDoubleFunction<T> fn
+    ) {
+        FunctionCounter.builder(name, source, fn).tag("cache", cache).tag("result", result).register(registry);
+    }
+}
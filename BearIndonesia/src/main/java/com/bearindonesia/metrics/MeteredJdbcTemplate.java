@@ -0,0 +1,216 @@
+package com.bearindonesia.metrics;
+
+import com.bearindonesia.db.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ArgumentTypePreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterDisposer;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.SqlProvider;
+
+/**
+ * 모든 SQL 호출에 db.query 타이머와 db.query.rows 요약을 남기는 JdbcTemplate.
+ * 쿼리 이름은 호출한 애플리케이션 메서드(예: ArticleService.listArticles)로 정하므로
+ * 기존 코드의 호출부를 바꾸지 않아도 쿼리별로 나뉘어 집계된다.
+ * 임계값을 넘은 호출은 SQL/바인드 값과 함께 {@link SlowQueryLog} 에 넘긴다.
+ * 쓰기가 성공하면 남은 요청의 복제본 조회를 primary 로 돌린다 ({@link ReplicaRoutingDataSource#pinToPrimary()}).
+ */
+public class MeteredJdbcTemplate extends JdbcTemplate {
+
+    private static final String APP_PACKAGE = "com.bearindonesia.";
+    private static final String OWN_PACKAGE = "com.bearindonesia.metrics.";
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final MeterRegistry registry;
+    private final String dataSourceName;
+    private final SlowQueryLog slowQueryLog;
+    private final Map<String, QueryMeters> meters = new ConcurrentHashMap<>();
+
+    public MeteredJdbcTemplate(DataSource dataSource, MeterRegistry registry, String dataSourceName, SlowQueryLog slowQueryLog) {
+        super(dataSource);
+        this.registry = registry;
+        this.dataSourceName = dataSourceName;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public <T> T query(PreparedStatementCreator psc, PreparedStatementSetter pss, ResultSetExtractor<T> rse)
+            throws DataAccessException {
+        String sql = sqlOf(psc);
+        return record(sql, pss, isWrite(sql), () -> super.query(psc, pss, rse));
+    }
+
+    @Override
+    public <T> T query(String sql, ResultSetExtractor<T> rse) throws DataAccessException {
+        return record(sql, null, isWrite(sql), () -> super.query(sql, rse));
+    }
+
+    @Override
+    protected int update(PreparedStatementCreator psc, PreparedStatementSetter pss) throws DataAccessException {
+        return record(sqlOf(psc), pss, true, () -> super.update(psc, pss));
+    }
+
+    @Override
+    public int update(String sql) throws DataAccessException {
+        return record(sql, null, true, () -> super.update(sql));
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) throws DataAccessException {
+        return record(sql, null, true, () -> super.batchUpdate(sql, pss));
+    }
+
+    // 느린 쿼리 기록에 바인드 값이 필요해서 인자를 들고 있는 setter 로 바꿔 끼운다.
+    @Override
+    protected PreparedStatementSetter newArgPreparedStatementSetter(Object[] args) {
+        return new CapturingSetter(args, null);
+    }
+
+    @Override
+    protected PreparedStatementSetter newArgTypePreparedStatementSetter(Object[] args, int[] argTypes) {
+        return new CapturingSetter(args, argTypes);
+    }
+
+    private <T> T record(String sql, PreparedStatementSetter pss, boolean write, Supplier<T> call) {
+        String caller = callerName();
+        QueryMeters m = meters.computeIfAbsent(caller, this::register);
+        long started = System.nanoTime();
+        boolean ok = false;
+        try {
+            T result = call.get();
+            if (write) {
+                ReplicaRoutingDataSource.pinToPrimary();
+            }
+            m.rows().record(rowCount(result));
+            ok = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            (ok ? m.success() : m.error()).record(elapsed, TimeUnit.NANOSECONDS);
+            if (slowQueryLog != null && slowQueryLog.isSlow(elapsed)) {
+                CapturingSetter args = pss instanceof CapturingSetter c ? c : null;
+                slowQueryLog.record(
+                        dataSourceName,
+                        caller,
+                        sql,
+                        args == null ? null : args.args,
+                        args == null ? null : args.argTypes,
+                        elapsed,
+                        !ok,
+                        getDataSource()
+                );
+            }
+        }
+    }
+
+    // 조회 경로로 도는 INSERT ... RETURNING 같은 쓰기를 첫 키워드로 가려낸다.
+    static boolean isWrite(String sql) {
+        if (sql == null) {
+            return false;
+        }
+        String head = sql.stripLeading();
+        int end = 0;
+        while (end < head.length() && Character.isLetter(head.charAt(end))) {
+            end++;
+        }
+        return switch (head.substring(0, end).toUpperCase(Locale.ROOT)) {
+            case "INSERT", "UPDATE", "DELETE", "MERGE" -> true;
+            default -> false;
+        };
+    }
+
+    private static String sqlOf(PreparedStatementCreator psc) {
+        return psc instanceof SqlProvider p ? p.getSql() : null;
+    }
+
+    private QueryMeters register(String name) {
+        return new QueryMeters(
+                Timer.builder("db.query").tag("query", name).tag("datasource", dataSourceName).tag("outcome", "success").register(registry),
+                Timer.builder("db.query").tag("query", name).tag("datasource", dataSourceName).tag("outcome", "error").register(registry),
+                DistributionSummary.builder("db.query.rows").tag("query", name).tag("datasource", dataSourceName).register(registry)
+        );
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> c) {
+            return c.size();
+        }
+        if (result instanceof Integer n) {
+            return n;
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int n : counts) {
+                total += Math.max(0, n);
+            }
+            return total;
+        }
+        return result == null ? 0 : 1;
+    }
+
+    /**
+     * 스택에서 이 패키지 밖의 첫 애플리케이션 프레임을 찾는다. 없으면 "other".
+     */
+    static String callerName() {
+        Optional<String> name = WALKER.walk(frames -> frames
+                .filter(f -> {
+                    String cls = f.getClassName();
+                    return cls.startsWith(APP_PACKAGE) && !cls.startsWith(OWN_PACKAGE) && !cls.contains("$$");
+                })
+                .findFirst()
+                .map(f -> f.getDeclaringClass().getSimpleName() + "." + methodName(f.getMethodName())));
+        return name.orElse("other");
+    }
+
+    // 람다 본문(lambda$rebuildDay$2)은 감싸는 메서드 이름으로 묶는다.
+    private static String methodName(String method) {
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', 7);
+            return end > 7 ? method.substring(7, end) : method;
+        }
+        return method;
+    }
+
+    private static final class CapturingSetter implements PreparedStatementSetter, ParameterDisposer {
+        private final Object[] args;
+        private final int[] argTypes;
+        private final PreparedStatementSetter delegate;
+
+        CapturingSetter(Object[] args, int[] argTypes) {
+            this.args = args;
+            this.argTypes = argTypes;
+            this.delegate = argTypes == null
+                    ? new ArgumentPreparedStatementSetter(args)
+                    : new ArgumentTypePreparedStatementSetter(args, argTypes);
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps) throws SQLException {
+            delegate.setValues(ps);
+        }
+
+        @Override
+        public void cleanupParameters() {
+            ((ParameterDisposer) delegate).cleanupParameters();
+        }
+    }
+
+    private record QueryMeters(Timer success, Timer error, DistributionSummary rows) {}
+}
@@ -0,0 +1,23 @@
+package com.bearindonesia.metrics;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 느린 쿼리 한 건. binds 는 마스킹된 값이고, plan 은 EXPLAIN 표본으로 뽑힌 경우에만 채워진다.
+ */
+public record SlowQuery(
+        long id,
+        Instant at,
+        String datasource,
+        String caller,
+        String sql,
+        List<String> binds,
+        double elapsedMs,
+        boolean failed,
+        String plan
+) {
+    SlowQuery withPlan(String plan) {
+        return new SlowQuery(id, at, datasource, caller, sql, binds, elapsedMs, failed, plan);
+    }
+}
@@ -0,0 +1,274 @@
+package com.bearindonesia.metrics;
+
+import jakarta.annotation.PreDestroy;
+import java.lang.reflect.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ArgumentTypePreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Component;
+
+/**
+ * 임계값보다 오래 걸린 SQL 을 호출 메서드, 마스킹한 바인드 값과 함께 최근 N건 링 버퍼에 남긴다.
+ * 느린 SELECT 중 일부는 별도 스레드에서 읽기 전용 트랜잭션을 열어 EXPLAIN (ANALYZE, BUFFERS) 로 다시 돌리고 롤백한 뒤 실행 계획을 붙인다.
+ * ANALYZE 는 쿼리를 실제로 한 번 더 실행하므로 표본 비율과 호출 메서드별 최소 간격으로 제한한다.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+    private static final int MAX_SQL_LENGTH = 4000;
+    private static final Pattern READ_ONLY = Pattern.compile("^\\s*(select|with)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WRITES = Pattern.compile("\\b(insert|update|delete|merge|nextval|setval)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final double explainSampleRate;
+    private final long explainIntervalNanos;
+    private final SlowQuery[] ring;
+    private final AtomicLong seq = new AtomicLong();
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainExecutor;
+    private int head;
+    private int size;
+
+    public SlowQueryLog(
+            @Value("${db.slow-query.enabled:true}") boolean enabled,
+            @Value("${db.slow-query.threshold-ms:500}") long thresholdMs,
+            @Value("${db.slow-query.capacity:200}") int capacity,
+            @Value("${db.slow-query.explain-sample-rate:0.1}") double explainSampleRate,
+            @Value("${db.slow-query.explain-min-interval-seconds:300}") long explainIntervalSeconds
+    ) {
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, thresholdMs));
+        this.explainSampleRate = Math.max(0.0, Math.min(1.0, explainSampleRate));
+        this.explainIntervalNanos = TimeUnit.SECONDS.toNanos(Math.max(0, explainIntervalSeconds));
+        this.ring = new SlowQuery[Math.max(1, capacity)];
+        AtomicInteger threads = new AtomicInteger();
+        this.explainExecutor = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(8),
+                r -> {
+                    Thread t = new Thread(r, "slow-query-explain-" + threads.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return enabled && elapsedNanos >= thresholdNanos;
+    }
+
+    /**
+     * 느린 쿼리를 기록한다. args/argTypes 는 EXPLAIN 재실행에만 쓰고 버퍼에는 마스킹한 값만 남긴다.
+     */
+    public void record(
+            String datasource,
+            String caller,
+            String sql,
+            Object[] args,
+            int[] argTypes,
+            long elapsedNanos,
+            boolean failed,
+            DataSource dataSource
+    ) {
+        String text = sql == null ? "(unknown)" : truncate(WHITESPACE.matcher(sql.trim()).replaceAll(" "));
+        SlowQuery entry = new SlowQuery(
+                seq.incrementAndGet(),
+                Instant.now(),
+                datasource,
+                caller,
+                text,
+                redact(args),
+                elapsedNanos / 1e6,
+                failed,
+                null
+        );
+        synchronized (ring) {
+            ring[head] = entry;
+            head = (head + 1) % ring.length;
+            size = Math.min(size + 1, ring.length);
+        }
+        log.warn("Slow query {} on {} took {} ms: {} binds={}",
+                caller, datasource, String.format(Locale.ROOT, "%.1f", entry.elapsedMs()), text, entry.binds());
+
+        if (!failed && sql != null && dataSource != null && explainable(sql) && sampled(caller)) {
+            try {
+                explainExecutor.execute(() -> explain(entry.id(), sql, args, argTypes, dataSource));
+            } catch (RejectedExecutionException e) {
+                // EXPLAIN 대기열이 차 있으면 이번 표본은 건너뛴다.
+            }
+        }
+    }
+
+    /**
+     * 최근 것부터 돌려준다.
+     */
+    public List<SlowQuery> recent(int limit) {
+        List<SlowQuery> out = new ArrayList<>();
+        synchronized (ring) {
+            for (int i = 1; i <= size && out.size() < limit; i++) {
+                out.add(ring[Math.floorMod(head - i, ring.length)]);
+            }
+        }
+        return out;
+    }
+
+    public void clear() {
+        synchronized (ring) {
+            Arrays.fill(ring, null);
+            head = 0;
+            size = 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    private boolean sampled(String caller) {
+        if (explainSampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= explainSampleRate) {
+            return false;
+        }
+        long now = System.nanoTime();
+        AtomicBoolean take = new AtomicBoolean();
+        lastExplained.compute(caller, (k, last) -> {
+            if (last == null || now - last >= explainIntervalNanos) {
+                take.set(true);
+                return now;
+            }
+            return last;
+        });
+        return take.get();
+    }
+
+    private void explain(long id, String sql, Object[] args, int[] argTypes, DataSource dataSource) {
+        String plan;
+        try {
+            PreparedStatementSetter pss = argTypes == null
+                    ? new ArgumentPreparedStatementSetter(args)
+                    : new ArgumentTypePreparedStatementSetter(args, argTypes);
+            // 계측 템플릿을 거치면 EXPLAIN 자체가 다시 느린 쿼리로 잡히므로 평범한 JdbcTemplate 을 쓴다.
+            // ANALYZE 는 쿼리를 실제로 실행하므로, 정규식이 놓친 쓰기(함수 호출 등)가 있어도 남지 않게
+            // READ ONLY 트랜잭션 안에서 돌리고 항상 롤백한다.
+            plan = new JdbcTemplate(dataSource).execute((ConnectionCallback<String>) con -> {
+                boolean autoCommit = con.getAutoCommit();
+                con.setAutoCommit(false);
+                try {
+                    try (Statement st = con.createStatement()) {
+                        st.execute("SET TRANSACTION READ ONLY");
+                    }
+                    try (PreparedStatement ps = con.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                        pss.setValues(ps);
+                        StringBuilder sb = new StringBuilder();
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                if (!sb.isEmpty()) sb.append('\n');
+                                sb.append(rs.getString(1));
+                            }
+                        }
+                        return sb.toString();
+                    }
+                } finally {
+                    try {
+                        con.rollback();
+                    } finally {
+                        con.setAutoCommit(autoCommit);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            plan = "EXPLAIN failed: " + e.getMessage();
+        }
+        synchronized (ring) {
+            for (int i = 0; i < ring.length; i++) {
+                if (ring[i] != null && ring[i].id() == id) {
+                    ring[i] = ring[i].withPlan(plan);
+                    break;
+                }
+            }
+        }
+        log.info("Slow query #{} plan:\n{}", id, plan);
+    }
+
+    static boolean explainable(String sql) {
+        return READ_ONLY.matcher(sql).find() && !WRITES.matcher(sql).find();
+    }
+
+    /**
+     * 숫자/날짜/불리언은 그대로, 문자열과 바이너리는 길이만 남긴다(이메일, 해시, 본문 등이 로그로 새지 않게).
+     */
+    static List<String> redact(Object[] args) {
+        if (args == null) {
+            return List.of();
+        }
+        List<String> out = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            out.add(redact(arg));
+        }
+        return out;
+    }
+
+    private static String redact(Object value) {
+        if (value instanceof SqlParameterValue p) {
+            return redact(p.getValue());
+        }
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Temporal || value instanceof Date) {
+            return value.toString();
+        }
+        if (value instanceof CharSequence s) {
+            return "'***'(" + s.length() + ")";
+        }
+        if (value instanceof byte[] b) {
+            return "bytes(" + b.length + ")";
+        }
+        if (value instanceof Object[] a) {
+            return "array(" + a.length + ")";
+        }
+        if (value.getClass().isArray()) {
+            return "array(" + Array.getLength(value) + ")";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    private static String truncate(String sql) {
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+}
@@ -15,7 +15,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 
 @Service
 public class NewsletterService {
@@ -47,13 +46,18 @@ public class NewsletterService {
         String base = pythonBaseUrl.endsWith("/")
                 ? pythonBaseUrl + "newsletter"
                 : pythonBaseUrl + "/newsletter";
-        String url = UriComponentsBuilder.fromHttpUrl(base)
-                .queryParam("year", year)
-                .queryParam("month", String.format("%02d", month))
-                .toUriString();
+        // URI 템플릿으로 넘겨야 http.client.requests 의 uri 태그가 연/월마다 늘어나지 않는다.
+        String url = base + "?year={year}&month={month}";
         HttpHeaders headers = new HttpHeaders();
         HttpEntity<Void> entity = new HttpEntity<>(headers);
-        ResponseEntity<byte[]> response = restTemplate.exchange(url, HttpMethod.GET, entity, byte[].class);
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                entity,
+                byte[].class,
+                year,
+                String.format("%02d", month)
+        );
         byte[] body = response.getBody();
         if (body == null || body.length == 0) {
             throw new IllegalArgumentException("뉴스레터 결과를 받지 못했습니다.");
@@ -0,0 +1,144 @@
+package com.bearindonesia.ratelimit;
+
+import com.bearindonesia.api.MessageResponse;
+import com.bearindonesia.auth.AuthUser;
+import com.bearindonesia.auth.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 비싼 엔드포인트에 가중치(cost)를 두고 사용자(로그인 시) 또는 IP 별 토큰 버킷으로 제한한다.
+ * JwtAuthFilter 다음에 실행되므로 인증된 요청은 사용자 id 로 묶인다.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final TokenBucketRateLimiter limiter;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<Rule> rules;
+    private final Map<String, LongAdder> allowed = new LinkedHashMap<>();
+    private final Map<String, LongAdder> throttled = new LinkedHashMap<>();
+
+    public RateLimitFilter(
+            TokenBucketRateLimiter limiter,
+            JwtService jwtService,
+            ObjectMapper objectMapper,
+            @Value("${ratelimit.enabled:true}") boolean enabled,
+            @Value("${ratelimit.cost.report-competitors:10}") double reportCost,
+            @Value("${ratelimit.cost.articles-excel:20}") double excelCost,
+            @Value("${ratelimit.cost.wordcloud:10}") double wordcloudCost,
+            @Value("${ratelimit.cost.wordcloud-terms:5}") double wordcloudTermsCost,
+            @Value("${ratelimit.cost.search:2}") double searchCost
+    ) {
+        this.limiter = limiter;
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.rules = List.of(
+                new Rule("report-competitors", HttpMethod.GET, "/api/report/competitors", reportCost),
+                new Rule("articles-excel", HttpMethod.GET, "/api/articles/excel", excelCost),
+                new Rule("wordcloud", HttpMethod.POST, "/api/wordcloud", wordcloudCost),
+                new Rule("wordcloud-terms", HttpMethod.GET, "/api/wordcloud/terms", wordcloudTermsCost),
+                new Rule("search", HttpMethod.POST, "/api/search", searchCost)
+        );
+        for (Rule rule : rules) {
+            allowed.put(rule.name(), new LongAdder());
+            throttled.put(rule.name(), new LongAdder());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || match(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        Rule rule = match(request);
+        if (rule == null || rule.cost() <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long waitNanos = limiter.tryAcquire(clientKey(request), rule.cost());
+        if (waitNanos == 0L) {
+            allowed.get(rule.name()).increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        throttled.get(rule.name()).increment();
+        long retryAfter = Math.max(1, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), new MessageResponse("요청이 너무 많습니다. 잠시 후 다시 시도해 주세요."));
+    }
+
+    public RateLimitStats stats() {
+        Map<String, Long> a = new LinkedHashMap<>();
+        Map<String, Long> t = new LinkedHashMap<>();
+        allowed.forEach((k, v) -> a.put(k, v.sum()));
+        throttled.forEach((k, v) -> t.put(k, v.sum()));
+        return new RateLimitStats(a, t, limiter.trackedKeys());
+    }
+
+    private Rule match(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String method = request.getMethod();
+        for (Rule rule : rules) {
+            if (rule.method().matches(method) && rule.path().equals(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 공개 엔드포인트는 JwtAuthFilter 를 건너뛰므로 토큰이 있으면 여기서 직접 확인한다.
+     * 같은 사내 IP 뒤의 사용자들이 한 버킷을 나눠 쓰지 않게 하기 위함이다.
+     */
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthUser user && user.id() != null) {
+            return "u:" + user.id();
+        }
+        String auth = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (auth != null && auth.startsWith("Bearer ")) {
+            try {
+                AuthUser user = jwtService.parseToken(auth.substring(7));
+                if (user.id() != null) {
+                    return "u:" + user.id();
+                }
+            } catch (Exception ignored) {
+                // 잘못된 토큰은 IP 로 묶는다.
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private record Rule(String name, HttpMethod method, String path, double cost) {}
+}
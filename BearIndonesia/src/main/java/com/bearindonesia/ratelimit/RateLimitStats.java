@@ -0,0 +1,5 @@
+package com.bearindonesia.ratelimit;
+
+import java.util.Map;
+
+public record RateLimitStats(Map<String, Long> allowed, Map<String, Long> throttled, int trackedKeys) {}
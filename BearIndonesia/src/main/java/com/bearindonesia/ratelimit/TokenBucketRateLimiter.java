@@ -0,0 +1,113 @@
+package com.bearindonesia.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 키(사용자/IP)별 토큰 버킷. 키 해시로 고른 stripe 하나만 잠그므로 서로 다른 키끼리는 경합이 거의 없다.
+ * 버킷은 capacity 만큼 쌓이고 초당 refillPerSecond 만큼 다시 찬다.
+ */
+@Component
+public class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public TokenBucketRateLimiter(
+            @Value("${ratelimit.capacity:60}") double capacity,
+            @Value("${ratelimit.refill-per-second:1}") double refillPerSecond,
+            @Value("${ratelimit.stripes:64}") int stripes
+    ) {
+        this.capacity = Math.max(1, capacity);
+        this.refillPerNano = Math.max(0.001, refillPerSecond) / TimeUnit.SECONDS.toNanos(1);
+        int n = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = n - 1;
+    }
+
+    /**
+     * cost 만큼 토큰을 쓴다. 허용되면 0, 아니면 다시 시도할 수 있을 때까지 남은 나노초를 돌려준다.
+     */
+    public long tryAcquire(String key, double cost) {
+        double need = Math.min(cost, capacity);
+        long now = System.nanoTime();
+        Stripe stripe = stripes[spread(key.hashCode()) & mask];
+        stripe.lock.lock();
+        try {
+            Bucket b = stripe.buckets.get(key);
+            if (b == null) {
+                b = new Bucket(capacity, now);
+                stripe.buckets.put(key, b);
+            } else {
+                b.tokens = Math.min(capacity, b.tokens + (now - b.updatedAt) * refillPerNano);
+                b.updatedAt = now;
+            }
+            if (b.tokens >= need) {
+                b.tokens -= need;
+                return 0L;
+            }
+            return (long) Math.ceil((need - b.tokens) / refillPerNano);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 가득 찰 만큼 오래 쓰이지 않은 버킷은 새로 만든 것과 같으므로 지운다.
+     */
+    @Scheduled(fixedDelayString = "${ratelimit.purge-ms:60000}")
+    public void purgeIdle() {
+        long now = System.nanoTime();
+        long fullAfter = (long) Math.ceil(capacity / refillPerNano);
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.buckets.values().removeIf(b -> now - b.updatedAt >= fullAfter);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    public int trackedKeys() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                total += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, Bucket> buckets = new HashMap<>();
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.bearindonesia.sales;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * 로컬 파일시스템 기반 content-addressed 저장소. {dir}/{sha[0..2]}/{sha} 로 저장한다.
+ * 읽기는 FileChannel.transferTo 로 대상 채널에 복사한다 (대상이 소켓/파일 채널일 때만 커널 안에서 끝난다).
+ */
+@Component
+@ConditionalOnProperty(name = "sales.blob.store", havingValue = "local", matchIfMissing = true)
+public class LocalFileSalesBlobStore implements SalesBlobStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public LocalFileSalesBlobStore(@Value("${sales.blob.dir:data/sales-blobs}") String root) throws IOException {
+        this.root = Path.of(root);
+        Files.createDirectories(this.root.resolve("tmp"));
+    }
+
+    @Override
+    public StoredBlob put(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        Path tmp = Files.createTempFile(root.resolve("tmp"), "blob-", ".part");
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[64 * 1024];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                    size += n;
+                }
+            }
+            String key = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(key);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException ignored) {
+                    // 동시에 같은 내용이 저장됐다.
+                }
+            }
+            return new StoredBlob(key, size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return isValidKey(key) && Files.isRegularFile(pathFor(key));
+    }
+
+    @Override
+    public Optional<Resource> open(String key) {
+        if (!exists(key)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FileSystemResource(pathFor(key)));
+    }
+
+    @Override
+    public long transferTo(String key, WritableByteChannel target) throws IOException {
+        if (!exists(key)) {
+            throw new NoSuchElementException("blob not found: " + key);
+        }
+        try (FileChannel channel = FileChannel.open(pathFor(key), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+
+    private Path pathFor(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static boolean isValidKey(String key) {
+        return key != null && KEY_PATTERN.matcher(key).matches();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
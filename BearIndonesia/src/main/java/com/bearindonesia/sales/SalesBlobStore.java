@@ -0,0 +1,21 @@
+package com.bearindonesia.sales;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.Optional;
+import org.springframework.core.io.Resource;
+
+/**
+ * 매출 원본 파일 저장소. 키는 내용의 SHA-256 (hex) 이므로 같은 파일은 한 번만 저장된다.
+ */
+public interface SalesBlobStore {
+
+    StoredBlob put(InputStream in) throws IOException;
+
+    boolean exists(String key);
+
+    Optional<Resource> open(String key);
+
+    long transferTo(String key, WritableByteChannel target) throws IOException;
+}
@@ -0,0 +1,3 @@
+package com.bearindonesia.sales;
+
+public record SalesReportFileRef(String originalFilename, String blobKey) {}
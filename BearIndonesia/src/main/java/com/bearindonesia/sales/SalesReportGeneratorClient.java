@@ -3,12 +3,13 @@ package com.bearindonesia.sales;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -18,7 +19,6 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
-import org.springframework.web.multipart.MultipartFile;
 
 @Component
 public class SalesReportGeneratorClient {
@@ -27,21 +27,23 @@ public class SalesReportGeneratorClient {
 
     private final RestTemplate restTemplate;
     private final String pythonBaseUrl;
-    private final String insightsLanguage;
 
     public SalesReportGeneratorClient(
             RestTemplateBuilder restTemplateBuilder,
             @Value("${sales.python.base-url}") String pythonBaseUrl,
-            @Value("${sales.report.insights-language:ko}") String insightsLanguage
+            @Value("${sales.python.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${sales.python.read-timeout-ms:300000}") long readTimeoutMs
     ) {
-        this.restTemplate = restTemplateBuilder.build();
+        // 응답이 없는 생성 요청이 워커 스레드를 붙잡지 않도록, 읽기 제한은 stuck-after-seconds 보다 짧게 둔다.
+        this.restTemplate = restTemplateBuilder
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .readTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
         this.pythonBaseUrl = pythonBaseUrl;
-        this.insightsLanguage = insightsLanguage;
     }
 
-    public String generateHtml(String title, MultipartFile file) {
+    public String generateHtml(String title, Resource file, String insightsLanguage) {
         Objects.requireNonNull(file, "file");
-        String originalFilename = file.getOriginalFilename() == null ? "upload.xlsx" : file.getOriginalFilename();
 
         try {
             String base = pythonBaseUrl.endsWith("/")
@@ -49,16 +51,9 @@ public class SalesReportGeneratorClient {
                     : pythonBaseUrl + "/sales/report";
             String url = UriComponentsBuilder.fromHttpUrl(base).toUriString();
 
-            byte[] bytes = file.getBytes();
-            ByteArrayResource fileResource = new ByteArrayResource(bytes) {
-                @Override
-                public String getFilename() {
-                    return originalFilename;
-                }
-            };
-
+            // 파일 리소스는 스트리밍으로 전송된다. (힙에 전체 복사본을 만들지 않음)
             MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
-            form.add("file", fileResource);
+            form.add("file", file);
             if (title != null && !title.isBlank()) {
                 form.add("title", title);
             }
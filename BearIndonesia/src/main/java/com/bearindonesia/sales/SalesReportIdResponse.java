@@ -1,4 +1,3 @@
 package com.bearindonesia.sales;
 
-public record SalesReportIdResponse(Long id) {}
-
+public record SalesReportIdResponse(Long id, SalesReportStatus status) {}
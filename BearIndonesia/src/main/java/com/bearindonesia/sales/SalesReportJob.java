@@ -0,0 +1,10 @@
+package com.bearindonesia.sales;
+
+public record SalesReportJob(
+        long id,
+        String title,
+        String originalFilename,
+        String blobKey,
+        String insightsLanguage,
+        int attempts
+) {}
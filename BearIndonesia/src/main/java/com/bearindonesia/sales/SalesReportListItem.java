@@ -6,6 +6,8 @@ public record SalesReportListItem(
         Long id,
         String title,
         String originalFilename,
+        SalesReportStatus status,
+        String errorMessage,
         Long createdById,
         String createdByName,
         String createdByEmail,
@@ -6,6 +6,8 @@ public record SalesReportListResponse(
         Long id,
         String title,
         String originalFilename,
+        SalesReportStatus status,
+        String errorMessage,
         SalesReportCreatedBy createdBy,
         OffsetDateTime createdAt,
         OffsetDateTime updatedAt
@@ -1,5 +1,10 @@
 package com.bearindonesia.sales;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +26,8 @@ public class SalesReportRepository {
                 sr.id,
                 sr.title,
                 sr.original_filename,
+                sr.status,
+                sr.error_message,
                 sr.created_at,
                 sr.updated_at,
                 sr.created_by_user_id,
@@ -34,6 +41,8 @@ public class SalesReportRepository {
                 rs.getLong("id"),
                 rs.getString("title"),
                 rs.getString("original_filename"),
+                SalesReportStatus.fromDb(rs.getString("status")),
+                rs.getString("error_message"),
                 rs.getLong("created_by_user_id"),
                 rs.getString("created_by_name"),
                 rs.getString("created_by_email"),
@@ -42,30 +51,268 @@ public class SalesReportRepository {
         ));
     }
 
-    public long create(
+    public long createPending(
             String title,
             String originalFilename,
-            byte[] rawExcel,
-            String html,
+            String blobKey,
+            String insightsLanguage,
             long createdByUserId
     ) {
         String sql = """
-            INSERT INTO sales_reports (title, original_filename, file_blob, html, created_by_user_id)
-            VALUES (?, ?, ?, ?, ?)
+            INSERT INTO sales_reports (title, original_filename, blob_key, file_sha256, html, status, insights_language, created_by_user_id)
+            VALUES (?, ?, ?, ?, NULL, 'PENDING', ?, ?)
             RETURNING id
             """;
-        Long id = jdbcTemplate.queryForObject(sql, Long.class, title, originalFilename, rawExcel, html, createdByUserId);
+        Long id = jdbcTemplate.queryForObject(
+                sql,
+                Long.class,
+                title,
+                originalFilename,
+                blobKey,
+                blobKey,
+                insightsLanguage,
+                createdByUserId
+        );
         if (id == null) {
             throw new IllegalStateException("Failed to create report");
         }
         return id;
     }
 
-    public Optional<String> findHtml(long reportId) {
+    /**
+     * 원본 파일과 HTML 을 다른 리포트에서 참조하는 READY 행을 만든다.
+     */
+    public long createReference(
+            String title,
+            String originalFilename,
+            long sourceReportId,
+            String fileSha256,
+            String insightsLanguage,
+            long createdByUserId
+    ) {
+        String sql = """
+            INSERT INTO sales_reports (title, original_filename, file_blob, file_sha256, html, status, insights_language, source_report_id, created_by_user_id)
+            VALUES (?, ?, NULL, ?, NULL, 'READY', ?, ?, ?)
+            RETURNING id
+            """;
+        Long id = jdbcTemplate.queryForObject(
+                sql,
+                Long.class,
+                title,
+                originalFilename,
+                fileSha256,
+                insightsLanguage,
+                sourceReportId,
+                createdByUserId
+        );
+        if (id == null) {
+            throw new IllegalStateException("Failed to create report");
+        }
+        return id;
+    }
+
+    /**
+     * 같은 파일 해시와 인사이트 언어로 이미 생성이 끝난 원본 리포트를 찾는다.
+     */
+    public Optional<Long> findReusableSource(String fileSha256, String insightsLanguage) {
         String sql = """
-            SELECT html
+            SELECT id
             FROM sales_reports
-            WHERE id = ?
+            WHERE file_sha256 = ?
+              AND insights_language IS NOT DISTINCT FROM ?
+              AND source_report_id IS NULL
+              AND status = 'READY'
+            ORDER BY id
+            LIMIT 1
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong("id"), fileSha256, insightsLanguage)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * PENDING 상태인 리포트를 PROCESSING 으로 바꾸며 가져온다. 다른 워커가 먼저 가져갔으면 비어 있다.
+     */
+    public Optional<SalesReportJob> claim(long reportId) {
+        String sql = """
+            UPDATE sales_reports
+            SET status = 'PROCESSING', attempts = attempts + 1, error_message = NULL, updated_at = now()
+            WHERE id = ? AND status = 'PENDING' AND (next_attempt_at IS NULL OR next_attempt_at <= now())
+            RETURNING id, title, original_filename, blob_key, insights_language, attempts
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new SalesReportJob(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("original_filename"),
+                rs.getString("blob_key"),
+                rs.getString("insights_language"),
+                rs.getInt("attempts")
+        ), reportId).stream().findFirst();
+    }
+
+    /**
+     * claim 으로 받은 시도(attempt)가 아직 행을 쥐고 있을 때만 바꾼다 (markFailed / markPending 도 같다).
+     * resetStuck 이 되돌렸거나 다른 워커가 다시 잡았으면 늦게 끝난 워커의 결과는 반영되지 않고 false 를 돌려준다.
+     */
+    public boolean markReady(long reportId, int attempt, String html) {
+        return jdbcTemplate.update(
+                """
+                UPDATE sales_reports
+                SET status = 'READY', html = ?, error_message = NULL, updated_at = now()
+                WHERE id = ? AND status = 'PROCESSING' AND attempts = ?
+                """,
+                html,
+                reportId,
+                attempt
+        ) > 0;
+    }
+
+    public boolean markFailed(long reportId, int attempt, String errorMessage) {
+        return jdbcTemplate.update(
+                """
+                UPDATE sales_reports
+                SET status = 'FAILED', error_message = ?, updated_at = now()
+                WHERE id = ? AND status = 'PROCESSING' AND attempts = ?
+                """,
+                errorMessage,
+                reportId,
+                attempt
+        ) > 0;
+    }
+
+    /**
+     * 실패한 작업을 retryDelaySeconds 뒤에 다시 잡히도록 PENDING 으로 돌린다.
+     */
+    public boolean markPending(long reportId, int attempt, String errorMessage, long retryDelaySeconds) {
+        return jdbcTemplate.update(
+                """
+                UPDATE sales_reports
+                SET status = 'PENDING', error_message = ?, next_attempt_at = now() + (? * INTERVAL '1 second'), updated_at = now()
+                WHERE id = ? AND status = 'PROCESSING' AND attempts = ?
+                """,
+                errorMessage,
+                retryDelaySeconds,
+                reportId,
+                attempt
+        ) > 0;
+    }
+
+    /**
+     * 재시작 등으로 PROCESSING 에 멈춘 작업을 다시 PENDING 으로 돌린다.
+     * 멈춘 시도도 claim 에서 attempts 로 세었으므로, 이미 maxAttempts 번 시도한 작업은 FAILED 로 끝낸다
+     * (처리하다 프로세스를 죽이는 파일이 무한히 다시 잡히지 않게). 다시 잡을 작업은 markPending 과 같은 지수 백오프를 건다.
+     */
+    public StuckJobs resetStuck(long stuckAfterSeconds, int maxAttempts, long retryDelaySeconds, long maxRetryDelaySeconds) {
+        List<String> statuses = jdbcTemplate.queryForList(
+                """
+                UPDATE sales_reports
+                SET status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END,
+                    error_message = CASE WHEN attempts >= ? THEN '처리 중에 멈춘 작업이 재시도 횟수를 모두 썼습니다.' ELSE error_message END,
+                    next_attempt_at = now() + (LEAST(?, ? * power(2, GREATEST(attempts, 1) - 1)) * INTERVAL '1 second'),
+                    updated_at = now()
+                WHERE status = 'PROCESSING'
+                  AND updated_at < now() - (? * INTERVAL '1 second')
+                RETURNING status
+                """,
+                String.class,
+                maxAttempts,
+                maxAttempts,
+                maxRetryDelaySeconds,
+                retryDelaySeconds,
+                stuckAfterSeconds
+        );
+        int failed = (int) statuses.stream().filter("FAILED"::equals).count();
+        return new StuckJobs(statuses.size() - failed, failed);
+    }
+
+    public record StuckJobs(int requeued, int failed) {}
+
+    public List<Long> listPendingIds(int limit) {
+        return jdbcTemplate.query(
+                """
+                SELECT id FROM sales_reports
+                WHERE status = 'PENDING' AND (next_attempt_at IS NULL OR next_attempt_at <= now())
+                ORDER BY created_at, id
+                LIMIT ?
+                """,
+                (rs, rowNum) -> rs.getLong("id"),
+                limit
+        );
+    }
+
+    public Optional<SalesReportFileRef> findFileRef(long reportId) {
+        String sql = """
+            SELECT
+                sr.original_filename,
+                COALESCE(src.blob_key, sr.blob_key) AS blob_key
+            FROM sales_reports sr
+            LEFT JOIN sales_reports src ON src.id = sr.source_report_id
+            WHERE sr.id = ?
+            """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new SalesReportFileRef(
+                rs.getString("original_filename"),
+                rs.getString("blob_key")
+        ), reportId).stream().findFirst();
+    }
+
+    /**
+     * blob 저장소로 옮기기 전(file_blob 컬럼)에 저장된 원본을 임시 파일로 복사한다.
+     */
+    public boolean copyLegacyFileTo(long reportId, Path target) {
+        Boolean found = jdbcTemplate.query(
+                """
+                SELECT COALESCE(src.file_blob, sr.file_blob) AS file_blob
+                FROM sales_reports sr
+                LEFT JOIN sales_reports src ON src.id = sr.source_report_id
+                WHERE sr.id = ?
+                """,
+                rs -> {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    try (InputStream in = rs.getBinaryStream("file_blob")) {
+                        if (in == null) {
+                            return false;
+                        }
+                        Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+                        return true;
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed to read report file " + reportId, e);
+                    }
+                },
+                reportId
+        );
+        return Boolean.TRUE.equals(found);
+    }
+
+    public List<Long> listLegacyBlobIds(int limit) {
+        return jdbcTemplate.query(
+                "SELECT id FROM sales_reports WHERE blob_key IS NULL AND file_blob IS NOT NULL ORDER BY id LIMIT ?",
+                (rs, rowNum) -> rs.getLong("id"),
+                limit
+        );
+    }
+
+    public void attachBlob(long reportId, String blobKey) {
+        jdbcTemplate.update(
+                """
+                UPDATE sales_reports
+                SET blob_key = ?, file_sha256 = COALESCE(file_sha256, ?), file_blob = NULL
+                WHERE id = ?
+                """,
+                blobKey,
+                blobKey,
+                reportId
+        );
+    }
+
+    public Optional<String> findHtml(long reportId) {
+        String sql = """
+            SELECT COALESCE(sr.html, src.html) AS html
+            FROM sales_reports sr
+            LEFT JOIN sales_reports src ON src.id = sr.source_report_id
+            WHERE sr.id = ?
+              AND sr.status = 'READY'
             """;
         List<String> rows = jdbcTemplate.query(sql, (rs, rowNum) -> rs.getString("html"), reportId);
         return rows.stream().findFirst();
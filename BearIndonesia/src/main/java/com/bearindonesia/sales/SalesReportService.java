@@ -1,22 +1,41 @@
 package com.bearindonesia.sales;
 
 import com.bearindonesia.auth.AuthUser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Service
 public class SalesReportService {
 
+    private static final Logger log = LoggerFactory.getLogger(SalesReportService.class);
     private static final long MAX_UPLOAD_BYTES = 20L * 1024 * 1024;
 
     private final SalesReportRepository repository;
-    private final SalesReportGeneratorClient generatorClient;
+    private final SalesReportWorker worker;
+    private final SalesBlobStore blobStore;
+    private final String insightsLanguage;
 
-    public SalesReportService(SalesReportRepository repository, SalesReportGeneratorClient generatorClient) {
+    public SalesReportService(
+            SalesReportRepository repository,
+            SalesReportWorker worker,
+            SalesBlobStore blobStore,
+            @Value("${sales.report.insights-language:ko}") String insightsLanguage
+    ) {
         this.repository = repository;
-        this.generatorClient = generatorClient;
+        this.worker = worker;
+        this.blobStore = blobStore;
+        this.insightsLanguage = insightsLanguage;
     }
 
     public List<SalesReportListResponse> list(AuthUser admin) {
@@ -25,28 +44,43 @@ public class SalesReportService {
                 i.id(),
                 i.title(),
                 i.originalFilename(),
+                i.status(),
+                i.errorMessage(),
                 new SalesReportCreatedBy(i.createdById(), i.createdByName(), i.createdByEmail()),
                 i.createdAt(),
                 i.updatedAt()
         )).toList();
     }
 
-    public long create(AuthUser admin, String title, MultipartFile file) {
+    /**
+     * 업로드를 PENDING 상태로 저장하고 생성 작업을 워커에 넘긴다.
+     * 같은 파일(SHA-256)과 인사이트 언어로 생성된 리포트가 있으면 바로 READY 참조 행을 만든다.
+     */
+    public SalesReportIdResponse create(AuthUser admin, String title, MultipartFile file) {
         validateFile(file);
         String originalFilename = Optional.ofNullable(file.getOriginalFilename()).orElse("upload.xlsx");
         if (!originalFilename.toLowerCase().endsWith(".xlsx")) {
             throw new IllegalArgumentException("xlsx 파일만 업로드할 수 있습니다.");
         }
 
+        long id;
         try {
-            String html = generatorClient.generateHtml(title, file);
-            byte[] bytes = file.getBytes();
-            return repository.create(title, originalFilename, bytes, html, admin.id());
-        } catch (IllegalArgumentException e) {
-            throw e;
+            StoredBlob blob;
+            try (InputStream in = file.getInputStream()) {
+                blob = blobStore.put(in);
+            }
+            Optional<Long> source = repository.findReusableSource(blob.key(), insightsLanguage);
+            if (source.isPresent()) {
+                // 같은 파일이 이미 생성돼 있으면 원본과 HTML 을 참조만 한다.
+                long refId = repository.createReference(title, originalFilename, source.get(), blob.key(), insightsLanguage, admin.id());
+                return new SalesReportIdResponse(refId, SalesReportStatus.READY);
+            }
+            id = repository.createPending(title, originalFilename, blob.key(), insightsLanguage, admin.id());
         } catch (Exception e) {
             throw new IllegalArgumentException("엑셀 처리에 실패했습니다: " + e.getMessage(), e);
         }
+        worker.submit(id);
+        return new SalesReportIdResponse(id, SalesReportStatus.PENDING);
     }
 
     public String getHtml(long id) {
@@ -55,6 +89,76 @@ public class SalesReportService {
                 .orElse(null);
     }
 
+    public Optional<SalesReportFileRef> findFile(long id) {
+        return repository.findFileRef(id);
+    }
+
+    /**
+     * 원본 파일을 응답 본문으로 준비한다. 파일이 어디에도 없으면 비어 있으므로 응답을 시작하기 전에 404 로 답할 수 있다.
+     * blob 저장소 파일은 FileChannel.transferTo 로 응답 스트림 채널에 복사한다. 서블릿 스트림이라 커널 zero-copy 는 아니고,
+     * 파일 전체를 힙에 올리지 않는 버퍼 복사다.
+     * file_blob 컬럼에만 있는 예전 원본은 미리 임시 파일로 받아 두고, 다 보낸 뒤 지운다.
+     */
+    public Optional<StreamingResponseBody> openFile(SalesReportFileRef ref, long id) throws IOException {
+        String key = ref.blobKey();
+        if (key != null && blobStore.exists(key)) {
+            return Optional.of(out -> blobStore.transferTo(key, Channels.newChannel(out)));
+        }
+        Path tmp = Files.createTempFile("sales-report-" + id + "-", ".xlsx");
+        boolean found = false;
+        try {
+            found = repository.copyLegacyFileTo(id, tmp);
+        } finally {
+            if (!found) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        if (!found) {
+            return Optional.empty();
+        }
+        return Optional.of(out -> {
+            try {
+                Files.copy(tmp, out);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        });
+    }
+
+    /**
+     * file_blob 컬럼에 남아 있는 원본을 blob 저장소로 옮긴다. 옮긴 행 수를 돌려준다.
+     */
+    public int migrateLegacyBlobs(int limit) {
+        int migrated = 0;
+        for (Long id : repository.listLegacyBlobIds(limit)) {
+            Path tmp = null;
+            try {
+                tmp = Files.createTempFile("sales-blob-" + id + "-", ".xlsx");
+                if (!repository.copyLegacyFileTo(id, tmp)) {
+                    continue;
+                }
+                StoredBlob blob;
+                try (InputStream in = Files.newInputStream(tmp)) {
+                    blob = blobStore.put(in);
+                }
+                repository.attachBlob(id, blob.key());
+                migrated++;
+            } catch (Exception e) {
+                log.warn("Failed to migrate sales report {} blob.", id, e);
+            } finally {
+                if (tmp != null) {
+                    try {
+                        Files.deleteIfExists(tmp);
+                    } catch (IOException ignored) {
+                        // 임시 파일 정리 실패는 무시한다.
+                    }
+                }
+            }
+        }
+        log.info("Migrated {} sales report blob(s) out of the database.", migrated);
+        return migrated;
+    }
+
     private static void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("file is required");
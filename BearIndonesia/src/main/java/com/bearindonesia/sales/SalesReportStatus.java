@@ -0,0 +1,19 @@
+package com.bearindonesia.sales;
+
+public enum SalesReportStatus {
+    PENDING,
+    PROCESSING,
+    READY,
+    FAILED;
+
+    public static SalesReportStatus fromDb(String value) {
+        if (value == null || value.isBlank()) {
+            return READY;
+        }
+        try {
+            return SalesReportStatus.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return READY;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.bearindonesia.sales;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * sales_reports 의 PENDING 행을 처리하는 워커 풀.
+ * 작업 상태는 DB 에 있으므로 큐가 가득 차거나 서버가 재시작돼도 주기적인 스윕에서 다시 가져간다.
+ * 실패한 작업은 retry-backoff-seconds 부터 두 배씩(최대 max-retry-backoff-seconds) 기다린 뒤 다시 시도한다.
+ */
+@Component
+public class SalesReportWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesReportWorker.class);
+
+    private final SalesReportRepository repository;
+    private final SalesReportGeneratorClient generatorClient;
+    private final SalesBlobStore blobStore;
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final int maxAttempts;
+    private final long stuckAfterSeconds;
+    private final long retryBackoffSeconds;
+    private final long maxRetryBackoffSeconds;
+
+    public SalesReportWorker(
+            SalesReportRepository repository,
+            SalesReportGeneratorClient generatorClient,
+            SalesBlobStore blobStore,
+            @Value("${sales.report.worker.threads:2}") int threads,
+            @Value("${sales.report.worker.queue-capacity:32}") int queueCapacity,
+            @Value("${sales.report.worker.max-attempts:3}") int maxAttempts,
+            @Value("${sales.report.worker.stuck-after-seconds:600}") long stuckAfterSeconds,
+            @Value("${sales.report.worker.retry-backoff-seconds:30}") long retryBackoffSeconds,
+            @Value("${sales.report.worker.max-retry-backoff-seconds:1800}") long maxRetryBackoffSeconds
+    ) {
+        this.repository = repository;
+        this.generatorClient = generatorClient;
+        this.blobStore = blobStore;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.stuckAfterSeconds = Math.max(0, stuckAfterSeconds);
+        this.retryBackoffSeconds = Math.max(0, retryBackoffSeconds);
+        this.maxRetryBackoffSeconds = Math.max(this.retryBackoffSeconds, maxRetryBackoffSeconds);
+        int poolSize = Math.max(1, threads);
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "sales-report-worker-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public void submit(long reportId) {
+        if (!queued.add(reportId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(reportId);
+                } finally {
+                    queued.remove(reportId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 큐가 가득 찼다. 행은 PENDING 으로 남아 다음 스윕에서 처리된다.
+            queued.remove(reportId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        sweep();
+    }
+
+    @Scheduled(
+            initialDelayString = "${sales.report.worker.sweep-ms:30000}",
+            fixedDelayString = "${sales.report.worker.sweep-ms:30000}"
+    )
+    public void sweep() {
+        try {
+            SalesReportRepository.StuckJobs stuck = repository.resetStuck(
+                    stuckAfterSeconds, maxAttempts, retryBackoffSeconds, maxRetryBackoffSeconds);
+            if (stuck.requeued() > 0 || stuck.failed() > 0) {
+                log.warn("Recovered {} stuck sales report job(s); {} exhausted their attempts and failed.", stuck.requeued(), stuck.failed());
+            }
+            int free = executor.getQueue().remainingCapacity();
+            if (free <= 0) {
+                return;
+            }
+            for (Long id : repository.listPendingIds(free)) {
+                submit(id);
+            }
+        } catch (Exception e) {
+            log.warn("Sales report job sweep failed.", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * attempts 번째 실패 뒤의 대기 시간. 30초, 60초, 120초 ... 로 늘리고 상한에서 멈춘다.
+     */
+    long retryDelaySeconds(int attempts) {
+        int shift = Math.min(Math.max(0, attempts - 1), 30);
+        return Math.min(maxRetryBackoffSeconds, retryBackoffSeconds << shift);
+    }
+
+    /**
+     * 결과를 쓰는 사이 이 시도가 멈춘 작업으로 되돌려졌으면 (resetStuck) 결과를 버리고 남긴다.
+     */
+    private static boolean fenced(SalesReportJob job, boolean applied) {
+        if (!applied) {
+            log.warn("Sales report {} attempt {} was requeued while running; its result was discarded.", job.id(), job.attempts());
+        }
+        return applied;
+    }
+
+    private void process(long reportId) {
+        Optional<SalesReportJob> claimed = repository.claim(reportId);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        SalesReportJob job = claimed.get();
+        Path tmp = null;
+        try {
+            String filename = job.originalFilename() == null ? "upload.xlsx" : job.originalFilename();
+            Optional<Resource> stored = job.blobKey() == null ? Optional.empty() : blobStore.open(job.blobKey());
+            UploadResource file;
+            if (stored.isPresent()) {
+                file = new UploadResource(filename, stored.get().contentLength(), stored.get());
+            } else {
+                tmp = Files.createTempFile("sales-report-" + reportId + "-", ".xlsx");
+                if (!repository.copyLegacyFileTo(reportId, tmp)) {
+                    fenced(job, repository.markFailed(reportId, job.attempts(), "원본 파일을 찾을 수 없습니다."));
+                    return;
+                }
+                file = new UploadResource(filename, Files.size(tmp), new FileSystemResource(tmp));
+            }
+            String html = generatorClient.generateHtml(job.title(), file, job.insightsLanguage());
+            if (fenced(job, repository.markReady(reportId, job.attempts(), html))) {
+                log.info("Sales report {} generated.", reportId);
+            }
+        } catch (Exception e) {
+            String message = e.getMessage() == null ? "unknown error" : e.getMessage();
+            if (job.attempts() < maxAttempts) {
+                log.warn("Sales report {} generation failed (attempt {}/{}). Will retry.", reportId, job.attempts(), maxAttempts, e);
+                fenced(job, repository.markPending(reportId, job.attempts(), message, retryDelaySeconds(job.attempts())));
+            } else {
+                log.warn("Sales report {} generation failed permanently.", reportId, e);
+                fenced(job, repository.markFailed(reportId, job.attempts(), message));
+            }
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // 임시 파일 정리 실패는 무시한다.
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.bearindonesia.sales;
+
+public record StoredBlob(String key, long size) {}
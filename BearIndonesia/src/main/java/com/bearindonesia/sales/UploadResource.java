@@ -0,0 +1,42 @@
+package com.bearindonesia.sales;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.InputStreamSource;
+
+/**
+ * 파일명과 길이를 가진 스트리밍 리소스. 멀티파트 파트로 보낼 때 본문을 메모리에 올리지 않는다.
+ */
+class UploadResource extends AbstractResource {
+
+    private final String filename;
+    private final long length;
+    private final InputStreamSource source;
+
+    UploadResource(String filename, long length, InputStreamSource source) {
+        this.filename = filename;
+        this.length = length;
+        this.source = source;
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return source.getInputStream();
+    }
+
+    @Override
+    public String getDescription() {
+        return "upload [" + filename + "]";
+    }
+}
@@ -0,0 +1,257 @@
+package com.bearindonesia.sales.analytics;
+
+import com.bearindonesia.sales.SalesBlobStore;
+import com.bearindonesia.sales.SalesReportFileRef;
+import com.bearindonesia.sales.SalesReportService;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * 업로드된 매출 워크북을 Java 쪽에서 바로 집계한다.
+ * 파싱 결과는 blob 키(= 파일 SHA-256) 기준으로 LRU 캐시에 두므로 같은 파일을 참조하는 리포트끼리 공유된다.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    private final SalesReportService reportService;
+    private final SalesBlobStore blobStore;
+    private final int cacheEntries;
+    private final Map<String, SalesDataset> cache;
+
+    public SalesAnalyticsService(
+            SalesReportService reportService,
+            SalesBlobStore blobStore,
+            @Value("${sales.analytics.cache-entries:8}") int cacheEntries
+    ) {
+        this.reportService = reportService;
+        this.blobStore = blobStore;
+        this.cacheEntries = Math.max(1, cacheEntries);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SalesDataset> eldest) {
+                return size() > SalesAnalyticsService.this.cacheEntries;
+            }
+        };
+    }
+
+    public SalesSummary summary(long reportId) {
+        SalesDataset ds = dataset(reportId);
+        double amount = 0;
+        double quantity = 0;
+        int minMonth = Integer.MAX_VALUE;
+        int maxMonth = Integer.MIN_VALUE;
+        for (int i = 0; i < ds.size(); i++) {
+            amount += ds.amount(i);
+            quantity += ds.quantity(i);
+            int m = ds.month(i);
+            if (m != SalesDataset.UNKNOWN_MONTH) {
+                minMonth = Math.min(minMonth, m);
+                maxMonth = Math.max(maxMonth, m);
+            }
+        }
+        boolean hasMonth = minMonth != Integer.MAX_VALUE;
+        return new SalesSummary(
+                ds.size(),
+                ds.invalidCells(),
+                amount,
+                quantity,
+                ds.productCount(),
+                ds.regionCount(),
+                hasMonth ? SalesDataset.decodeMonth(minMonth).toString() : null,
+                hasMonth ? SalesDataset.decodeMonth(maxMonth).toString() : null
+        );
+    }
+
+    /**
+     * 차원별 합계. product/region 필터와 월 범위(from~to)로 자를 수 있다.
+     * 월 차원은 시간순, 나머지는 금액 내림차순으로 정렬한다.
+     */
+    public List<SalesGroupRow> groupBy(
+            long reportId,
+            SalesDimension dimension,
+            String product,
+            String region,
+            YearMonth from,
+            YearMonth to,
+            int limit
+    ) {
+        SalesDataset ds = dataset(reportId);
+        RowFilter filter = RowFilter.of(ds, product, region, from, to);
+        Map<Integer, double[]> groups = new HashMap<>();
+        for (int i = 0; i < ds.size(); i++) {
+            if (!filter.test(ds, i)) continue;
+            int key = keyOf(ds, dimension, i);
+            double[] acc = groups.computeIfAbsent(key, k -> new double[3]);
+            acc[0] += ds.amount(i);
+            acc[1] += ds.quantity(i);
+            acc[2] += 1;
+        }
+        List<Map.Entry<Integer, double[]>> entries = new ArrayList<>(groups.entrySet());
+        if (dimension == SalesDimension.MONTH) {
+            entries.sort(Map.Entry.comparingByKey());
+        } else {
+            entries.sort(Comparator.comparingDouble((Map.Entry<Integer, double[]> e) -> e.getValue()[0]).reversed());
+        }
+        List<SalesGroupRow> rows = new ArrayList<>();
+        for (Map.Entry<Integer, double[]> e : entries) {
+            if (rows.size() >= limit) break;
+            double[] acc = e.getValue();
+            rows.add(new SalesGroupRow(label(ds, dimension, e.getKey()), acc[0], acc[1], (int) acc[2]));
+        }
+        return rows;
+    }
+
+    /**
+     * 기준 월과 직전 월의 금액을 차원별로 비교한다. 기준 월이 없으면 데이터의 마지막 월을 쓴다.
+     */
+    public List<SalesPeriodRow> periodOverPeriod(long reportId, SalesDimension dimension, YearMonth month, int limit) {
+        if (dimension == SalesDimension.MONTH) {
+            throw new IllegalArgumentException("전월 대비 비교는 product 또는 region 기준만 가능합니다.");
+        }
+        SalesDataset ds = dataset(reportId);
+        int current;
+        if (month != null) {
+            current = SalesDataset.encodeMonth(month);
+        } else {
+            current = SalesDataset.UNKNOWN_MONTH;
+            for (int i = 0; i < ds.size(); i++) {
+                current = Math.max(current, ds.month(i));
+            }
+            if (current == SalesDataset.UNKNOWN_MONTH) {
+                throw new IllegalArgumentException("날짜 컬럼이 없어 기간 비교를 할 수 없습니다.");
+            }
+        }
+        int previous = current - 1;
+
+        Map<Integer, double[]> groups = new HashMap<>();
+        for (int i = 0; i < ds.size(); i++) {
+            int m = ds.month(i);
+            if (m != current && m != previous) continue;
+            double[] acc = groups.computeIfAbsent(keyOf(ds, dimension, i), k -> new double[2]);
+            acc[m == current ? 0 : 1] += ds.amount(i);
+        }
+        List<SalesPeriodRow> rows = new ArrayList<>();
+        for (Map.Entry<Integer, double[]> e : groups.entrySet()) {
+            double cur = e.getValue()[0];
+            double prev = e.getValue()[1];
+            Double rate = prev == 0 ? null : (cur - prev) / Math.abs(prev);
+            rows.add(new SalesPeriodRow(label(ds, dimension, e.getKey()), cur, prev, cur - prev, rate));
+        }
+        rows.sort(Comparator.comparingDouble((SalesPeriodRow r) -> Math.abs(r.delta())).reversed());
+        return rows.size() > limit ? rows.subList(0, limit) : rows;
+    }
+
+    private SalesDataset dataset(long reportId) {
+        SalesReportFileRef ref = reportService.findFile(reportId)
+                .orElseThrow(() -> new IllegalArgumentException("리포트를 찾을 수 없습니다."));
+        if (ref.blobKey() == null) {
+            throw new IllegalArgumentException("원본 파일이 아직 blob 저장소로 옮겨지지 않았습니다.");
+        }
+        synchronized (cache) {
+            SalesDataset cached = cache.get(ref.blobKey());
+            if (cached != null) {
+                return cached;
+            }
+        }
+        SalesDataset loaded = load(ref.blobKey());
+        synchronized (cache) {
+            cache.put(ref.blobKey(), loaded);
+        }
+        return loaded;
+    }
+
+    private SalesDataset load(String blobKey) {
+        Resource resource = blobStore.open(blobKey)
+                .orElseThrow(() -> new IllegalArgumentException("원본 파일을 찾을 수 없습니다."));
+        long started = System.nanoTime();
+        Path tmp = null;
+        try {
+            File file;
+            if (resource.isFile()) {
+                file = resource.getFile();
+            } else {
+                tmp = Files.createTempFile("sales-analytics-", ".xlsx");
+                try (InputStream in = resource.getInputStream()) {
+                    Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                file = tmp.toFile();
+            }
+            SalesDataset ds = StreamingSalesWorkbookParser.parse(file);
+            log.info("Parsed sales workbook {} ({} rows) in {} ms.", blobKey, ds.size(), (System.nanoTime() - started) / 1_000_000);
+            if (ds.invalidCells() > 0) {
+                log.warn("Sales workbook {} has {} amount/quantity cells that are not numbers; counted as 0.", blobKey, ds.invalidCells());
+            }
+            return ds;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("엑셀 분석에 실패했습니다: " + e.getMessage(), e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (Exception ignored) {
+                    // 임시 파일 정리 실패는 무시한다.
+                }
+            }
+        }
+    }
+
+    private static int keyOf(SalesDataset ds, SalesDimension dimension, int row) {
+        return switch (dimension) {
+            case PRODUCT -> ds.productCode(row);
+            case REGION -> ds.regionCode(row);
+            case MONTH -> ds.month(row);
+        };
+    }
+
+    private static String label(SalesDataset ds, SalesDimension dimension, int key) {
+        return switch (dimension) {
+            case PRODUCT -> ds.product(key);
+            case REGION -> ds.region(key);
+            case MONTH -> key == SalesDataset.UNKNOWN_MONTH ? "(없음)" : SalesDataset.decodeMonth(key).toString();
+        };
+    }
+
+    private record RowFilter(int product, int region, int from, int to) {
+        static final int ANY = -2;
+
+        static RowFilter of(SalesDataset ds, String product, String region, YearMonth from, YearMonth to) {
+            int p = product == null || product.isBlank() ? ANY : ds.productCodeOf(product.trim());
+            int r = region == null || region.isBlank() ? ANY : ds.regionCodeOf(region.trim());
+            return new RowFilter(
+                    p,
+                    r,
+                    from == null ? Integer.MIN_VALUE : SalesDataset.encodeMonth(from),
+                    to == null ? Integer.MAX_VALUE : SalesDataset.encodeMonth(to)
+            );
+        }
+
+        boolean test(SalesDataset ds, int row) {
+            if (product != ANY && ds.productCode(row) != product) return false;
+            if (region != ANY && ds.regionCode(row) != region) return false;
+            if (from != Integer.MIN_VALUE || to != Integer.MAX_VALUE) {
+                int m = ds.month(row);
+                if (m == SalesDataset.UNKNOWN_MONTH || m < from || m > to) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.bearindonesia.sales.analytics;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 매출 시트의 컬럼형 메모리 모델.
+ * 제품/지역은 사전 인코딩된 int, 월은 (year * 12 + month - 1), 금액/수량은 double 배열로 보관한다.
+ */
+public final class SalesDataset {
+
+    static final int UNKNOWN_MONTH = -1;
+
+    private final List<String> products;
+    private final List<String> regions;
+    private final int[] productCodes;
+    private final int[] regionCodes;
+    private final int[] months;
+    private final double[] amounts;
+    private final double[] quantities;
+    private final int size;
+    private final int invalidCells;
+
+    private SalesDataset(Builder b) {
+        this.products = List.copyOf(b.products);
+        this.regions = List.copyOf(b.regions);
+        this.size = b.size;
+        this.invalidCells = b.invalidCells;
+        this.productCodes = Arrays.copyOf(b.productCodes, b.size);
+        this.regionCodes = Arrays.copyOf(b.regionCodes, b.size);
+        this.months = Arrays.copyOf(b.months, b.size);
+        this.amounts = Arrays.copyOf(b.amounts, b.size);
+        this.quantities = Arrays.copyOf(b.quantities, b.size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 숫자로 읽지 못해 0 으로 넣은 금액/수량 셀 수.
+     */
+    public int invalidCells() {
+        return invalidCells;
+    }
+
+    public int productCount() {
+        return products.size();
+    }
+
+    public int regionCount() {
+        return regions.size();
+    }
+
+    int productCode(int row) {
+        return productCodes[row];
+    }
+
+    int regionCode(int row) {
+        return regionCodes[row];
+    }
+
+    int month(int row) {
+        return months[row];
+    }
+
+    double amount(int row) {
+        return amounts[row];
+    }
+
+    double quantity(int row) {
+        return quantities[row];
+    }
+
+    int productCodeOf(String product) {
+        return products.indexOf(product);
+    }
+
+    int regionCodeOf(String region) {
+        return regions.indexOf(region);
+    }
+
+    String product(int code) {
+        return products.get(code);
+    }
+
+    String region(int code) {
+        return regions.get(code);
+    }
+
+    static int encodeMonth(YearMonth ym) {
+        return ym.getYear() * 12 + ym.getMonthValue() - 1;
+    }
+
+    static YearMonth decodeMonth(int code) {
+        return YearMonth.of(code / 12, code % 12 + 1);
+    }
+
+    static final class Builder {
+        private final List<String> products = new ArrayList<>();
+        private final List<String> regions = new ArrayList<>();
+        private final Map<String, Integer> productIndex = new HashMap<>();
+        private final Map<String, Integer> regionIndex = new HashMap<>();
+        private int[] productCodes = new int[1024];
+        private int[] regionCodes = new int[1024];
+        private int[] months = new int[1024];
+        private double[] amounts = new double[1024];
+        private double[] quantities = new double[1024];
+        private int size;
+        private int invalidCells;
+
+        void add(String product, String region, YearMonth month, double amount, double quantity) {
+            if (size == productCodes.length) {
+                int cap = size * 2;
+                productCodes = Arrays.copyOf(productCodes, cap);
+                regionCodes = Arrays.copyOf(regionCodes, cap);
+                months = Arrays.copyOf(months, cap);
+                amounts = Arrays.copyOf(amounts, cap);
+                quantities = Arrays.copyOf(quantities, cap);
+            }
+            productCodes[size] = encode(product, products, productIndex);
+            regionCodes[size] = encode(region, regions, regionIndex);
+            months[size] = month == null ? UNKNOWN_MONTH : encodeMonth(month);
+            amounts[size] = valid(amount);
+            quantities[size] = valid(quantity);
+            size++;
+        }
+
+        private double valid(double value) {
+            if (Double.isNaN(value)) {
+                invalidCells++;
+                return 0.0;
+            }
+            return value;
+        }
+
+        SalesDataset build() {
+            return new SalesDataset(this);
+        }
+
+        private static int encode(String value, List<String> dict, Map<String, Integer> index) {
+            String key = value == null || value.isBlank() ? "(없음)" : value.trim();
+            Integer code = index.get(key);
+            if (code == null) {
+                code = dict.size();
+                dict.add(key);
+                index.put(key, code);
+            }
+            return code;
+        }
+    }
+}
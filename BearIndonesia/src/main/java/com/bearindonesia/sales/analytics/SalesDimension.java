@@ -0,0 +1,18 @@
+package com.bearindonesia.sales.analytics;
+
+public enum SalesDimension {
+    PRODUCT,
+    REGION,
+    MONTH;
+
+    public static SalesDimension fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return PRODUCT;
+        }
+        try {
+            return SalesDimension.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("by 는 product, region, month 중 하나여야 합니다.");
+        }
+    }
+}
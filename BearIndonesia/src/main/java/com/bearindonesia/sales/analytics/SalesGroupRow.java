@@ -0,0 +1,3 @@
+package com.bearindonesia.sales.analytics;
+
+public record SalesGroupRow(String key, double amount, double quantity, int rows) {}
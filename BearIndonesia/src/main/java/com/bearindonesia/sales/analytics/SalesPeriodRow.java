@@ -0,0 +1,3 @@
+package com.bearindonesia.sales.analytics;
+
+public record SalesPeriodRow(String key, double current, double previous, double delta, Double changeRate) {}
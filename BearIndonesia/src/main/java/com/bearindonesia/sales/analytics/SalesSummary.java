@@ -0,0 +1,12 @@
+package com.bearindonesia.sales.analytics;
+
+public record SalesSummary(
+        int rows,
+        int invalidCells,
+        double totalAmount,
+        double totalQuantity,
+        int products,
+        int regions,
+        String firstMonth,
+        String lastMonth
+) {}
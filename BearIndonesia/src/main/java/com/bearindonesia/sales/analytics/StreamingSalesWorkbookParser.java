@@ -0,0 +1,301 @@
+package com.bearindonesia.sales.analytics;
+
+import java.io.File;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * 매출 xlsx 를 SAX(이벤트) 방식으로 읽어 {@link SalesDataset} 을 만든다.
+ * 워크북 전체를 DOM 으로 올리지 않으므로 행 수와 무관하게 메모리는 컬럼 배열 크기만큼만 쓴다.
+ * 첫 10행 안에서 금액 컬럼을 포함한 헤더 행을 찾은 첫 번째 시트를 사용한다.
+ */
+public final class StreamingSalesWorkbookParser {
+
+    private static final int HEADER_SCAN_ROWS = 10;
+    private static final Pattern YEAR_MONTH = Pattern.compile("(\\d{4})\\s*[-/.년]\\s*(\\d{1,2})");
+    private static final Pattern COMPACT_YEAR_MONTH = Pattern.compile("(\\d{4})(\\d{2})");
+    private static final Pattern SCIENTIFIC = Pattern.compile("-?\\d+(\\.\\d+)?[eE][+-]?\\d+");
+    private static final Pattern NUMBER = Pattern.compile("\\d[\\d.,]*|[.,]\\d+");
+
+    private static final Map<String, Column> HEADER_ALIASES = new HashMap<>();
+
+    static {
+        alias(Column.PRODUCT, "product", "productname", "item", "sku", "brand", "제품", "제품명", "품목", "상품", "상품명");
+        alias(Column.REGION, "region", "area", "province", "territory", "city", "지역", "권역", "지점");
+        alias(Column.DATE, "date", "month", "period", "yearmonth", "일자", "날짜", "월", "기간", "년월");
+        alias(Column.AMOUNT, "amount", "sales", "netsales", "revenue", "value", "매출", "매출액", "금액", "판매액");
+        alias(Column.QUANTITY, "qty", "quantity", "units", "volume", "수량", "판매수량");
+    }
+
+    private StreamingSalesWorkbookParser() {}
+
+    public static SalesDataset parse(File file) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            while (sheets.hasNext()) {
+                CellFormatter formatter = new CellFormatter();
+                RowCollector collector = new RowCollector(formatter);
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader xml = XMLHelper.newXMLReader();
+                    xml.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings, collector, formatter, false));
+                    xml.parse(new InputSource(sheet));
+                }
+                if (collector.headerFound()) {
+                    return collector.builder.build();
+                }
+            }
+        }
+        throw new IllegalArgumentException("매출 시트에서 금액 컬럼이 있는 헤더를 찾지 못했습니다.");
+    }
+
+    static YearMonth parseMonth(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String v = value.trim();
+        try {
+            return YearMonth.from(LocalDate.parse(v.length() > 10 ? v.substring(0, 10) : v));
+        } catch (DateTimeParseException ignored) {
+            // 아래 형식들로 다시 시도한다.
+        }
+        Matcher m = YEAR_MONTH.matcher(v);
+        if (!m.find()) {
+            m = COMPACT_YEAR_MONTH.matcher(v);
+            if (!m.matches()) {
+                return null;
+            }
+        }
+        int month = Integer.parseInt(m.group(2));
+        if (month < 1 || month > 12) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(m.group(1)), month);
+    }
+
+    /**
+     * 문자열로 들어온 금액/수량 셀을 숫자로 읽는다. 숫자 셀은 여기를 거치지 않고 원래 값을 쓴다 (RowCollector).
+     * 빈 셀은 0, 읽을 수 없는 셀은 NaN 이다 (Builder 가 세어서 요약에 보인다).
+     * 인도네시아식 "1.500.000", "1.234,56" 과 영미식 "1,500,000", "1,234.56" 을 모두 받는다:
+     * 두 구분자가 다 있으면 뒤에 오는 쪽이 소수점이고, 한 종류만 있으면 여러 번 나오거나 뒤에 정확히 세 자리가 올 때 자릿수 구분자로 본다.
+     */
+    static double parseNumber(String value) {
+        if (value == null) {
+            return 0.0;
+        }
+        String v = value.trim();
+        if (v.isEmpty() || v.equals("-")) {
+            return 0.0;
+        }
+        boolean negative = v.startsWith("(") && v.endsWith(")");
+        if (SCIENTIFIC.matcher(v).matches()) {
+            // 텍스트로 저장된 1.5E+12 같은 값.
+            return Double.parseDouble(v);
+        }
+        // 통화 기호, 단위(Rp, pcs, %), 공백은 버린다.
+        v = v.replaceAll("[\\p{L}\\p{Sc}%\\s\u00a0()]", "");
+        if (v.startsWith("-")) {
+            negative = !negative;
+            v = v.substring(1);
+        }
+        if (!NUMBER.matcher(v).matches()) {
+            return Double.NaN;
+        }
+        int dot = v.lastIndexOf('.');
+        int comma = v.lastIndexOf(',');
+        char decimal;
+        if (dot >= 0 && comma >= 0) {
+            decimal = dot > comma ? '.' : ',';
+        } else if (dot >= 0 || comma >= 0) {
+            char sep = dot >= 0 ? '.' : ',';
+            int last = Math.max(dot, comma);
+            boolean grouping = v.indexOf(sep) != last || v.length() - last - 1 == 3;
+            decimal = grouping ? 0 : sep;
+        } else {
+            decimal = 0;
+        }
+        StringBuilder sb = new StringBuilder(v.length());
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (c == decimal) {
+                sb.append('.');
+            } else if (c != '.' && c != ',') {
+                sb.append(c);
+            }
+        }
+        try {
+            double d = Double.parseDouble(sb.toString());
+            return negative ? -d : d;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static void alias(Column column, String... names) {
+        for (String name : names) {
+            HEADER_ALIASES.put(name, column);
+        }
+    }
+
+    private static Column columnOf(String header) {
+        if (header == null) {
+            return null;
+        }
+        String key = header.toLowerCase(Locale.ROOT).replaceAll("[\\s_\\-()]", "");
+        return HEADER_ALIASES.get(key);
+    }
+
+    private enum Column {
+        PRODUCT,
+        REGION,
+        DATE,
+        AMOUNT,
+        QUANTITY
+    }
+
+    /**
+     * 날짜 서식 셀은 로케일 서식 대신 ISO(yyyy-MM-dd)로 돌려준다.
+     * 그 밖의 숫자 셀은 서식을 입히기 전 원래 값을 기억해 두고, 바로 뒤 cell() 콜백에서 RowCollector 가 가져간다.
+     * 일반 서식의 1.234 가 문자열 "1.234" 로 바뀌어 parseNumber 에서 1234 로 읽히는 일을 막는다.
+     */
+    private static final class CellFormatter extends DataFormatter {
+        private double raw;
+        private boolean hasRaw;
+
+        CellFormatter() {
+            // 문자열로 쓰는 값(헤더, 제품 코드 등)이 서버 로케일을 따르지 않게 고정한다.
+            super(Locale.ROOT);
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value).toLocalDate().toString();
+            }
+            raw = value;
+            hasRaw = true;
+            return super.formatRawCellContents(value, formatIndex, formatString);
+        }
+
+        /**
+         * 직전 셀이 숫자 셀이었으면 그 값을 돌려주고 비운다. 문자열 셀이면 null.
+         */
+        Double takeRaw() {
+            if (!hasRaw) {
+                return null;
+            }
+            hasRaw = false;
+            return raw;
+        }
+    }
+
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final SalesDataset.Builder builder = new SalesDataset.Builder();
+        private final CellFormatter formatter;
+        private final Map<Integer, String> cells = new HashMap<>();
+        private final Map<Integer, Double> numbers = new HashMap<>();
+        private final int[] columns = { -1, -1, -1, -1, -1 };
+        private boolean header;
+        private int scanned;
+
+        RowCollector(CellFormatter formatter) {
+            this.formatter = formatter;
+        }
+
+        boolean headerFound() {
+            return header;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            numbers.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (cells.isEmpty()) {
+                return;
+            }
+            if (!header) {
+                if (scanned++ < HEADER_SCAN_ROWS) {
+                    detectHeader();
+                }
+                return;
+            }
+            String amount = cell(Column.AMOUNT);
+            if (amount == null || amount.isBlank()) {
+                return;
+            }
+            builder.add(
+                    cell(Column.PRODUCT),
+                    cell(Column.REGION),
+                    parseMonth(cell(Column.DATE)),
+                    number(Column.AMOUNT),
+                    number(Column.QUANTITY)
+            );
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            Double raw = formatter.takeRaw();
+            if (cellReference == null || formattedValue == null) {
+                return;
+            }
+            int col = new CellReference(cellReference).getCol();
+            cells.put(col, formattedValue);
+            if (raw != null) {
+                numbers.put(col, raw);
+            }
+        }
+
+        private void detectHeader() {
+            int[] found = { -1, -1, -1, -1, -1 };
+            for (Map.Entry<Integer, String> e : cells.entrySet()) {
+                Column c = columnOf(e.getValue());
+                if (c != null && found[c.ordinal()] < 0) {
+                    found[c.ordinal()] = e.getKey();
+                }
+            }
+            if (found[Column.AMOUNT.ordinal()] < 0) {
+                return;
+            }
+            System.arraycopy(found, 0, columns, 0, found.length);
+            header = true;
+        }
+
+        private String cell(Column column) {
+            int idx = columns[column.ordinal()];
+            return idx < 0 ? null : cells.get(idx);
+        }
+
+        private double number(Column column) {
+            int idx = columns[column.ordinal()];
+            Double raw = idx < 0 ? null : numbers.get(idx);
+            return raw != null ? raw : parseNumber(cell(column));
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.bearindonesia.scrap;
+
+public record ScrapCacheStats(long hits, long loads, int users) {}
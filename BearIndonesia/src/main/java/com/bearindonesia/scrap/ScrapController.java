@@ -5,6 +5,7 @@ import com.bearindonesia.auth.SecurityUtils;
 import com.bearindonesia.dto.ArticleDto;
 import com.bearindonesia.service.ArticleService;
 import java.util.List;
+import java.util.Map;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.*;
@@ -14,11 +15,13 @@ import org.springframework.http.HttpStatus;
 @RequestMapping("/api/scrap")
 public class ScrapController {
 
-    private final UserScrapRepository userScrapRepository;
+    private static final int MAX_BATCH_IDS = 500;
+
+    private final ScrapService scrapService;
     private final ArticleService articleService;
 
-    public ScrapController(UserScrapRepository userScrapRepository, ArticleService articleService) {
-        this.userScrapRepository = userScrapRepository;
+    public ScrapController(ScrapService scrapService, ArticleService articleService) {
+        this.scrapService = scrapService;
         this.articleService = articleService;
     }
 
@@ -32,14 +35,14 @@ public class ScrapController {
         if (comment != null && comment.length() > 300) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "comment must be <= 300 characters");
         }
-        userScrapRepository.addScrap(user.id(), rawNewsId, comment);
+        scrapService.add(user.id(), rawNewsId, comment);
         return ResponseEntity.ok().build();
     }
 
     @DeleteMapping("/{rawNewsId}")
     public ResponseEntity<?> remove(@PathVariable Long rawNewsId) {
         AuthUser user = SecurityUtils.requireUser();
-        userScrapRepository.removeScrap(user.id(), rawNewsId);
+        scrapService.remove(user.id(), rawNewsId);
         return ResponseEntity.noContent().build();
     }
 
@@ -48,4 +51,36 @@ public class ScrapController {
         AuthUser user = SecurityUtils.requireUser();
         return articleService.listScrappedArticles(user.id());
     }
+
+    /**
+     * 한 페이지 분량 기사 id 의 스크랩 여부. 사용자별 캐시에서 답하므로 DB 를 조회하지 않는다.
+     */
+    @PostMapping("/status")
+    public ScrapStatusResponse status(@RequestBody ScrapIdsRequest body) {
+        AuthUser user = SecurityUtils.requireUser();
+        return new ScrapStatusResponse(scrapService.status(user.id(), requireIds(body)));
+    }
+
+    @PostMapping("/batch")
+    public Map<String, List<Long>> addBatch(@RequestBody ScrapIdsRequest body) {
+        AuthUser user = SecurityUtils.requireUser();
+        return Map.of("added", scrapService.addAll(user.id(), requireIds(body)));
+    }
+
+    @PostMapping("/batch/remove")
+    public Map<String, List<Long>> removeBatch(@RequestBody ScrapIdsRequest body) {
+        AuthUser user = SecurityUtils.requireUser();
+        return Map.of("removed", scrapService.removeAll(user.id(), requireIds(body)));
+    }
+
+    private static List<Long> requireIds(ScrapIdsRequest body) {
+        if (body == null || body.ids() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids is required");
+        }
+        List<Long> ids = body.ids().stream().filter(id -> id != null).distinct().toList();
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must be <= " + MAX_BATCH_IDS);
+        }
+        return ids;
+    }
 }
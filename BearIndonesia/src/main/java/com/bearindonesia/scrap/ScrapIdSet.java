@@ -0,0 +1,51 @@
+package com.bearindonesia.scrap;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 정렬된 long[] 로 된 불변 raw_news id 집합. 조회는 이진 탐색이고 변경 시 새 배열을 만든다.
+ */
+public final class ScrapIdSet {
+
+    static final ScrapIdSet EMPTY = new ScrapIdSet(new long[0]);
+
+    private final long[] ids;
+
+    private ScrapIdSet(long[] sortedDistinct) {
+        this.ids = sortedDistinct;
+    }
+
+    static ScrapIdSet of(Collection<Long> values) {
+        long[] arr = values.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        return new ScrapIdSet(arr);
+    }
+
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    ScrapIdSet withAll(Collection<Long> added) {
+        if (added.isEmpty()) {
+            return this;
+        }
+        long[] merged = Arrays.copyOf(ids, ids.length + added.size());
+        int i = ids.length;
+        for (Long id : added) {
+            merged[i++] = id;
+        }
+        return new ScrapIdSet(Arrays.stream(merged).sorted().distinct().toArray());
+    }
+
+    ScrapIdSet withoutAll(Collection<Long> removed) {
+        if (removed.isEmpty() || ids.length == 0) {
+            return this;
+        }
+        long[] drop = removed.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new ScrapIdSet(Arrays.stream(ids).filter(id -> Arrays.binarySearch(drop, id) < 0).toArray());
+    }
+}
@@ -0,0 +1,5 @@
+package com.bearindonesia.scrap;
+
+import java.util.List;
+
+public record ScrapIdsRequest(List<Long> ids) {}
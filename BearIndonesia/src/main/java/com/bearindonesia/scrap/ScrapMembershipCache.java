@@ -0,0 +1,101 @@
+package com.bearindonesia.scrap;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 사용자별 스크랩 raw_news id 집합 캐시.
+ * 적재와 변경은 사용자 단위 stripe 락 안에서 DB 쓰기 → 캐시 반영 순서로 하므로,
+ * 적재 도중 들어온 변경이 오래된 집합에 덮여 사라지지 않는다.
+ */
+@Component
+public class ScrapMembershipCache {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final UserScrapRepository repository;
+    private final int maxUsers;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public ScrapMembershipCache(
+            UserScrapRepository repository,
+            @Value("${scrap.cache.max-users:5000}") int maxUsers,
+            @Value("${scrap.cache.ttl-minutes:30}") long ttlMinutes
+    ) {
+        this.repository = repository;
+        this.maxUsers = Math.max(1, maxUsers);
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(Math.max(1, ttlMinutes));
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public ScrapIdSet get(long userId) {
+        Entry e = entries.get(userId);
+        if (e != null && fresh(e)) {
+            hits.increment();
+            return e.ids();
+        }
+        synchronized (lockFor(userId)) {
+            e = entries.get(userId);
+            if (e != null && fresh(e)) {
+                hits.increment();
+                return e.ids();
+            }
+            loads.increment();
+            ScrapIdSet ids = ScrapIdSet.of(repository.listScrapRawNewsIds(userId));
+            if (entries.size() >= maxUsers) {
+                evictOne();
+            }
+            entries.put(userId, new Entry(ids, System.nanoTime()));
+            return ids;
+        }
+    }
+
+    /**
+     * DB 변경을 실행하고, 캐시에 적재된 사용자라면 같은 락 안에서 집합도 바꾼다.
+     */
+    public <T> T mutate(long userId, Supplier<T> write, Function<T, UnaryOperator<ScrapIdSet>> change) {
+        synchronized (lockFor(userId)) {
+            T result = write.get();
+            UnaryOperator<ScrapIdSet> op = change.apply(result);
+            entries.computeIfPresent(userId, (k, e) -> new Entry(op.apply(e.ids()), e.loadedAt()));
+            return result;
+        }
+    }
+
+    public ScrapCacheStats stats() {
+        return new ScrapCacheStats(hits.sum(), loads.sum(), entries.size());
+    }
+
+    private boolean fresh(Entry e) {
+        return System.nanoTime() - e.loadedAt() < ttlNanos;
+    }
+
+    private void evictOne() {
+        Iterator<Long> it = entries.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private Object lockFor(long userId) {
+        return locks[(int) (Long.hashCode(userId) & (LOCK_STRIPES - 1))];
+    }
+
+    private record Entry(ScrapIdSet ids, long loadedAt) {}
+}
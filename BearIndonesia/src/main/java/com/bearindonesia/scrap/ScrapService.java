@@ -0,0 +1,73 @@
+package com.bearindonesia.scrap;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+
+/**
+ * 스크랩 추가/삭제는 항상 여기를 거쳐 ScrapMembershipCache 와 DB 가 어긋나지 않게 한다.
+ */
+@Service
+public class ScrapService {
+
+    private final UserScrapRepository repository;
+    private final ScrapMembershipCache cache;
+
+    public ScrapService(UserScrapRepository repository, ScrapMembershipCache cache) {
+        this.repository = repository;
+        this.cache = cache;
+    }
+
+    public void add(long userId, long rawNewsId, String comment) {
+        cache.mutate(
+                userId,
+                () -> {
+                    repository.addScrap(userId, rawNewsId, comment);
+                    return List.of(rawNewsId);
+                },
+                added -> ids -> ids.withAll(added)
+        );
+    }
+
+    public void remove(long userId, long rawNewsId) {
+        cache.mutate(
+                userId,
+                () -> {
+                    repository.removeScrap(userId, rawNewsId);
+                    return List.of(rawNewsId);
+                },
+                removed -> ids -> ids.withoutAll(removed)
+        );
+    }
+
+    /**
+     * 존재하는 기사만 스크랩한다. 새로 추가된 id 목록을 돌려준다.
+     */
+    public List<Long> addAll(long userId, List<Long> rawNewsIds) {
+        return cache.mutate(
+                userId,
+                () -> repository.addScraps(userId, rawNewsIds),
+                added -> ids -> ids.withAll(added)
+        );
+    }
+
+    public List<Long> removeAll(long userId, List<Long> rawNewsIds) {
+        return cache.mutate(
+                userId,
+                () -> repository.removeScraps(userId, rawNewsIds),
+                removed -> ids -> ids.withoutAll(removed)
+        );
+    }
+
+    public Map<Long, Boolean> status(long userId, List<Long> rawNewsIds) {
+        ScrapIdSet ids = cache.get(userId);
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long id : rawNewsIds) {
+            if (id != null) {
+                result.put(id, ids.contains(id));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,5 @@
+package com.bearindonesia.scrap;
+
+import java.util.Map;
+
+public record ScrapStatusResponse(Map<Long, Boolean> scrapped) {}
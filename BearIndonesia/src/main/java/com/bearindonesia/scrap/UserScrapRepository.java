@@ -1,5 +1,6 @@
 package com.bearindonesia.scrap;
 
+import java.sql.PreparedStatement;
 import java.util.List;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -41,4 +42,50 @@ public class UserScrapRepository {
                 userId
         );
     }
+
+    /**
+     * raw_news 에 있는 id 만 스크랩한다. 이미 있던 스크랩은 그대로 두고, 새로 들어간 id 를 돌려준다.
+     */
+    public List<Long> addScraps(Long userId, List<Long> rawNewsIds) {
+        if (rawNewsIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = """
+            INSERT INTO user_scrap (user_id, raw_news_id)
+            SELECT ?, r.id
+            FROM raw_news r
+            WHERE r.id = ANY(?)
+            ON CONFLICT (user_id, raw_news_id) DO NOTHING
+            RETURNING raw_news_id
+            """;
+        return jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(sql);
+                    ps.setLong(1, userId);
+                    ps.setArray(2, con.createArrayOf("bigint", rawNewsIds.toArray()));
+                    return ps;
+                },
+                (rs, rowNum) -> rs.getLong("raw_news_id")
+        );
+    }
+
+    public List<Long> removeScraps(Long userId, List<Long> rawNewsIds) {
+        if (rawNewsIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = """
+            DELETE FROM user_scrap
+            WHERE user_id = ? AND raw_news_id = ANY(?)
+            RETURNING raw_news_id
+            """;
+        return jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(sql);
+                    ps.setLong(1, userId);
+                    ps.setArray(2, con.createArrayOf("bigint", rawNewsIds.toArray()));
+                    return ps;
+                },
+                (rs, rowNum) -> rs.getLong("raw_news_id")
+        );
+    }
 }
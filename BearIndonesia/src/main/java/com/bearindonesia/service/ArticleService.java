@@ -1,9 +1,9 @@
 package com.bearindonesia.service;
 
+import com.bearindonesia.article.ArticleColumnStore;
 import com.bearindonesia.dto.ArticleDto;
 import com.bearindonesia.dto.KeywordDto;
 import com.bearindonesia.dto.NewsletterCoreNewsItemDto;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.FillPatternType;
@@ -16,11 +16,13 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.sql.Array;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -31,11 +33,23 @@ import java.util.ArrayList;
 @Service
 public class ArticleService {
 
+    // 기사 조회는 복제본(read)으로, 방금 바뀐 스크랩 목록은 primary 로, 엑셀 내보내기는 bulk 풀로 읽는다.
     private final JdbcTemplate jdbcTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final JdbcTemplate bulkJdbcTemplate;
+    // 목록·월별 목록·핵심 뉴스는 적재된 열 지향 스냅샷에서 먼저 처리한다.
+    private final ArticleColumnStore articleStore;
 
-    public ArticleService(JdbcTemplate jdbcTemplate) {
+    public ArticleService(
+            @Qualifier("readJdbcTemplate") JdbcTemplate jdbcTemplate,
+            JdbcTemplate primaryJdbcTemplate,
+            @Qualifier("bulkJdbcTemplate") JdbcTemplate bulkJdbcTemplate,
+            ArticleColumnStore articleStore
+    ) {
         this.jdbcTemplate = jdbcTemplate;
+        this.primaryJdbcTemplate = primaryJdbcTemplate;
+        this.bulkJdbcTemplate = bulkJdbcTemplate;
+        this.articleStore = articleStore;
     }
 
     public List<ArticleDto> searchProcessedArticles(String query, String sortBy, String filterType) {
@@ -45,45 +59,44 @@ public class ArticleService {
 
         String normalizedSort = sortBy == null ? "relevance" : sortBy.toLowerCase();
         String normalizedFilter = filterType == null ? "all" : filterType.toLowerCase();
+        // article_view(V6__article_view.sql)의 display_title/display_summary/tags_text trigram 인덱스를 탄다.
         String sql = """
             SELECT
-                p.id,
-                p.raw_news_id,
-                r.title,
-                r.link,
-                r.content,
-                r.published_date,
-                r.source,
-                r.img,
-                p.kor_title,
-                p.kor_summary,
-                p.id_summary,
-                p.semantic_confidence,
-                p.tag_mismatch,
-                p.category_mismatch,
-                p.kor_content,
-                p.category,
-                p.eng_category,
-                p.importance,
-                p.insight,
-                p.tags
-            FROM processed_news p
-            JOIN raw_news r ON r.id = p.raw_news_id
-            WHERE p.is_pharma_related IS TRUE
-              AND (
-                  LOWER(COALESCE(p.kor_title, r.title)) LIKE LOWER(CONCAT('%', ?, '%'))
-               OR LOWER(COALESCE(p.kor_summary, p.kor_content, r.content)) LIKE LOWER(CONCAT('%', ?, '%'))
+                a.id,
+                a.raw_news_id,
+                a.title,
+                a.link,
+                a.content,
+                a.published_date,
+                a.source,
+                a.img,
+                a.kor_title,
+                a.kor_summary,
+                a.id_summary,
+                a.semantic_confidence,
+                a.tag_mismatch,
+                a.category_mismatch,
+                a.kor_content,
+                a.category,
+                a.eng_category,
+                a.importance,
+                a.insight,
+                a.tag_names
+            FROM article_view a
+            WHERE (
+                  LOWER(a.display_title) LIKE LOWER(CONCAT('%', ?, '%'))
+               OR LOWER(a.display_summary) LIKE LOWER(CONCAT('%', ?, '%'))
               )
               AND (
                   ? = 'all'
-               OR LOWER(COALESCE(p.tags::text, '')) LIKE LOWER(CONCAT('%', ?, '%'))
+               OR LOWER(a.tags_text) LIKE LOWER(CONCAT('%', ?, '%'))
               )
             ORDER BY
-                CASE WHEN ? = 'date' THEN r.published_date END DESC NULLS LAST,
-                CASE WHEN ? = 'importance' THEN p.importance END DESC NULLS LAST,
-                p.importance DESC NULLS LAST,
-                r.published_date DESC NULLS LAST,
-                p.id DESC
+                CASE WHEN ? = 'date' THEN a.published_date END DESC NULLS LAST,
+                CASE WHEN ? = 'importance' THEN a.importance END DESC NULLS LAST,
+                a.importance DESC NULLS LAST,
+                a.published_date DESC NULLS LAST,
+                a.id DESC
             """;
         return jdbcTemplate.query(
             sql,
@@ -98,95 +111,106 @@ public class ArticleService {
     }
 
     public List<ArticleDto> listProcessedArticles() {
+        return articleStore.listByImportance().orElseGet(this::queryProcessedArticles);
+    }
+
+    private List<ArticleDto> queryProcessedArticles() {
         String sql = """
             SELECT
-                p.id,
-                p.raw_news_id,
-                r.title,
-                r.link,
-                r.content,
-                r.published_date,
-                r.source,
-                r.img,
-                p.kor_title,
-                p.kor_summary,
-                p.id_summary,
-                p.semantic_confidence,
-                p.tag_mismatch,
-                p.category_mismatch,
-                p.kor_content,
-                p.category,
-                p.eng_category,
-                p.importance,
-                p.insight,
-                p.tags
-            FROM processed_news p
-            JOIN raw_news r ON r.id = p.raw_news_id
-            WHERE p.is_pharma_related IS TRUE
+                a.id,
+                a.raw_news_id,
+                a.title,
+                a.link,
+                a.content,
+                a.published_date,
+                a.source,
+                a.img,
+                a.kor_title,
+                a.kor_summary,
+                a.id_summary,
+                a.semantic_confidence,
+                a.tag_mismatch,
+                a.category_mismatch,
+                a.kor_content,
+                a.category,
+                a.eng_category,
+                a.importance,
+                a.insight,
+                a.tag_names
+            FROM article_view a
             ORDER BY
-                p.importance DESC NULLS LAST,
-                r.published_date DESC NULLS LAST,
-                p.id DESC
+                a.importance DESC NULLS LAST,
+                a.published_date DESC NULLS LAST,
+                a.id DESC
             """;
         return jdbcTemplate.query(sql, (rs, rowNum) -> toDto(rs));
     }
 
     public List<ArticleDto> listProcessedArticlesByMonth(int year, int month) {
+        return articleStore.listMonth(YearMonth.of(year, month))
+            .orElseGet(() -> listProcessedArticlesByMonth(jdbcTemplate, year, month));
+    }
+
+    /**
+     * 주어진 template(커넥션)으로 월별 목록을 읽는다. 월 스냅샷은 워터마크와 같은 트랜잭션에서 읽으려고 이걸 쓴다.
+     */
+    public List<ArticleDto> listProcessedArticlesByMonth(JdbcTemplate template, int year, int month) {
         YearMonth ym = YearMonth.of(year, month);
         LocalDate start = ym.atDay(1);
         LocalDate end = ym.atEndOfMonth();
         String sql = """
             SELECT
-                p.id,
-                p.raw_news_id,
-                r.title,
-                r.link,
-                r.content,
-                r.published_date,
-                r.source,
-                r.img,
-                p.kor_title,
-                p.kor_summary,
-                p.id_summary,
-                p.semantic_confidence,
-                p.tag_mismatch,
-                p.category_mismatch,
-                p.kor_content,
-                p.category,
-                p.eng_category,
-                p.importance,
-                p.insight,
-                p.tags
-            FROM processed_news p
-            JOIN raw_news r ON r.id = p.raw_news_id
-            WHERE p.is_pharma_related IS TRUE
-              AND r.published_date BETWEEN ? AND ?
+                a.id,
+                a.raw_news_id,
+                a.title,
+                a.link,
+                a.content,
+                a.published_date,
+                a.source,
+                a.img,
+                a.kor_title,
+                a.kor_summary,
+                a.id_summary,
+                a.semantic_confidence,
+                a.tag_mismatch,
+                a.category_mismatch,
+                a.kor_content,
+                a.category,
+                a.eng_category,
+                a.importance,
+                a.insight,
+                a.tag_names
+            FROM article_view a
+            WHERE a.published_date BETWEEN ? AND ?
             ORDER BY
-                r.published_date DESC NULLS LAST,
-                p.id DESC
+                a.published_date DESC NULLS LAST,
+                a.id DESC
             """;
-        return jdbcTemplate.query(sql, (rs, rowNum) -> toDto(rs), start, end);
+        return template.query(sql, (rs, rowNum) -> toDto(rs), start, end);
     }
 
     public List<NewsletterCoreNewsItemDto> listTopCoreNewsByMonth(int year, int month, int limit) {
+        return articleStore.topCoreNews(YearMonth.of(year, month), limit)
+            .orElseGet(() -> listTopCoreNewsByMonth(jdbcTemplate, year, month, limit));
+    }
+
+    public List<NewsletterCoreNewsItemDto> listTopCoreNewsByMonth(JdbcTemplate template, int year, int month, int limit) {
         YearMonth ym = YearMonth.of(year, month);
         LocalDate start = ym.atDay(1);
         LocalDate end = ym.atEndOfMonth();
         String sql = """
             SELECT
-                COALESCE(p.kor_title, r.title) AS title,
-                r.img AS img
-            FROM processed_news p
-            JOIN raw_news r ON r.id = p.raw_news_id
-            WHERE p.is_pharma_related IS TRUE
-              AND r.published_date BETWEEN ? AND ?
+                a.display_title AS title,
+                a.img AS img
+            FROM article_view a
+            WHERE a.published_date BETWEEN ? AND ?
             ORDER BY
-                p.importance DESC NULLS LAST,
-                r.published_date DESC NULLS LAST,
-                p.id DESC
+                a.importance DESC NULLS LAST,
+                a.published_date DESC NULLS LAST,
+                a.id DESC
             LIMIT ?
             """;
-        return jdbcTemplate.query(
+        return template.query(
             sql,
             (rs, rowNum) -> {
                 NewsletterCoreNewsItemDto dto = new NewsletterCoreNewsItemDto();
@@ -201,7 +225,11 @@ public class ArticleService {
     }
 
     public byte[] exportProcessedArticlesExcel(int year, int month) {
-        List<ArticleDto> rows = listProcessedArticlesByMonth(year, month);
+        return exportProcessedArticlesExcel(bulkJdbcTemplate, year, month);
+    }
+
+    public byte[] exportProcessedArticlesExcel(JdbcTemplate template, int year, int month) {
+        List<ArticleDto> rows = listProcessedArticlesByMonth(template, year, month);
         try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
             Sheet koreanSheet = workbook.createSheet("Korean");
             Sheet indonesianSheet = workbook.createSheet("Indonesian");
@@ -357,35 +385,33 @@ public class ArticleService {
     public List<ArticleDto> listScrappedArticles(Long userId) {
         String sql = """
             SELECT
-                p.id,
-                p.raw_news_id,
+                a.id,
+                a.raw_news_id,
                 s.comment,
-                r.title,
-                r.link,
-                r.content,
-                r.published_date,
-                r.source,
-                r.img,
-                p.kor_title,
-                p.kor_summary,
-                p.id_summary,
-                p.semantic_confidence,
-                p.tag_mismatch,
-                p.category_mismatch,
-                p.kor_content,
-                p.category,
-                p.eng_category,
-                p.importance,
-                p.insight,
-                p.tags
+                a.title,
+                a.link,
+                a.content,
+                a.published_date,
+                a.source,
+                a.img,
+                a.kor_title,
+                a.kor_summary,
+                a.id_summary,
+                a.semantic_confidence,
+                a.tag_mismatch,
+                a.category_mismatch,
+                a.kor_content,
+                a.category,
+                a.eng_category,
+                a.importance,
+                a.insight,
+                a.tag_names
             FROM user_scrap s
-            JOIN processed_news p ON p.raw_news_id = s.raw_news_id
-            JOIN raw_news r ON r.id = p.raw_news_id
+            JOIN article_view a ON a.raw_news_id = s.raw_news_id
             WHERE s.user_id = ?
-              AND p.is_pharma_related IS TRUE
-            ORDER BY s.created_at DESC, p.id DESC
+            ORDER BY s.created_at DESC, a.id DESC
             """;
-        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+        return primaryJdbcTemplate.query(sql, (rs, rowNum) -> {
             ArticleDto dto = toDto(rs);
             dto.comment = rs.getString("comment");
             return dto;
@@ -421,36 +447,23 @@ public class ArticleService {
         dto.importance = rs.getObject("importance") == null ? null : rs.getInt("importance");
         dto.insight = rs.getString("insight");
 
-        String tagsJson = rs.getString("tags");
-        dto.tags = parseTags(tagsJson);
+        dto.tags = toKeywords(rs.getArray("tag_names"));
         return dto;
     }
 
-    private List<KeywordDto> parseTags(String tagsJson) {
-        if (tagsJson == null || tagsJson.isBlank()) {
+    // tag_names 는 트리거가 tags JSON 에서 미리 뽑아 둔 이름 배열이다.
+    private List<KeywordDto> toKeywords(Array tagNames) throws SQLException {
+        if (tagNames == null) {
             return List.of();
         }
-        try {
-            List<?> raw = objectMapper.readValue(tagsJson, List.class);
-            List<KeywordDto> out = new ArrayList<>();
-            for (Object item : raw) {
-                if (item instanceof String s && !s.isBlank()) {
-                    KeywordDto k = new KeywordDto();
-                    k.name = s;
-                    out.add(k);
-                } else if (item instanceof java.util.Map<?, ?> m) {
-                    Object name = m.get("name");
-                    if (name instanceof String s && !s.isBlank()) {
-                        KeywordDto k = new KeywordDto();
-                        k.name = s;
-                        out.add(k);
-                    }
-                }
-            }
-            return out;
-        } catch (Exception e) {
-            return List.of();
+        String[] names = (String[]) tagNames.getArray();
+        List<KeywordDto> out = new ArrayList<>(names.length);
+        for (String name : names) {
+            KeywordDto k = new KeywordDto();
+            k.name = name;
+            out.add(k);
         }
+        return out;
     }
 
 }
@@ -0,0 +1,138 @@
+package com.bearindonesia.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 태그 파싱과 키워드 정규화 규칙. 리포트와 워드클라우드 집계가 같은 규칙을 쓰도록 한 곳에 둔다.
+ */
+public final class KeywordNormalizer {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Set<String> KEYWORD_STOPWORDS = buildKeywordStopwords();
+    private static final List<String> KEYWORD_ALLOWLIST = buildKeywordAllowlist();
+
+    private KeywordNormalizer() {}
+
+    public static List<String> parseTags(Object raw) {
+        if (raw == null) return Collections.emptyList();
+        // article_view.tag_names 는 이미 파싱된 이름 배열이다. 기사 API 와 맞추느라 공백은 남아 있어서 여기서 자른다.
+        if (raw instanceof String[] names) {
+            List<String> out = new ArrayList<>(names.length);
+            for (String name : names) {
+                if (name != null && !name.isBlank()) {
+                    out.add(name.trim());
+                }
+            }
+            return out;
+        }
+        if (raw instanceof List<?> list) {
+            List<String> out = new ArrayList<>();
+            for (Object item : list) {
+                if (item instanceof String s && !s.isBlank()) {
+                    out.add(s.trim());
+                } else if (item instanceof Map<?, ?> map) {
+                    Object name = map.get("name");
+                    if (name instanceof String s && !s.isBlank()) {
+                        out.add(s.trim());
+                    }
+                }
+            }
+            return out;
+        }
+        String s = raw.toString().trim();
+        if (s.isEmpty()) return Collections.emptyList();
+        try {
+            JsonNode node = OBJECT_MAPPER.readTree(s);
+            List<String> out = new ArrayList<>();
+            if (node.isArray()) {
+                for (JsonNode n : node) {
+                    if (n.isTextual()) {
+                        out.add(n.asText().trim());
+                    } else if (n.isObject() && n.has("name")) {
+                        out.add(n.get("name").asText().trim());
+                    }
+                }
+            } else if (node.isObject() && node.has("name")) {
+                out.add(node.get("name").asText().trim());
+            }
+            return out;
+        } catch (Exception ignored) {
+            // Fall back to comma-separated values
+        }
+        String[] parts = s.split(",");
+        List<String> out = new ArrayList<>();
+        for (String part : parts) {
+            String t = part.trim();
+            if (!t.isEmpty()) out.add(t);
+        }
+        return out;
+    }
+
+    public static boolean isMeaningfulKeyword(String keyword) {
+        if (keyword == null) return false;
+        String normalized = normalizeKeyword(keyword);
+        if (normalized.isBlank()) return false;
+        if (isAllowlistedKeyword(normalized)) return true;
+        if (normalized.length() < 3) return false;
+        if (normalized.matches("\\d+")) return false;
+        if (KEYWORD_STOPWORDS.contains(normalized)) return false;
+        return true;
+    }
+
+    public static String normalizeKeyword(String keyword) {
+        if (keyword == null) return "";
+        String normalized = keyword.toLowerCase(Locale.ROOT)
+            .replaceAll("[^\\p{IsAlphabetic}\\p{IsDigit}]+", " ")
+            .trim();
+        normalized = normalized.replaceAll("\\s+", " ");
+        return normalized;
+    }
+
+    private static boolean isAllowlistedKeyword(String normalized) {
+        for (String token : KEYWORD_ALLOWLIST) {
+            if (normalized.contains(token)) return true;
+        }
+        return false;
+    }
+
+    private static Set<String> buildKeywordStopwords() {
+        Set<String> out = new HashSet<>();
+        Collections.addAll(out,
+            "industri", "farmasi", "industri farmasi", "perusahaan", "pasar", "produk",
+            "pemerintah", "indonesia", "nasional", "tahun", "harga", "kesehatan",
+            "obat", "obatan", "pharma", "pharmaceutical", "industry", "market",
+            "company", "companies", "produk obat", "obat generik", "obat baru",
+            "pertumbuhan", "penjualan", "laba", "rugi", "saham", "investasi",
+            "regulasi", "kebijakan", "kementerian", "otoritas", "program", "peluang",
+            "riset", "penelitian", "kinerja", "target", "realisasi", "permintaan",
+            "bpom", "kemenkes", "kementerian kesehatan", "kementerian kesehatan ri",
+            "kementerian kesehatan republik indonesia", "bpjs", "bpjs kesehatan", "jkn",
+            "asuransi", "asuransi kesehatan", "jaminan kesehatan", "izin edar",
+            "gmp", "kosmetik", "cosmetic", "cosmetics", "traditional medicine",
+            "kerjasama", "kolaborasi", "kerja sama", "kerja-sama",
+            "ekspor", "impor", "bisnis", "investasi farmasi"
+        );
+        return out;
+    }
+
+    private static List<String> buildKeywordAllowlist() {
+        List<String> out = new ArrayList<>();
+        Collections.addAll(out,
+            "izin edar", "izin", "registrasi", "registration", "approval", "approved",
+            "authorization", "clearance", "tracking", "follow up",
+            "new drug", "new medicine", "novel drug", "vaksin", "vaccine",
+            "biosimilar", "biologic", "api", "bahan baku",
+            "clinical", "clinical trial", "phase i", "phase ii", "phase iii",
+            "produk", "product", "brand", "trade name"
+        );
+        return out;
+    }
+}
@@ -1,5 +1,6 @@
 package com.bearindonesia.service;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
@@ -17,8 +18,6 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class ReportService {
@@ -30,7 +29,6 @@ public class ReportService {
     private static final double PIN_MULTIPLIER = 2.0;
     private static final int PIN_LOOKBACK_DAYS = 7;
     private static final Map<String, Double> SOURCE_WEIGHTS = buildSourceWeights();
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final int KEYWORD_RANK_LIMIT = 20;
     private static final int AUTO_COMPETITOR_LIMIT = 6;
     private static final int WEEKLY_ISSUE_DAYS = 7;
@@ -38,10 +36,8 @@ public class ReportService {
     private static final int TREND_KEYWORD_LIMIT = 6;
     private static final int ISSUE_TITLE_LIMIT = 8;
     private static final int ISSUE_TITLE_FETCH_MULTIPLIER = 3;
-    private static final Set<String> KEYWORD_STOPWORDS = buildKeywordStopwords();
-    private static final List<String> KEYWORD_ALLOWLIST = buildKeywordAllowlist();
 
-    public ReportService(JdbcTemplate jdbcTemplate) {
+    public ReportService(@Qualifier("analyticsJdbcTemplate") JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
     }
 
@@ -89,9 +85,9 @@ public class ReportService {
         LocalDate prevEnd = range.start.minusDays(1);
         LocalDate prevStart = range.start.minusDays(days);
 
-        String baseWhere = "p.is_pharma_related IS TRUE AND r.published_date BETWEEN ? AND ? AND (" +
-            "LOWER(COALESCE(p.kor_title, r.title)) LIKE LOWER(CONCAT('%', ?, '%')) OR " +
-            "LOWER(COALESCE(p.kor_summary, p.kor_content, r.content)) LIKE LOWER(CONCAT('%', ?, '%'))" +
+        String baseWhere = "a.published_date BETWEEN ? AND ? AND (" +
+            "LOWER(a.display_title) LIKE LOWER(CONCAT('%', ?, '%')) OR " +
+            "LOWER(a.display_summary) LIKE LOWER(CONCAT('%', ?, '%'))" +
             ")";
 
         for (String keyword : keywords) {
@@ -115,10 +111,10 @@ public class ReportService {
             resp.totals.add(totalRow);
 
             List<CompetitorDailyRow> dailyRows = jdbcTemplate.query(
-                "SELECT r.published_date, COUNT(*) AS cnt " +
-                    "FROM processed_news p JOIN raw_news r ON r.id = p.raw_news_id " +
+                "SELECT a.published_date, COUNT(*) AS cnt " +
+                    "FROM article_view a " +
                     "WHERE " + baseWhere + " " +
-                    "GROUP BY r.published_date ORDER BY r.published_date",
+                    "GROUP BY a.published_date ORDER BY a.published_date",
                 (rs, rowNum) -> {
                     CompetitorDailyRow row = new CompetitorDailyRow();
                     row.keyword = kw;
@@ -134,10 +130,10 @@ public class ReportService {
             resp.daily.addAll(dailyRows);
 
             List<CompetitorSourceRow> sourceRows = jdbcTemplate.query(
-                "SELECT COALESCE(r.source, 'Unknown') AS source, COUNT(*) AS cnt " +
-                    "FROM processed_news p JOIN raw_news r ON r.id = p.raw_news_id " +
+                "SELECT COALESCE(a.source, 'Unknown') AS source, COUNT(*) AS cnt " +
+                    "FROM article_view a " +
                     "WHERE " + baseWhere + " " +
-                    "GROUP BY COALESCE(r.source, 'Unknown') ORDER BY cnt DESC",
+                    "GROUP BY COALESCE(a.source, 'Unknown') ORDER BY cnt DESC",
                 (rs, rowNum) -> {
                     CompetitorSourceRow row = new CompetitorSourceRow();
                     row.keyword = kw;
@@ -153,10 +149,10 @@ public class ReportService {
             resp.sources.addAll(sourceRows);
 
             List<CompetitorArticleRow> articleRows = jdbcTemplate.query(
-                "SELECT p.id, r.title, r.link, r.published_date, r.source, r.img, p.kor_title, p.kor_summary, p.id_summary, p.importance " +
-                    "FROM processed_news p JOIN raw_news r ON r.id = p.raw_news_id " +
+                "SELECT a.id, a.title, a.link, a.published_date, a.source, a.img, a.kor_title, a.kor_summary, a.id_summary, a.importance " +
+                    "FROM article_view a " +
                     "WHERE " + baseWhere + " " +
-                    "ORDER BY p.importance DESC NULLS LAST, r.published_date DESC NULLS LAST, p.id DESC " +
+                    "ORDER BY a.importance DESC NULLS LAST, a.published_date DESC NULLS LAST, a.id DESC " +
                     "LIMIT ?",
                 (rs, rowNum) -> {
                     CompetitorArticleRow row = new CompetitorArticleRow();
@@ -184,10 +180,10 @@ public class ReportService {
             resp.topArticles.addAll(articleRows);
 
             List<ClusterArticle> clusterArticles = jdbcTemplate.query(
-                "SELECT p.id, r.title, r.link, r.published_date, r.source, r.img, p.kor_title, p.kor_summary, p.id_summary, p.importance " +
-                    "FROM processed_news p JOIN raw_news r ON r.id = p.raw_news_id " +
+                "SELECT a.id, a.title, a.link, a.published_date, a.source, a.img, a.kor_title, a.kor_summary, a.id_summary, a.importance " +
+                    "FROM article_view a " +
                     "WHERE " + baseWhere + " " +
-                    "ORDER BY p.importance DESC NULLS LAST, r.published_date DESC NULLS LAST, p.id DESC " +
+                    "ORDER BY a.importance DESC NULLS LAST, a.published_date DESC NULLS LAST, a.id DESC " +
                     "LIMIT ?",
                 (rs, rowNum) -> {
                     ClusterArticle row = new ClusterArticle();
@@ -390,7 +386,7 @@ public class ReportService {
 
     private Integer countKeyword(String baseWhere, LocalDate start, LocalDate end, String kw) {
         return jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM processed_news p JOIN raw_news r ON r.id = p.raw_news_id WHERE " + baseWhere,
+            "SELECT COUNT(*) FROM article_view a WHERE " + baseWhere,
             Integer.class,
             Date.valueOf(start),
             Date.valueOf(end),
@@ -407,7 +403,7 @@ public class ReportService {
             return range;
         }
         List<LocalDate> row = jdbcTemplate.query(
-            "SELECT MIN(published_date) AS min_date, MAX(published_date) AS max_date FROM raw_news",
+            "SELECT MIN(published_date) AS min_date, MAX(published_date) AS max_date FROM article_view",
             (rs, rn) -> {
                 Date min = rs.getDate("min_date");
                 Date max = rs.getDate("max_date");
@@ -424,9 +420,9 @@ public class ReportService {
 
     private List<KeywordRankRow> buildKeywordRanks(LocalDate start, LocalDate end) {
         List<Object> tagRows = jdbcTemplate.query(
-            "SELECT p.tags FROM processed_news p JOIN raw_news r ON r.id = p.raw_news_id " +
-                "WHERE p.is_pharma_related IS TRUE AND r.published_date BETWEEN ? AND ? AND p.tags IS NOT NULL",
-            (rs, rowNum) -> rs.getObject("tags"),
+            "SELECT a.tag_names FROM article_view a " +
+                "WHERE a.published_date BETWEEN ? AND ? AND cardinality(a.tag_names) > 0",
+            (rs, rowNum) -> rs.getArray("tag_names").getArray(),
             Date.valueOf(start),
             Date.valueOf(end)
         );
@@ -434,11 +430,11 @@ public class ReportService {
         Map<String, Integer> counts = new HashMap<>();
         Map<String, String> display = new HashMap<>();
         for (Object raw : tagRows) {
-            List<String> tags = parseTags(raw);
+            List<String> tags = KeywordNormalizer.parseTags(raw);
             Set<String> unique = new HashSet<>(tags);
             for (String tag : unique) {
-                if (!isMeaningfulKeyword(tag)) continue;
-                String normalized = normalizeKeyword(tag);
+                if (!KeywordNormalizer.isMeaningfulKeyword(tag)) continue;
+                String normalized = KeywordNormalizer.normalizeKeyword(tag);
                 counts.put(normalized, counts.getOrDefault(normalized, 0) + 1);
                 display.putIfAbsent(normalized, tag.trim());
             }
@@ -459,10 +455,10 @@ public class ReportService {
     private List<IssueTitleRow> buildIssueTitles(LocalDate start, LocalDate end, int limit) {
         int fetchLimit = Math.max(limit * ISSUE_TITLE_FETCH_MULTIPLIER, limit);
         List<IssueTitleRow> rows = jdbcTemplate.query(
-            "SELECT p.id, r.title, r.link, r.published_date, r.source, p.kor_title, p.kor_summary, p.id_summary, p.importance " +
-                "FROM processed_news p JOIN raw_news r ON r.id = p.raw_news_id " +
-                "WHERE p.is_pharma_related IS TRUE AND r.published_date BETWEEN ? AND ? " +
-                "ORDER BY p.importance DESC NULLS LAST, r.published_date DESC NULLS LAST, p.id DESC " +
+            "SELECT a.id, a.title, a.link, a.published_date, a.source, a.kor_title, a.kor_summary, a.id_summary, a.importance " +
+                "FROM article_view a " +
+                "WHERE a.published_date BETWEEN ? AND ? " +
+                "ORDER BY a.importance DESC NULLS LAST, a.published_date DESC NULLS LAST, a.id DESC " +
                 "LIMIT ?",
             (rs, rowNum) -> {
                 IssueTitleRow row = new IssueTitleRow();
@@ -498,9 +494,9 @@ public class ReportService {
 
     private List<CompetitorMentionRow> buildMentionedKeywords(LocalDate start, LocalDate end, String keyword, String baseWhere) {
         List<Object> tagRows = jdbcTemplate.query(
-            "SELECT p.tags FROM processed_news p JOIN raw_news r ON r.id = p.raw_news_id " +
-                "WHERE " + baseWhere + " AND p.tags IS NOT NULL",
-            (rs, rowNum) -> rs.getObject("tags"),
+            "SELECT a.tag_names FROM article_view a " +
+                "WHERE " + baseWhere + " AND cardinality(a.tag_names) > 0",
+            (rs, rowNum) -> rs.getArray("tag_names").getArray(),
             Date.valueOf(start),
             Date.valueOf(end),
             keyword,
@@ -509,13 +505,13 @@ public class ReportService {
 
         Map<String, Integer> counts = new HashMap<>();
         Map<String, String> display = new HashMap<>();
-        String normalizedKeyword = normalizeKeyword(keyword);
+        String normalizedKeyword = KeywordNormalizer.normalizeKeyword(keyword);
         for (Object raw : tagRows) {
-            List<String> tags = parseTags(raw);
+            List<String> tags = KeywordNormalizer.parseTags(raw);
             Set<String> unique = new HashSet<>(tags);
             for (String tag : unique) {
-                if (!isMeaningfulKeyword(tag)) continue;
-                String normalized = normalizeKeyword(tag);
+                if (!KeywordNormalizer.isMeaningfulKeyword(tag)) continue;
+                String normalized = KeywordNormalizer.normalizeKeyword(tag);
                 if (normalized.equals(normalizedKeyword)) continue;
                 counts.put(normalized, counts.getOrDefault(normalized, 0) + 1);
                 display.putIfAbsent(normalized, tag.trim());
@@ -559,13 +555,13 @@ public class ReportService {
         }
 
         List<TagDateRow> rows = jdbcTemplate.query(
-            "SELECT r.published_date, p.tags FROM processed_news p JOIN raw_news r ON r.id = p.raw_news_id " +
-                "WHERE p.is_pharma_related IS TRUE AND r.published_date BETWEEN ? AND ? AND p.tags IS NOT NULL",
+            "SELECT a.published_date, a.tag_names FROM article_view a " +
+                "WHERE a.published_date BETWEEN ? AND ? AND cardinality(a.tag_names) > 0",
             (rs, rn) -> {
                 TagDateRow row = new TagDateRow();
                 Date d = rs.getDate("published_date");
                 row.date = d != null ? d.toLocalDate() : null;
-                row.tags = rs.getObject("tags");
+                row.tags = rs.getArray("tag_names").getArray();
                 return row;
             },
             Date.valueOf(start),
@@ -579,7 +575,7 @@ public class ReportService {
 
         for (TagDateRow row : rows) {
             if (row.date == null) continue;
-            List<String> tags = parseTags(row.tags);
+            List<String> tags = KeywordNormalizer.parseTags(row.tags);
             Set<String> unique = new HashSet<>(tags);
             for (String kw : topKeywords) {
                 if (unique.contains(kw)) {
@@ -612,51 +608,6 @@ public class ReportService {
         Object tags;
     }
 
-    private List<String> parseTags(Object raw) {
-        if (raw == null) return Collections.emptyList();
-        if (raw instanceof List<?> list) {
-            List<String> out = new ArrayList<>();
-            for (Object item : list) {
-                if (item instanceof String s && !s.isBlank()) {
-                    out.add(s.trim());
-                } else if (item instanceof Map<?, ?> map) {
-                    Object name = map.get("name");
-                    if (name instanceof String s && !s.isBlank()) {
-                        out.add(s.trim());
-                    }
-                }
-            }
-            return out;
-        }
-        String s = raw.toString().trim();
-        if (s.isEmpty()) return Collections.emptyList();
-        try {
-            JsonNode node = OBJECT_MAPPER.readTree(s);
-            List<String> out = new ArrayList<>();
-            if (node.isArray()) {
-                for (JsonNode n : node) {
-                    if (n.isTextual()) {
-                        out.add(n.asText().trim());
-                    } else if (n.isObject() && n.has("name")) {
-                        out.add(n.get("name").asText().trim());
-                    }
-                }
-            } else if (node.isObject() && node.has("name")) {
-                out.add(node.get("name").asText().trim());
-            }
-            return out;
-        } catch (Exception ignored) {
-            // Fall back to comma-separated values
-        }
-        String[] parts = s.split(",");
-        List<String> out = new ArrayList<>();
-        for (String part : parts) {
-            String t = part.trim();
-            if (!t.isEmpty()) out.add(t);
-        }
-        return out;
-    }
-
     private static Map<String, Double> buildSourceWeights() {
         Map<String, Double> weights = new HashMap<>();
         for (String s : List.of(
@@ -668,7 +619,8 @@ public class ReportService {
         return weights;
     }
 
-    private static double computeImpactScore(List<ClusterArticle> articles) {
+    // 분석 커널(computeImpactScore, buildPins, clusterBySimilarity, tokenize, jaccard)은 src/jmh 벤치마크에서 호출하므로 package-private 이다.
+    static double computeImpactScore(List<ClusterArticle> articles) {
         double total = 0.0;
         for (ClusterArticle a : articles) {
             double sourceWeight = 1.0;
@@ -846,7 +798,7 @@ public class ReportService {
             this.competitionImpact = competitionImpact;
         }
     }
-    private static List<CompetitorPinRow> buildPins(List<CompetitorDailyRow> dailyRows) {
+    static List<CompetitorPinRow> buildPins(List<CompetitorDailyRow> dailyRows) {
         if (dailyRows == null || dailyRows.isEmpty()) {
             return Collections.emptyList();
         }
@@ -881,7 +833,7 @@ public class ReportService {
         return pins;
     }
 
-    private static List<Cluster> clusterBySimilarity(List<ClusterArticle> articles) {
+    static List<Cluster> clusterBySimilarity(List<ClusterArticle> articles) {
         if (articles == null || articles.isEmpty()) {
             return Collections.emptyList();
         }
@@ -920,7 +872,7 @@ public class ReportService {
         return out;
     }
 
-    private static Set<String> tokenize(String text) {
+    static Set<String> tokenize(String text) {
         if (text == null) {
             return Collections.emptySet();
         }
@@ -941,26 +893,6 @@ public class ReportService {
         return tokens;
     }
 
-    private static boolean isMeaningfulKeyword(String keyword) {
-        if (keyword == null) return false;
-        String normalized = normalizeKeyword(keyword);
-        if (normalized.isBlank()) return false;
-        if (isAllowlistedKeyword(normalized)) return true;
-        if (normalized.length() < 3) return false;
-        if (normalized.matches("\\d+")) return false;
-        if (KEYWORD_STOPWORDS.contains(normalized)) return false;
-        return true;
-    }
-
-    private static String normalizeKeyword(String keyword) {
-        if (keyword == null) return "";
-        String normalized = keyword.toLowerCase(Locale.ROOT)
-            .replaceAll("[^\\p{IsAlphabetic}\\p{IsDigit}]+", " ")
-            .trim();
-        normalized = normalized.replaceAll("\\s+", " ");
-        return normalized;
-    }
-
     private static String normalizeTitle(String title) {
         if (title == null) return "";
         String normalized = title.toLowerCase(Locale.ROOT)
@@ -969,47 +901,7 @@ public class ReportService {
         return normalized.replaceAll("\\s+", " ");
     }
 
-    private static boolean isAllowlistedKeyword(String normalized) {
-        for (String token : KEYWORD_ALLOWLIST) {
-            if (normalized.contains(token)) return true;
-        }
-        return false;
-    }
-
-    private static Set<String> buildKeywordStopwords() {
-        Set<String> out = new HashSet<>();
-        Collections.addAll(out,
-            "industri", "farmasi", "industri farmasi", "perusahaan", "pasar", "produk",
-            "pemerintah", "indonesia", "nasional", "tahun", "harga", "kesehatan",
-            "obat", "obatan", "pharma", "pharmaceutical", "industry", "market",
-            "company", "companies", "produk obat", "obat generik", "obat baru",
-            "pertumbuhan", "penjualan", "laba", "rugi", "saham", "investasi",
-            "regulasi", "kebijakan", "kementerian", "otoritas", "program", "peluang",
-            "riset", "penelitian", "kinerja", "target", "realisasi", "permintaan",
-            "bpom", "kemenkes", "kementerian kesehatan", "kementerian kesehatan ri",
-            "kementerian kesehatan republik indonesia", "bpjs", "bpjs kesehatan", "jkn",
-            "asuransi", "asuransi kesehatan", "jaminan kesehatan", "izin edar",
-            "gmp", "kosmetik", "cosmetic", "cosmetics", "traditional medicine",
-            "kerjasama", "kolaborasi", "kerja sama", "kerja-sama",
-            "ekspor", "impor", "bisnis", "investasi farmasi"
-        );
-        return out;
-    }
-
-    private static List<String> buildKeywordAllowlist() {
-        List<String> out = new ArrayList<>();
-        Collections.addAll(out,
-            "izin edar", "izin", "registrasi", "registration", "approval", "approved",
-            "authorization", "clearance", "tracking", "follow up",
-            "new drug", "new medicine", "novel drug", "vaksin", "vaccine",
-            "biosimilar", "biologic", "api", "bahan baku",
-            "clinical", "clinical trial", "phase i", "phase ii", "phase iii",
-            "produk", "product", "brand", "trade name"
-        );
-        return out;
-    }
-
-    private static double jaccard(Set<String> a, Set<String> b) {
+    static double jaccard(Set<String> a, Set<String> b) {
         if (a.isEmpty() || b.isEmpty()) {
             return 0.0;
         }
@@ -1021,13 +913,13 @@ public class ReportService {
         return union == 0 ? 0.0 : (double) inter / union;
     }
 
-    private static class Cluster {
+    static class Cluster {
         String title;
         Set<String> tokens;
         List<ClusterArticle> articles;
     }
 
-    private static class ClusterArticle {
+    static class ClusterArticle {
         String keyword;
         Long articleId;
         String title;
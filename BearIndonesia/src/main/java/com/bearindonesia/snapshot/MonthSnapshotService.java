@@ -0,0 +1,78 @@
+package com.bearindonesia.snapshot;
+
+import com.bearindonesia.newsletter.NewsletterService;
+import com.bearindonesia.service.ArticleService;
+import com.bearindonesia.snapshot.MonthSnapshotStore.Content;
+import com.bearindonesia.snapshot.MonthSnapshotStore.SnapshotFile;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.YearMonth;
+import java.util.Optional;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 닫힌 달의 월별 결과물을 MonthSnapshotStore 에서 꺼내거나, 처음 요청될 때 기존 서비스로 만들어 굳힌다.
+ * 기사 기반 결과물은 스토어가 넘겨 주는 template 으로 읽는다 (워터마크와 같은 트랜잭션, 열 지향 스냅샷/복제본을 거치지 않는다).
+ * 이번 달처럼 아직 닫히지 않은 달은 빈 Optional 이고, 호출자가 평소처럼 계산한다.
+ */
+@Service
+public class MonthSnapshotService {
+
+    static final String XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final MonthSnapshotStore store;
+    private final ArticleService articleService;
+    private final NewsletterService newsletterService;
+    private final ObjectMapper objectMapper;
+
+    public MonthSnapshotService(
+            MonthSnapshotStore store,
+            ArticleService articleService,
+            NewsletterService newsletterService,
+            ObjectMapper objectMapper
+    ) {
+        this.store = store;
+        this.articleService = articleService;
+        this.newsletterService = newsletterService;
+        this.objectMapper = objectMapper;
+    }
+
+    public Optional<SnapshotFile> excel(YearMonth month) {
+        return store.get(month, "articles.xlsx", template -> new Content(
+                articleService.exportProcessedArticlesExcel(template, month.getYear(), month.getMonthValue()), XLSX));
+    }
+
+    public Optional<SnapshotFile> coreNews(YearMonth month, int limit) {
+        return store.get(month, "core-news-" + limit + ".json", template -> json(
+                articleService.listTopCoreNewsByMonth(template, month.getYear(), month.getMonthValue(), limit)));
+    }
+
+    /**
+     * 뉴스레터는 외부 생성기가 만들어서 DB 트랜잭션에 묶을 수 없다. 워터마크가 바뀌면 다른 파일처럼 다시 만든다.
+     */
+    public Optional<SnapshotFile> newsletter(YearMonth month) {
+        return store.get(month, "newsletter", template -> {
+            ResponseEntity<byte[]> response = newsletterService.fetchNewsletter(month.getYear(), month.getMonthValue());
+            MediaType contentType = response.getHeaders().getContentType();
+            return new Content(
+                    response.getBody(),
+                    (contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM).toString()
+            );
+        });
+    }
+
+    public ResponseEntity<StreamingResponseBody> respond(SnapshotFile file, String ifNoneMatch, String contentDisposition) {
+        return store.respond(file, ifNoneMatch, contentDisposition);
+    }
+
+    private Content json(Object value) {
+        try {
+            return new Content(objectMapper.writeValueAsBytes(value), MediaType.APPLICATION_JSON_VALUE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("스냅샷 JSON 생성에 실패했습니다.", e);
+        }
+    }
+}
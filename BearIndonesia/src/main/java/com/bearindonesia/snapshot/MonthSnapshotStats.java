@@ -0,0 +1,8 @@
+package com.bearindonesia.snapshot;
+
+public record MonthSnapshotStats(
+        long hits,
+        long builds,
+        long invalidations,
+        int mappedFiles
+) {}
@@ -0,0 +1,401 @@
+package com.bearindonesia.snapshot;
+
+import com.bearindonesia.ingest.IngestEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 지난 달 결과물(엑셀, 핵심 뉴스, 뉴스레터)을 파일로 굳혀 두는 저장소.
+ * {dir}/{yyyy-MM}/ 아래에 결과 파일과 manifest.json (파일별 sha256, 크기, content type, 만든 시점의 워터마크)을 둔다.
+ * 파일은 메모리 매핑해서 그대로 응답하고, ETag 를 붙여 If-None-Match 재검증에 304 로 답한다.
+ * 파일 내용과 워터마크는 primary 의 한 REPEATABLE READ 트랜잭션에서 읽어서, 워터마크가 정확히 그 내용을 가리킨다.
+ * 검사 작업이 달마다 article_view 워터마크를 다시 읽어서, 늦게 들어온 기사로 달라진 파일만 지운다 (다음 요청 때 다시 만든다).
+ * IngestEvent 가 닫힌 달을 가리키면 검사 주기를 기다리지 않고 그 달을 바로 버린다.
+ */
+@Component
+public class MonthSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthSnapshotStore.class);
+    private static final String MANIFEST = "manifest.json";
+    private static final Pattern NAME_PATTERN = Pattern.compile("[a-z0-9][a-z0-9.-]{0,63}");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate bulkJdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path root;
+    private final boolean enabled;
+    private final int closedAfterDays;
+    private final long maxAgeSeconds;
+    private final Map<YearMonth, Manifest> manifests = new ConcurrentHashMap<>();
+    private final Map<Path, MappedByteBuffer> mapped = new ConcurrentHashMap<>();
+    private final Map<YearMonth, Object> locks = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public MonthSnapshotStore(
+            JdbcTemplate jdbcTemplate,
+            @Qualifier("bulkJdbcTemplate") JdbcTemplate bulkJdbcTemplate,
+            @Value("${snapshot.enabled:true}") boolean enabled,
+            @Value("${snapshot.dir:data/month-snapshots}") String root,
+            @Value("${snapshot.closed-after-days:1}") int closedAfterDays,
+            @Value("${snapshot.max-age-seconds:0}") long maxAgeSeconds
+    ) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bulkJdbcTemplate = bulkJdbcTemplate;
+        this.enabled = enabled;
+        this.root = Path.of(root);
+        this.closedAfterDays = Math.max(0, closedAfterDays);
+        this.maxAgeSeconds = Math.max(0, maxAgeSeconds);
+        if (enabled) {
+            Files.createDirectories(this.root);
+        }
+    }
+
+    /**
+     * 닫힌 달이면 스냅샷 파일을 돌려주고, 없으면 build 로 만들어 저장한다. 닫히지 않은 달은 빈 Optional.
+     * build 는 워터마크를 읽은 트랜잭션의 template 을 받는다. 내용은 이 template 으로만 읽어야 한다.
+     */
+    public Optional<SnapshotFile> get(YearMonth month, String name, Function<JdbcTemplate, Content> build) {
+        if (!enabled || !isClosed(month)) {
+            return Optional.empty();
+        }
+        if (!NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid snapshot name: " + name);
+        }
+        SnapshotFile file = open(month, name);
+        if (file != null) {
+            hits.increment();
+            return Optional.of(file);
+        }
+        synchronized (locks.computeIfAbsent(month, k -> new Object())) {
+            file = open(month, name);
+            if (file != null) {
+                hits.increment();
+                return Optional.of(file);
+            }
+            Built built = build(month, build);
+            write(month, name, built.content(), built.watermark());
+            builds.increment();
+            return Optional.ofNullable(open(month, name));
+        }
+    }
+
+    public ResponseEntity<StreamingResponseBody> respond(SnapshotFile file, String ifNoneMatch, String contentDisposition) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(file.etag());
+        // URL 에 버전이 없어서 늦게 들어온 기사로 파일이 바뀌면 브라우저도 알아야 한다. immutable 대신 ETag 로 재검증한다.
+        headers.setCacheControl(maxAgeSeconds == 0
+                ? CacheControl.noCache().cachePublic()
+                : CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic().mustRevalidate());
+        if (contentDisposition != null) {
+            headers.set(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        }
+        if (matches(ifNoneMatch, file.etag())) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        headers.setContentType(MediaType.parseMediaType(file.contentType()));
+        headers.setContentLength(file.size());
+        StreamingResponseBody body = out -> {
+            ByteBuffer data = file.data();
+            WritableByteChannel channel = Channels.newChannel(out);
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * 해당 달의 스냅샷을 모두 버린다.
+     */
+    public void invalidate(YearMonth month) {
+        synchronized (locks.computeIfAbsent(month, k -> new Object())) {
+            Manifest manifest = manifest(month);
+            if (manifest.files().isEmpty()) {
+                return;
+            }
+            for (String name : manifest.files().keySet()) {
+                delete(month, name);
+            }
+            saveManifest(month, new Manifest(month.toString(), Map.of()));
+            invalidations.increment();
+            log.info("Invalidated month snapshot {}.", month);
+        }
+    }
+
+    /**
+     * 늦게 들어온 기사가 닫힌 달을 건드렸으면 그 달만 버린다. 범위를 모르는 알림이면 전체를 검증한다.
+     */
+    @EventListener
+    public void onIngest(IngestEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.resync()) {
+            verify();
+            return;
+        }
+        for (YearMonth month : event.months()) {
+            if (isClosed(month)) {
+                invalidate(month);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${snapshot.verify-ms:600000}", initialDelayString = "${snapshot.verify-ms:600000}")
+    public void verify() {
+        if (!enabled) {
+            return;
+        }
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                YearMonth month;
+                try {
+                    month = YearMonth.parse(dir.getFileName().toString());
+                } catch (DateTimeParseException e) {
+                    continue;
+                }
+                verify(month);
+            }
+        } catch (Exception e) {
+            log.warn("Month snapshot verification failed.", e);
+        }
+    }
+
+    public MonthSnapshotStats stats() {
+        return new MonthSnapshotStats(hits.sum(), builds.sum(), invalidations.sum(), mapped.size());
+    }
+
+    private void verify(YearMonth month) {
+        synchronized (locks.computeIfAbsent(month, k -> new Object())) {
+            Manifest manifest = manifest(month);
+            if (manifest.files().isEmpty()) {
+                return;
+            }
+            String current = watermark(jdbcTemplate, month);
+            Map<String, Entry> kept = new HashMap<>();
+            for (Map.Entry<String, Entry> e : manifest.files().entrySet()) {
+                if (current.equals(e.getValue().watermark())) {
+                    kept.put(e.getKey(), e.getValue());
+                } else {
+                    delete(month, e.getKey());
+                }
+            }
+            if (kept.size() != manifest.files().size()) {
+                saveManifest(month, new Manifest(month.toString(), kept));
+                invalidations.increment();
+                log.info("Month snapshot {} changed; dropped {} stale files.", month, manifest.files().size() - kept.size());
+            }
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isClosed(YearMonth month) {
+        LocalDate closesOn = month.plusMonths(1).atDay(1).plusDays(closedAfterDays);
+        return !LocalDate.now().isBefore(closesOn);
+    }
+
+    /**
+     * bulk 풀 커넥션 하나로 읽기 전용 REPEATABLE READ 트랜잭션을 열고, 워터마크와 내용을 같은 스냅샷에서 읽는다.
+     */
+    private Built build(YearMonth month, Function<JdbcTemplate, Content> build) {
+        return bulkJdbcTemplate.execute((ConnectionCallback<Built>) con -> {
+            con.setAutoCommit(false);
+            con.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            con.setReadOnly(true);
+            try {
+                JdbcTemplate tx = new JdbcTemplate(new SingleConnectionDataSource(con, true));
+                String watermark = watermark(tx, month);
+                Content content = build.apply(tx);
+                con.commit();
+                return new Built(watermark, content);
+            } catch (RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setReadOnly(false);
+                con.setAutoCommit(true);
+            }
+        });
+    }
+
+    private static String watermark(JdbcTemplate template, YearMonth month) {
+        return template.queryForObject(
+                "SELECT COUNT(*) AS cnt, COALESCE(MAX(id), 0) AS max_id, MAX(refreshed_at) AS refreshed " +
+                        "FROM article_view WHERE published_date BETWEEN ? AND ?",
+                (rs, rowNum) -> rs.getLong("cnt") + "-" + rs.getLong("max_id") + "-" + rs.getString("refreshed"),
+                Date.valueOf(month.atDay(1)),
+                Date.valueOf(month.atEndOfMonth())
+        );
+    }
+
+    private SnapshotFile open(YearMonth month, String name) {
+        Entry entry = manifest(month).files().get(name);
+        if (entry == null) {
+            return null;
+        }
+        Path path = dir(month).resolve(name);
+        MappedByteBuffer buffer = mapped.computeIfAbsent(path, this::map);
+        if (buffer == null) {
+            return null;
+        }
+        return new SnapshotFile(buffer.asReadOnlyBuffer(), "\"" + entry.sha256() + "\"", entry.contentType(), entry.size());
+    }
+
+    private MappedByteBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(YearMonth month, String name, Content content, String watermark) {
+        Path dir = dir(month);
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, name, ".part");
+            try {
+                Files.write(tmp, content.data());
+                Files.move(tmp, dir.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        mapped.remove(dir.resolve(name));
+        Map<String, Entry> files = new HashMap<>(manifest(month).files());
+        files.put(name, new Entry(sha256(content.data()), content.data().length, content.contentType(), watermark,
+                Instant.now().toString()));
+        saveManifest(month, new Manifest(month.toString(), files));
+    }
+
+    private void delete(YearMonth month, String name) {
+        Path path = dir(month).resolve(name);
+        mapped.remove(path);
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete month snapshot file {}.", path, e);
+        }
+    }
+
+    private Manifest manifest(YearMonth month) {
+        return manifests.computeIfAbsent(month, m -> {
+            Path path = dir(m).resolve(MANIFEST);
+            try {
+                return objectMapper.readValue(path.toFile(), Manifest.class);
+            } catch (IOException e) {
+                // 없거나 깨졌으면 빈 manifest 로 시작한다 (파일은 다시 만들어진다).
+                return new Manifest(m.toString(), Map.of());
+            }
+        });
+    }
+
+    private void saveManifest(YearMonth month, Manifest manifest) {
+        Path dir = dir(month);
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, MANIFEST, ".part");
+            try {
+                objectMapper.writeValue(tmp.toFile(), manifest);
+                Files.move(tmp, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        manifests.put(month, manifest);
+    }
+
+    private Path dir(YearMonth month) {
+        return root.resolve(month.toString());
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 새로 만들 스냅샷 내용.
+     */
+    public record Content(byte[] data, String contentType) {}
+
+    public record SnapshotFile(ByteBuffer data, String etag, String contentType, long size) {}
+
+    private record Built(String watermark, Content content) {}
+
+    record Manifest(String month, Map<String, Entry> files) {}
+
+    record Entry(String sha256, long size, String contentType, String watermark, String createdAt) {}
+}
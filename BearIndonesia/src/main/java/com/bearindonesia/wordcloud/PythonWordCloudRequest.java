@@ -0,0 +1,6 @@
+package com.bearindonesia.wordcloud;
+
+import java.util.Map;
+
+public record PythonWordCloudRequest(String startDate, String endDate, Map<String, Double> frequencies) {
+}
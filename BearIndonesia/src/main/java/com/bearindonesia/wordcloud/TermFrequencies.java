@@ -0,0 +1,9 @@
+package com.bearindonesia.wordcloud;
+
+import java.util.List;
+
+/**
+ * 기간 용어 빈도. complete 가 false 면 아직 집계하지 않은 날이 백그라운드에서 만들어지는 중이라 빠져 있다.
+ */
+public record TermFrequencies(List<TermFrequency> terms, boolean complete) {
+}
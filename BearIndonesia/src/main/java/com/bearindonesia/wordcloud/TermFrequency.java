@@ -0,0 +1,4 @@
+package com.bearindonesia.wordcloud;
+
+public record TermFrequency(String term, int count, double weight) {
+}
@@ -0,0 +1,325 @@
+package com.bearindonesia.wordcloud;
+
+import com.bearindonesia.ingest.IngestEvent;
+import com.bearindonesia.service.KeywordNormalizer;
+import jakarta.annotation.PreDestroy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 기간별 용어 빈도 엔진.
+ * 일 단위로 term_daily_counts 에 미리 집계해 두고, 요청 기간은 일별 집계를 합산만 한다.
+ * 일별 집계는 (기사 수, 최대 article_view.id, 최대 refreshed_at) 워터마크가 바뀐 날만 다시 만든다.
+ * refreshed_at 은 기사가 다시 계산될 때마다 바뀌므로 기존 기사의 태그 수정도 잡힌다.
+ * 조회 요청은 한 번도 집계하지 않은 날을 최근 날부터 inline-build-days 개까지만 그 자리에서 만들고, 나머지는
+ * 백그라운드에 맡긴 채 complete=false 로 답한다. 워터마크가 어긋난 날은 백그라운드 스레드에 맡기고 지난 집계로 바로 답한다. IngestEvent 가 가리킨 날도 요청을 기다리지 않고 백그라운드에서 다시 만든다.
+ */
+@Service
+public class TermFrequencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(TermFrequencyService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor rebuilder;
+    private final int inlineBuildDays;
+    private final Set<LocalDate> queued = ConcurrentHashMap.newKeySet();
+
+    public TermFrequencyService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${wordcloud.terms.rebuild-queue:256}") int rebuildQueue,
+            @Value("${wordcloud.terms.inline-build-days:7}") int inlineBuildDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.inlineBuildDays = Math.max(0, inlineBuildDays);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuilder = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, rebuildQueue)),
+                r -> {
+                    Thread t = new Thread(r, "term-rebuilder");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public TermFrequencies frequencies(LocalDate start, LocalDate end, int limit) {
+        boolean complete = refreshStaleDays(start, end);
+        List<TermFrequency> terms = jdbcTemplate.query(
+                """
+                SELECT MIN(display) AS display, SUM(doc_count) AS cnt, SUM(weight) AS weight
+                FROM term_daily_counts
+                WHERE day BETWEEN ? AND ?
+                GROUP BY term
+                ORDER BY weight DESC, cnt DESC, term
+                LIMIT ?
+                """,
+                (rs, rowNum) -> new TermFrequency(
+                        rs.getString("display"),
+                        rs.getInt("cnt"),
+                        Math.round(rs.getDouble("weight") * 10.0) / 10.0
+                ),
+                Date.valueOf(start),
+                Date.valueOf(end),
+                limit
+        );
+        return new TermFrequencies(terms, complete);
+    }
+
+    /**
+     * 이벤트가 가리킨 날은 모두 백그라운드에서 다시 만든다.
+     * resync 면 dates 밖에도 바뀐 날이 있을 수 있으니, 이미 집계한 날 중 워터마크가 어긋난 날을 한 번에 찾아 함께 올린다.
+     */
+    @EventListener
+    public void onIngest(IngestEvent event) {
+        for (LocalDate day : event.dates()) {
+            rebuildInBackground(day);
+        }
+        if (event.resync()) {
+            try {
+                staleBuiltDays().forEach(this::rebuildInBackground);
+            } catch (RuntimeException e) {
+                log.warn("Failed to look for stale term counts after ingest resync.", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private DayWatermark currentWatermark(LocalDate day) {
+        return jdbcTemplate.queryForObject(
+                """
+                SELECT COUNT(*) AS cnt, MAX(a.id) AS max_id, MAX(a.refreshed_at) AS max_refreshed_at
+                FROM article_view a
+                WHERE a.published_date = ?
+                """,
+                (rs, rowNum) -> rs.getInt("cnt") == 0 ? null : watermark(rs, "cnt", "max_id", "max_refreshed_at"),
+                Date.valueOf(day)
+        );
+    }
+
+    private List<LocalDate> staleBuiltDays() {
+        return jdbcTemplate.query(
+                """
+                SELECT w.day
+                FROM term_daily_watermarks w
+                LEFT JOIN (
+                    SELECT a.published_date AS day, COUNT(*) AS cnt, MAX(a.id) AS max_id, MAX(a.refreshed_at) AS max_refreshed_at
+                    FROM article_view a
+                    WHERE a.published_date IN (SELECT day FROM term_daily_watermarks)
+                    GROUP BY a.published_date
+                ) v ON v.day = w.day
+                WHERE v.day IS NULL
+                   OR v.cnt <> w.article_count
+                   OR v.max_id <> w.max_processed_id
+                   OR v.max_refreshed_at IS DISTINCT FROM w.max_refreshed_at
+                ORDER BY w.day DESC
+                """,
+                (rs, rowNum) -> rs.getDate("day").toLocalDate()
+        );
+    }
+
+    private static DayWatermark watermark(ResultSet rs, String count, String maxId, String maxRefreshedAt) throws SQLException {
+        OffsetDateTime refreshed = rs.getObject(maxRefreshedAt, OffsetDateTime.class);
+        return new DayWatermark(rs.getInt(count), rs.getLong(maxId), refreshed == null ? null : refreshed.toInstant());
+    }
+
+    /**
+     * 같은 날은 한 번만 대기열에 올린다. 대기열이 가득 차면 버리고 다음 조회 때 다시 올린다.
+     * 시작하면서 표시를 지우므로, 다시 만드는 중에 들어온 변경은 한 번 더 올라간다.
+     */
+    private void rebuildInBackground(LocalDate day) {
+        if (!queued.add(day)) {
+            return;
+        }
+        try {
+            rebuilder.execute(() -> {
+                queued.remove(day);
+                try {
+                    rebuildDay(day, currentWatermark(day));
+                } catch (RuntimeException e) {
+                    log.warn("Background term count rebuild for {} failed.", day, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(day);
+        }
+    }
+
+    /**
+     * 한 번도 집계하지 않은 날이 모두 만들어졌으면 true.
+     */
+    private boolean refreshStaleDays(LocalDate start, LocalDate end) {
+        Map<LocalDate, DayWatermark> current = new HashMap<>();
+        jdbcTemplate.query(
+                """
+                SELECT a.published_date AS day, COUNT(*) AS cnt, MAX(a.id) AS max_id, MAX(a.refreshed_at) AS max_refreshed_at
+                FROM article_view a
+                WHERE a.published_date BETWEEN ? AND ?
+                GROUP BY a.published_date
+                """,
+                rs -> {
+                    current.put(rs.getDate("day").toLocalDate(), watermark(rs, "cnt", "max_id", "max_refreshed_at"));
+                },
+                Date.valueOf(start),
+                Date.valueOf(end)
+        );
+
+        Map<LocalDate, DayWatermark> built = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT day, article_count, max_processed_id, max_refreshed_at FROM term_daily_watermarks WHERE day BETWEEN ? AND ?",
+                rs -> {
+                    built.put(rs.getDate("day").toLocalDate(), watermark(rs, "article_count", "max_processed_id", "max_refreshed_at"));
+                },
+                Date.valueOf(start),
+                Date.valueOf(end)
+        );
+
+        Set<LocalDate> days = new HashSet<>(current.keySet());
+        days.addAll(built.keySet());
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate day : days) {
+            DayWatermark now = current.get(day);
+            DayWatermark then = built.get(day);
+            if (Objects.equals(now, then)) {
+                continue;
+            }
+            if (then == null) {
+                missing.add(day);
+            } else {
+                rebuildInBackground(day);
+            }
+        }
+        // 집계가 아예 없는 날은 빈 결과가 되므로 최근 날부터 몇 개는 기다려서 만든다. 긴 기간의 첫 요청이 날 수만큼 걸리지 않게 나머지는 뒤로 미룬다.
+        missing.sort(Comparator.reverseOrder());
+        for (int i = 0; i < missing.size(); i++) {
+            LocalDate day = missing.get(i);
+            if (i < inlineBuildDays) {
+                rebuildDay(day, current.get(day));
+            } else {
+                rebuildInBackground(day);
+            }
+        }
+        return missing.size() <= inlineBuildDays;
+    }
+
+    private void rebuildDay(LocalDate day, DayWatermark watermark) {
+        List<ArticleTags> rows = jdbcTemplate.query(
+                """
+                SELECT a.tag_names, a.importance
+                FROM article_view a
+                WHERE a.published_date = ?
+                  AND cardinality(a.tag_names) > 0
+                """,
+                (rs, rowNum) -> {
+                    Object imp = rs.getObject("importance");
+                    return new ArticleTags(rs.getArray("tag_names").getArray(), imp == null ? null : ((Number) imp).intValue());
+                },
+                Date.valueOf(day)
+        );
+
+        Map<String, TermCount> counts = new HashMap<>();
+        for (ArticleTags row : rows) {
+            double articleWeight = 1.0 + (row.importance() == null ? 0.0 : Math.min(1.0, row.importance() / 100.0));
+            Set<String> unique = new HashSet<>(KeywordNormalizer.parseTags(row.tags()));
+            Set<String> seen = new HashSet<>();
+            for (String tag : unique) {
+                if (!KeywordNormalizer.isMeaningfulKeyword(tag)) continue;
+                String normalized = KeywordNormalizer.normalizeKeyword(tag);
+                if (!seen.add(normalized)) continue;
+                TermCount c = counts.computeIfAbsent(normalized, k -> new TermCount(tag.trim()));
+                c.count++;
+                c.weight += articleWeight;
+            }
+        }
+
+        List<Object[]> batch = new ArrayList<>(counts.size());
+        for (Map.Entry<String, TermCount> e : counts.entrySet()) {
+            batch.add(new Object[] { Date.valueOf(day), e.getKey(), e.getValue().display, e.getValue().count, e.getValue().weight });
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM term_daily_counts WHERE day = ?", Date.valueOf(day));
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        """
+                        INSERT INTO term_daily_counts (day, term, display, doc_count, weight)
+                        VALUES (?, ?, ?, ?, ?)
+                        ON CONFLICT (day, term) DO UPDATE
+                        SET display = EXCLUDED.display, doc_count = EXCLUDED.doc_count, weight = EXCLUDED.weight
+                        """,
+                        batch
+                );
+            }
+            if (watermark == null) {
+                jdbcTemplate.update("DELETE FROM term_daily_watermarks WHERE day = ?", Date.valueOf(day));
+            } else {
+                jdbcTemplate.update(
+                        """
+                        INSERT INTO term_daily_watermarks (day, article_count, max_processed_id, max_refreshed_at, built_at)
+                        VALUES (?, ?, ?, ?, now())
+                        ON CONFLICT (day) DO UPDATE
+                        SET article_count = EXCLUDED.article_count,
+                            max_processed_id = EXCLUDED.max_processed_id,
+                            max_refreshed_at = EXCLUDED.max_refreshed_at,
+                            built_at = now()
+                        """,
+                        Date.valueOf(day),
+                        watermark.articleCount(),
+                        watermark.maxProcessedId(),
+                        watermark.maxRefreshedAt() == null ? null : OffsetDateTime.ofInstant(watermark.maxRefreshedAt(), ZoneOffset.UTC)
+                );
+            }
+        });
+        log.debug("Rebuilt term counts for {} ({} terms).", day, batch.size());
+    }
+
+    private record DayWatermark(int articleCount, long maxProcessedId, Instant maxRefreshedAt) {}
+
+    private record ArticleTags(Object tags, Integer importance) {}
+
+    private static class TermCount {
+        final String display;
+        int count;
+        double weight;
+
+        TermCount(String display) {
+            this.display = display;
+        }
+    }
+}
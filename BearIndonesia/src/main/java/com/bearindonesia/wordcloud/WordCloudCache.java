@@ -0,0 +1,308 @@
+package com.bearindonesia.wordcloud;
+
+import com.bearindonesia.ingest.IngestEvent;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 워드클라우드 PNG 2단 캐시 (힙 LRU + 디스크).
+ * 힙은 기간으로 찾으므로 적중하면 DB 를 보지 않는다. 기간에 걸친 IngestEvent 가 오면 그 항목을 버리고,
+ * 리스너가 꺼져 있을 때를 대비해 memory-ttl-ms 가 지나도 워터마크를 다시 확인한다.
+ * 디스크는 기간과 데이터 워터마크로 만든 키의 SHA-256 을 파일명으로 쓴다.
+ * 같은 키로 동시에 들어온 요청은 한 번만 렌더링한다.
+ */
+@Component
+public class WordCloudCache {
+
+    private static final Logger log = LoggerFactory.getLogger(WordCloudCache.class);
+    private static final String FILE_SUFFIX = ".png";
+
+    private final int memoryEntries;
+    private final long maxDiskBytes;
+    private final Path directory;
+    private final long memoryTtlMillis;
+    private final Map<String, Entry> memory;
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final Object diskLock = new Object();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public WordCloudCache(
+            @Value("${wordcloud.cache.memory-entries:64}") int memoryEntries,
+            @Value("${wordcloud.cache.max-disk-bytes:268435456}") long maxDiskBytes,
+            @Value("${wordcloud.cache.dir:data/wordcloud-cache}") String directory,
+            @Value("${wordcloud.cache.memory-ttl-ms:300000}") long memoryTtlMillis
+    ) {
+        this.memoryEntries = Math.max(1, memoryEntries);
+        this.memoryTtlMillis = Math.max(0, memoryTtlMillis);
+        this.maxDiskBytes = Math.max(0, maxDiskBytes);
+        this.directory = Path.of(directory);
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > WordCloudCache.this.memoryEntries;
+            }
+        };
+        initDirectory();
+    }
+
+    /**
+     * watermark 는 힙에서 못 찾았을 때만 부른다.
+     * 워터마크를 읽은 뒤 적재 이벤트가 오면 결과는 돌려주되 힙에는 확인된 것으로 남기지 않는다.
+     */
+    public byte[] getOrRender(LocalDate start, LocalDate end, Supplier<String> watermark, Supplier<byte[]> renderer) {
+        String range = start + ":" + end;
+        long now = System.currentTimeMillis();
+        Entry entry = getFromMemory(range);
+        if (entry != null && (memoryTtlMillis == 0 || now - entry.checkedAt() < memoryTtlMillis)) {
+            memoryHits.increment();
+            return entry.body();
+        }
+
+        long seen = generation.get();
+        String key = range + ":" + watermark.get();
+        if (entry != null && entry.key().equals(key)) {
+            memoryHits.increment();
+            putInMemory(range, entry.checked(now), seen);
+            return entry.body();
+        }
+        byte[] cached = readFromDisk(key);
+        if (cached != null) {
+            diskHits.increment();
+            putInMemory(range, new Entry(key, start, end, cached, now), seen);
+            return cached;
+        }
+
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        try {
+            renders.increment();
+            byte[] body = renderer.get();
+            putInMemory(range, new Entry(key, start, end, body, now), seen);
+            writeToDisk(key, body);
+            mine.complete(body);
+            return body;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 바뀐 날짜가 걸친 기간만 힙에서 버린다. 날짜를 다 모르는 resync 면 힙을 비운다.
+     * 디스크는 워터마크가 키에 들어 있어 그대로 둔다.
+     */
+    @EventListener
+    public void onIngest(IngestEvent event) {
+        if (event.resync()) {
+            invalidateAll();
+            return;
+        }
+        synchronized (memory) {
+            generation.incrementAndGet();
+            memory.values().removeIf(e -> event.dates().stream().anyMatch(e::covers));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (memory) {
+            generation.incrementAndGet();
+            memory.clear();
+        }
+    }
+
+    public WordCloudCacheStats stats() {
+        int entries;
+        synchronized (memory) {
+            entries = memory.size();
+        }
+        return new WordCloudCacheStats(
+                memoryHits.sum(),
+                diskHits.sum(),
+                renders.sum(),
+                coalesced.sum(),
+                entries,
+                diskBytes.get()
+        );
+    }
+
+    private Entry getFromMemory(String range) {
+        synchronized (memory) {
+            return memory.get(range);
+        }
+    }
+
+    private void putInMemory(String range, Entry entry, long seen) {
+        synchronized (memory) {
+            if (generation.get() == seen) {
+                memory.put(range, entry);
+            }
+        }
+    }
+
+    private byte[] readFromDisk(String key) {
+        if (maxDiskBytes == 0) {
+            return null;
+        }
+        Path file = fileFor(key);
+        try {
+            byte[] body = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return body;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read cached word cloud {}.", file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, byte[] body) {
+        if (maxDiskBytes == 0 || body.length > maxDiskBytes) {
+            return;
+        }
+        Path file = fileFor(key);
+        try {
+            Path tmp = Files.createTempFile(directory, "wc-", ".tmp");
+            Files.write(tmp, body);
+            // 같은 키의 파일을 덮어쓰면 그 크기는 이미 세어 두었으니 빼고 더한다.
+            long replaced = sizeSafe(file);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            diskBytes.addAndGet(body.length - replaced);
+            evictDiskIfNeeded();
+        } catch (IOException e) {
+            log.warn("Failed to write word cloud cache file {}.", file, e);
+        }
+    }
+
+    private void evictDiskIfNeeded() throws IOException {
+        if (diskBytes.get() <= maxDiskBytes) {
+            return;
+        }
+        synchronized (diskLock) {
+            List<Path> files = listCacheFiles();
+            files.sort(Comparator.comparingLong(WordCloudCache::lastModifiedSafe));
+            long total = 0;
+            for (Path f : files) {
+                total += sizeSafe(f);
+            }
+            for (Path f : files) {
+                if (total <= maxDiskBytes) {
+                    break;
+                }
+                long size = sizeSafe(f);
+                if (Files.deleteIfExists(f)) {
+                    total -= size;
+                }
+            }
+            diskBytes.set(total);
+        }
+    }
+
+    private void initDirectory() {
+        try {
+            Files.createDirectories(directory);
+            long total = 0;
+            for (Path f : listCacheFiles()) {
+                total += sizeSafe(f);
+            }
+            diskBytes.set(total);
+        } catch (IOException e) {
+            log.warn("Word cloud cache directory {} is not usable.", directory, e);
+        }
+    }
+
+    private List<Path> listCacheFiles() throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return new ArrayList<>(stream.filter(p -> p.getFileName().toString().endsWith(FILE_SUFFIX)).toList());
+        }
+    }
+
+    private Path fileFor(String key) {
+        return directory.resolve(sha256(key) + FILE_SUFFIX);
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    private static long lastModifiedSafe(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static long sizeSafe(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String key, LocalDate start, LocalDate end, byte[] body, long checkedAt) {
+
+        boolean covers(LocalDate day) {
+            return !day.isBefore(start) && !day.isAfter(end);
+        }
+
+        Entry checked(long now) {
+            return new Entry(key, start, end, body, now);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.bearindonesia.wordcloud;
+
+public record WordCloudCacheStats(
+        long memoryHits,
+        long diskHits,
+        long renders,
+        long coalesced,
+        int memoryEntries,
+        long diskBytes
+) {}
@@ -1,5 +1,10 @@
 package com.bearindonesia.wordcloud;
 
+import com.bearindonesia.auth.ServiceBusyException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
@@ -7,6 +12,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -15,22 +21,75 @@ public class WordCloudService {
 
     private final RestTemplate restTemplate;
     private final String pythonBaseUrl;
+    private final JdbcTemplate jdbcTemplate;
+    private final WordCloudCache cache;
+    private final TermFrequencyService termFrequencyService;
+    private final int termLimit;
 
     public WordCloudService(
             RestTemplateBuilder restTemplateBuilder,
-            @Value("${wordcloud.python.base-url}") String pythonBaseUrl
+            @Value("${wordcloud.python.base-url}") String pythonBaseUrl,
+            @Value("${wordcloud.terms.limit:200}") int termLimit,
+            JdbcTemplate jdbcTemplate,
+            WordCloudCache cache,
+            TermFrequencyService termFrequencyService
     ) {
         this.restTemplate = restTemplateBuilder.build();
         this.pythonBaseUrl = pythonBaseUrl;
+        this.termLimit = Math.max(1, termLimit);
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = cache;
+        this.termFrequencyService = termFrequencyService;
     }
 
     public byte[] generate(WordCloudRequest request) {
+        LocalDate start = LocalDate.parse(request.startDate());
+        LocalDate end = LocalDate.parse(request.endDate());
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("종료일은 시작일 이후여야 합니다.");
+        }
+        WordCloudRequest normalized = new WordCloudRequest(start.toString(), end.toString());
+        return cache.getOrRender(start, end, () -> watermark(start, end), () -> render(normalized));
+    }
+
+    /**
+     * 기사 수와 최대 id 만으로는 기존 기사의 태그 수정을 못 잡으므로 최대 refreshed_at 도 넣는다.
+     */
+    private String watermark(LocalDate start, LocalDate end) {
+        return jdbcTemplate.queryForObject(
+                """
+                SELECT COUNT(*) AS cnt, COALESCE(MAX(a.id), 0) AS max_id,
+                       COALESCE(EXTRACT(EPOCH FROM MAX(a.refreshed_at)) * 1000000, 0)::bigint AS max_refreshed_at
+                FROM article_view a
+                WHERE a.published_date BETWEEN ? AND ?
+                """,
+                (rs, rowNum) -> rs.getLong("cnt") + "-" + rs.getLong("max_id") + "-" + rs.getLong("max_refreshed_at"),
+                Date.valueOf(start),
+                Date.valueOf(end)
+        );
+    }
+
+    private byte[] render(WordCloudRequest request) {
+        LocalDate start = LocalDate.parse(request.startDate());
+        LocalDate end = LocalDate.parse(request.endDate());
+        TermFrequencies terms = termFrequencyService.frequencies(start, end, termLimit);
+        if (!terms.complete()) {
+            // 빠진 날이 있는 그림을 캐시에 남기지 않는다.
+            throw new ServiceBusyException("워드클라우드 집계를 준비하고 있습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        Map<String, Double> frequencies = new LinkedHashMap<>();
+        for (TermFrequency t : terms.terms()) {
+            frequencies.merge(t.term(), t.weight(), Double::sum);
+        }
         String url = pythonBaseUrl.endsWith("/")
                 ? pythonBaseUrl + "wordcloud"
                 : pythonBaseUrl + "/wordcloud";
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<WordCloudRequest> entity = new HttpEntity<>(request, headers);
+        HttpEntity<PythonWordCloudRequest> entity = new HttpEntity<>(
+                new PythonWordCloudRequest(request.startDate(), request.endDate(), frequencies),
+                headers
+        );
         ResponseEntity<byte[]> response = restTemplate.exchange(url, HttpMethod.POST, entity, byte[].class);
         byte[] body = response.getBody();
         if (body == null || body.length == 0) {
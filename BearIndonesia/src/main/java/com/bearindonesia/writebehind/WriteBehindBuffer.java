@@ -0,0 +1,115 @@
+package com.bearindonesia.writebehind;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 키별로 값을 합쳐 두었다가 한 번에 쓰는 write-behind 버퍼.
+ * 같은 키로 여러 번 들어오면 merge 로 합치므로 대기 중인 항목 수는 키 수를 넘지 않는다.
+ * 쓰기에 실패한 배치는 버퍼로 되돌려 다음 flush 에서 다시 시도한다.
+ * put 은 호출한 스레드에서 쓰지 않는다. 절반이 차면 flusher 에 flush 를 요청하고,
+ * 가득 찬 상태에서 새 키가 들어오면 버리고 dropped 로 센다 (이미 있는 키는 계속 합친다).
+ */
+public final class WriteBehindBuffer<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    private final String name;
+    private final BinaryOperator<V> merge;
+    private final Consumer<Map<K, V>> writer;
+    private final int maxPending;
+    private final Executor flusher;
+    private final ConcurrentHashMap<K, V> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    WriteBehindBuffer(String name, BinaryOperator<V> merge, Consumer<Map<K, V>> writer, int maxPending, Executor flusher) {
+        this.name = name;
+        this.merge = merge;
+        this.writer = writer;
+        this.maxPending = Math.max(1, maxPending);
+        this.flusher = flusher;
+    }
+
+    public void put(K key, V value) {
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            dropped.increment();
+            requestFlush();
+            return;
+        }
+        pending.merge(key, value, merge);
+        enqueued.increment();
+        if (pending.size() * 2 >= maxPending) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * 이미 요청이 걸려 있으면 다시 걸지 않는다. flusher 가 거절하면 다음 주기 flush 에 맡긴다.
+     */
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            flushRequested.set(false);
+        }
+    }
+
+    public int flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            Map<K, V> batch = new HashMap<>();
+            for (K key : pending.keySet()) {
+                V value = pending.remove(key);
+                if (value != null) {
+                    batch.put(key, value);
+                }
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                writer.accept(batch);
+                written.add(batch.size());
+                flushes.increment();
+                return batch.size();
+            } catch (RuntimeException e) {
+                failures.increment();
+                batch.forEach((k, v) -> pending.merge(k, v, merge));
+                log.warn("Write-behind flush for {} failed ({} entries kept for retry).", name, batch.size(), e);
+                return 0;
+            }
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public WriteBehindStats stats() {
+        return new WriteBehindStats(name, pending.size(), enqueued.sum(), written.sum(), flushes.sum(), failures.sum(), dropped.sum());
+    }
+}
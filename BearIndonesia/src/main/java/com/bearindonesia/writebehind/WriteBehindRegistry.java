@@ -0,0 +1,60 @@
+package com.bearindonesia.writebehind;
+
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * write-behind 버퍼를 만들고 주기적으로(그리고 종료 시) 모두 flush 한다.
+ * last_login_at 처럼 자주 일어나지만 몇 초 늦어도 되는 쓰기에 쓴다.
+ * 버퍼가 차서 들어온 flush 요청은 전용 스레드 하나에서 돌린다 (요청 스레드와 스케줄러 스레드를 막지 않는다).
+ */
+@Component
+public class WriteBehindRegistry {
+
+    private final int maxPending;
+    private final List<WriteBehindBuffer<?, ?>> buffers = new CopyOnWriteArrayList<>();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "write-behind-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public WriteBehindRegistry(@Value("${writebehind.max-pending:10000}") int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    public <K, V> WriteBehindBuffer<K, V> register(String name, BinaryOperator<V> merge, Consumer<Map<K, V>> writer) {
+        WriteBehindBuffer<K, V> buffer = new WriteBehindBuffer<>(name, merge, writer, maxPending, flusher);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    @Scheduled(
+            initialDelayString = "${writebehind.flush-ms:5000}",
+            fixedDelayString = "${writebehind.flush-ms:5000}"
+    )
+    public void flushAll() {
+        for (WriteBehindBuffer<?, ?> buffer : buffers) {
+            buffer.flush();
+        }
+    }
+
+    public List<WriteBehindStats> stats() {
+        return buffers.stream().map(WriteBehindBuffer::stats).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flushAll();
+    }
+}
@@ -0,0 +1,3 @@
+package com.bearindonesia.writebehind;
+
+public record WriteBehindStats(String name, int pending, long enqueued, long written, long flushes, long failures, long dropped) {}
@@ -0,0 +1,2 @@
+-- 실패하거나 멈춘 매출 리포트 작업은 바로 다시 잡지 않고 이 시각 이후에 재시도한다.
+ALTER TABLE sales_reports ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMPTZ;
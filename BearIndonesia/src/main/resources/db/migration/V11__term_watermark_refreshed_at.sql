@@ -0,0 +1,2 @@
+-- 기사 수와 최대 id 로는 기존 기사의 태그 수정이 안 보이므로, 집계 당시의 MAX(article_view.refreshed_at) 도 워터마크에 넣는다.
+ALTER TABLE term_daily_watermarks ADD COLUMN IF NOT EXISTS max_refreshed_at TIMESTAMPTZ;
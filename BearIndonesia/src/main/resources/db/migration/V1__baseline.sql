@@ -0,0 +1,69 @@
+-- 크롤러/파이프라인이 만들어 온 기존 테이블의 기준 스키마.
+-- 운영 DB 에는 이미 있으므로 IF NOT EXISTS 로 건너뛰고, 새 환경에서는 이 파일이 테이블을 만든다.
+CREATE TABLE IF NOT EXISTS raw_news (
+    id BIGSERIAL PRIMARY KEY,
+    title TEXT,
+    content TEXT,
+    link TEXT,
+    img TEXT,
+    source TEXT,
+    keyword TEXT,
+    published_date DATE
+);
+
+CREATE TABLE IF NOT EXISTS processed_news (
+    id BIGSERIAL PRIMARY KEY,
+    raw_news_id BIGINT NOT NULL REFERENCES raw_news (id),
+    kor_title TEXT,
+    kor_summary TEXT,
+    kor_content TEXT,
+    id_summary TEXT,
+    category TEXT,
+    eng_category TEXT,
+    keyword TEXT,
+    tags JSONB,
+    importance INTEGER,
+    insight TEXT,
+    semantic_confidence REAL,
+    tag_mismatch BOOLEAN,
+    category_mismatch BOOLEAN,
+    is_pharma_related BOOLEAN
+);
+
+CREATE TABLE IF NOT EXISTS users_info (
+    id BIGSERIAL PRIMARY KEY,
+    username TEXT NOT NULL UNIQUE,
+    name TEXT NOT NULL,
+    password_hash TEXT NOT NULL,
+    role TEXT NOT NULL DEFAULT 'USER',
+    created_at TIMESTAMPTZ DEFAULT now(),
+    last_login_at TIMESTAMPTZ
+);
+
+CREATE TABLE IF NOT EXISTS user_scrap (
+    user_id BIGINT NOT NULL REFERENCES users_info (id),
+    raw_news_id BIGINT NOT NULL REFERENCES raw_news (id),
+    comment TEXT,
+    created_at TIMESTAMPTZ DEFAULT now(),
+    PRIMARY KEY (user_id, raw_news_id)
+);
+
+CREATE TABLE IF NOT EXISTS sales_reports (
+    id BIGSERIAL PRIMARY KEY,
+    title TEXT NOT NULL,
+    original_filename TEXT,
+    file_blob BYTEA NOT NULL,
+    html TEXT NOT NULL,
+    created_by_user_id BIGINT REFERENCES users_info (id),
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS newsletter_monthly (
+    year INTEGER NOT NULL,
+    month INTEGER NOT NULL,
+    html TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (year, month)
+);
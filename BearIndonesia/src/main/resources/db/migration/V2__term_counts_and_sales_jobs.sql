@@ -0,0 +1,37 @@
+-- 워드클라우드 용어 빈도 일별 사전 집계
+CREATE TABLE IF NOT EXISTS term_daily_counts (
+    day DATE NOT NULL,
+    term TEXT NOT NULL,
+    display TEXT NOT NULL,
+    doc_count INTEGER NOT NULL,
+    weight DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (day, term)
+);
+
+CREATE TABLE IF NOT EXISTS term_daily_watermarks (
+    day DATE PRIMARY KEY,
+    article_count INTEGER NOT NULL,
+    max_processed_id BIGINT NOT NULL,
+    built_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- 매출 리포트 비동기 생성 상태
+ALTER TABLE sales_reports ADD COLUMN IF NOT EXISTS status TEXT NOT NULL DEFAULT 'READY';
+ALTER TABLE sales_reports ADD COLUMN IF NOT EXISTS error_message TEXT;
+ALTER TABLE sales_reports ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE sales_reports ADD COLUMN IF NOT EXISTS insights_language TEXT;
+ALTER TABLE sales_reports ALTER COLUMN html DROP NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_sales_reports_open_jobs
+    ON sales_reports (status, updated_at)
+    WHERE status IN ('PENDING', 'PROCESSING');
+
+-- 매출 리포트 업로드 중복 제거 (내용 해시 + 참조)
+ALTER TABLE sales_reports ADD COLUMN IF NOT EXISTS file_sha256 TEXT;
+ALTER TABLE sales_reports ADD COLUMN IF NOT EXISTS source_report_id BIGINT REFERENCES sales_reports (id);
+ALTER TABLE sales_reports ALTER COLUMN file_blob DROP NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_sales_reports_sha256
+    ON sales_reports (file_sha256, insights_language)
+    WHERE source_report_id IS NULL;
+
+-- 매출 원본 파일은 blob 저장소에 두고 키만 보관한다 (file_blob 은 이전 데이터용)
+ALTER TABLE sales_reports ADD COLUMN IF NOT EXISTS blob_key TEXT;
@@ -0,0 +1,2 @@
+-- 부분 문자열 검색(LIKE '%...%')용 trigram 인덱스에 필요하다.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
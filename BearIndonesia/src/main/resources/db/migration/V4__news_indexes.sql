@@ -0,0 +1,23 @@
+-- 기사/스크랩 조회용 인덱스. 운영 테이블을 잠그지 않도록 CONCURRENTLY 로 만든다 (V4__news_indexes.sql.conf 참고).
+-- 인덱스 식은 ArticleService / ReportService 의 WHERE 식과 글자 그대로 같아야 플래너가 쓴다.
+
+-- 기간 조회(published_date BETWEEN)와 최신순 정렬
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_raw_news_published_date
+    ON raw_news (published_date DESC, id);
+
+-- 제약 관련 기사만: raw_news 조인과 중요도순 정렬
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_processed_news_pharma_raw
+    ON processed_news (raw_news_id)
+    INCLUDE (importance)
+    WHERE is_pharma_related IS TRUE;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_processed_news_pharma_importance
+    ON processed_news (importance DESC NULLS LAST, id DESC)
+    WHERE is_pharma_related IS TRUE;
+
+-- 검색어 부분 일치(trigram) 인덱스는 여기서 만들지 않는다. V5 가 이 테이블들을 파티션 테이블로 바꾸며 지우고,
+-- 검색은 article_view(V6)의 trigram 인덱스 세 개가 맡는다.
+
+-- 사용자별 스크랩 목록 (최신순)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_scrap_user_created
+    ON user_scrap (user_id, created_at DESC);
@@ -0,0 +1,281 @@
+-- raw_news / processed_news 를 published_date 기준 월 단위 RANGE 파티션으로 바꾼다.
+-- 기존 테이블은 *_unpartitioned 로 이름을 바꾼 뒤 데이터를 옮기고 지운다. 행 수가 많으면 점검 시간에 돌린다.
+-- published_date 가 NULL 이거나 파티션이 없는 달의 행은 *_default 파티션으로 간다.
+-- UNIQUE NULLS NOT DISTINCT 를 쓰므로 PostgreSQL 15 이상이 필요하다 (운영/테스트는 16).
+
+DO $$
+BEGIN
+    IF current_setting('server_version_num')::int < 150000 THEN
+        RAISE EXCEPTION 'V5 needs PostgreSQL 15 or newer (UNIQUE NULLS NOT DISTINCT), found %', version();
+    END IF;
+END $$;
+
+-- processed_news 에도 파티션 키를 둔다 (raw_news.published_date 의 복사본).
+ALTER TABLE processed_news ADD COLUMN IF NOT EXISTS published_date DATE;
+UPDATE processed_news p
+SET published_date = r.published_date
+FROM raw_news r
+WHERE r.id = p.raw_news_id;
+
+-- 파티션 테이블에는 파티션 키가 빠진 PK/UNIQUE 를 둘 수 없어서 raw_news(id) 를 참조하는 FK 는 없앤다.
+-- 대신 아래 트리거가 참조를 검사하고(raw_news_id_exists), 참조가 남은 raw_news 는 지우지 못하게 한다(raw_news_delete_references).
+-- 원래 FK 처럼 NO ACTION 이다: processed_news / user_scrap 을 먼저 지워야 한다.
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN
+        SELECT conrelid::regclass AS tbl, conname
+        FROM pg_constraint
+        WHERE contype = 'f' AND confrelid = 'raw_news'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.tbl, fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE raw_news RENAME TO raw_news_unpartitioned;
+ALTER TABLE processed_news RENAME TO processed_news_unpartitioned;
+
+CREATE TABLE raw_news (LIKE raw_news_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (published_date);
+CREATE TABLE processed_news (LIKE processed_news_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (published_date);
+
+-- published_date 가 NULL 일 수 있어서(processed_news 는 NULL 로 들어온 뒤 옮겨진다) PRIMARY KEY 대신
+-- NULL 도 같은 값으로 보는 UNIQUE 로 (id, published_date) 중복을 막는다. 이 인덱스가 id 조회도 맡는다.
+-- 이것만으로는 같은 id 가 다른 달에 들어가는 것을 못 막으므로 아래 news_id_unique 트리거가 id 만으로 한 번 더 검사한다.
+ALTER TABLE raw_news ADD CONSTRAINT raw_news_id_date_key UNIQUE NULLS NOT DISTINCT (id, published_date);
+ALTER TABLE processed_news ADD CONSTRAINT processed_news_id_date_key UNIQUE NULLS NOT DISTINCT (id, published_date);
+
+CREATE TABLE raw_news_default PARTITION OF raw_news DEFAULT;
+CREATE TABLE processed_news_default PARTITION OF processed_news DEFAULT;
+
+-- 월 파티션 생성 (NewsPartitionJob 이 매일 호출). 이미 있는 달은 건너뛰고 새로 만든 테이블 수를 돌려준다.
+-- default 파티션에 그 달 행이 있으면 PARTITION OF 가 실패하므로, 따로 만든 테이블로 그 행들을 옮긴 뒤 ATTACH 한다.
+-- default 파티션에서 직접 지우고 붙이는 것이라 부모에 건 문장 트리거(article_view 동기화, 참조 정리)는 돌지 않는다.
+CREATE OR REPLACE FUNCTION ensure_news_partitions(from_month DATE, to_month DATE) RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    m DATE := date_trunc('month', from_month)::date;
+    last_month DATE := date_trunc('month', to_month)::date;
+    next_month DATE;
+    parent TEXT;
+    part TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE m <= last_month LOOP
+        next_month := (m + INTERVAL '1 month')::date;
+        FOREACH parent IN ARRAY ARRAY['raw_news', 'processed_news'] LOOP
+            part := parent || to_char(m, '"_y"YYYY"m"MM');
+            IF to_regclass(part) IS NULL THEN
+                EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS)', part, parent);
+                EXECUTE format(
+                    'WITH moved AS (DELETE FROM %I WHERE published_date >= %L AND published_date < %L RETURNING *) '
+                        || 'INSERT INTO %I SELECT * FROM moved',
+                    parent || '_default', m, next_month, part
+                );
+                EXECUTE format(
+                    'ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                    parent, part, m, next_month
+                );
+                created := created + 1;
+            END IF;
+        END LOOP;
+        m := next_month;
+    END LOOP;
+    RETURN created;
+END $$;
+
+-- before_month 보다 오래된 월 파티션을 떼어 내고, archive_schema 가 있으면 그 스키마로 옮겨 보관한다.
+-- DETACH 는 DELETE 트리거를 부르지 않으므로 그 달의 article_view 행은 여기서 지운다.
+-- user_scrap 은 보관된 기사를 계속 가리키게 둔다 (새 스크랩만 raw_news_id_exists 가 막는다).
+CREATE OR REPLACE FUNCTION detach_news_partitions(before_month DATE, archive_schema TEXT) RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+    part RECORD;
+    detached INTEGER := 0;
+BEGIN
+    IF archive_schema IS NOT NULL AND archive_schema <> '' THEN
+        EXECUTE format('CREATE SCHEMA IF NOT EXISTS %I', archive_schema);
+    END IF;
+    FOR part IN
+        SELECT c.relname AS name, i.inhparent::regclass AS parent
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent IN ('raw_news'::regclass, 'processed_news'::regclass)
+          AND c.relname ~ '_y[0-9]{4}m[0-9]{2}$'
+          AND to_date(right(c.relname, 8), '"y"YYYY"m"MM') < date_trunc('month', before_month)
+    LOOP
+        EXECUTE format('ALTER TABLE %s DETACH PARTITION %I', part.parent, part.name);
+        IF part.parent = 'processed_news'::regclass THEN
+            DELETE FROM article_view
+            WHERE published_date >= to_date(right(part.name, 8), '"y"YYYY"m"MM')
+              AND published_date < (to_date(right(part.name, 8), '"y"YYYY"m"MM') + INTERVAL '1 month')::date;
+        END IF;
+        IF archive_schema IS NOT NULL AND archive_schema <> '' THEN
+            EXECUTE format('ALTER TABLE %I SET SCHEMA %I', part.name, archive_schema);
+        END IF;
+        detached := detached + 1;
+    END LOOP;
+    RETURN detached;
+END $$;
+
+SELECT ensure_news_partitions(
+    COALESCE((SELECT MIN(published_date) FROM raw_news_unpartitioned), current_date),
+    (current_date + INTERVAL '3 months')::date
+);
+
+INSERT INTO raw_news SELECT * FROM raw_news_unpartitioned;
+INSERT INTO processed_news SELECT * FROM processed_news_unpartitioned;
+
+-- id 시퀀스를 새 테이블로 넘겨야 옛 테이블을 지울 때 같이 지워지지 않는다.
+DO $$
+DECLARE
+    seq TEXT;
+BEGIN
+    seq := pg_get_serial_sequence('raw_news_unpartitioned', 'id');
+    IF seq IS NOT NULL THEN
+        EXECUTE format('ALTER SEQUENCE %s OWNED BY raw_news.id', seq);
+    END IF;
+    seq := pg_get_serial_sequence('processed_news_unpartitioned', 'id');
+    IF seq IS NOT NULL THEN
+        EXECUTE format('ALTER SEQUENCE %s OWNED BY processed_news.id', seq);
+    END IF;
+END $$;
+
+DROP TABLE raw_news_unpartitioned;
+DROP TABLE processed_news_unpartitioned;
+
+-- V4 인덱스를 부모 테이블에 다시 만든다 (파티션마다 자동으로 생긴다).
+-- trigram 인덱스는 부모 테이블에도 두지 않는다. 검색 조회는 모두 article_view 를 읽고, trigram 은 V6 에서 거기에만 한 번 만든다.
+CREATE INDEX idx_raw_news_published_date ON raw_news (published_date DESC, id);
+CREATE INDEX idx_processed_news_pharma_raw
+    ON processed_news (raw_news_id)
+    INCLUDE (importance)
+    WHERE is_pharma_related IS TRUE;
+CREATE INDEX idx_processed_news_pharma_importance
+    ON processed_news (importance DESC NULLS LAST, id DESC)
+    WHERE is_pharma_related IS TRUE;
+
+-- 파이프라인은 processed_news 에 published_date 를 넣지 않는다.
+-- BEFORE 트리거로는 행을 다른 파티션으로 옮길 수 없어서, 문장 단위 AFTER 트리거가 default 파티션에 들어온 행을 채워 옮긴다.
+CREATE OR REPLACE FUNCTION processed_news_route_by_date() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE processed_news p
+    SET published_date = r.published_date
+    FROM raw_news r
+    WHERE p.published_date IS NULL
+      AND p.id IN (SELECT n.id FROM new_rows n WHERE n.published_date IS NULL)
+      AND r.id = p.raw_news_id
+      AND r.published_date IS NOT NULL;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER trg_processed_news_route_by_date
+    AFTER INSERT ON processed_news
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION processed_news_route_by_date();
+
+-- raw_news 의 날짜가 바뀌면 processed_news 도 같은 달 파티션으로 따라간다.
+-- 다른 달로 바뀌면 행이 파티션을 옮겨 가고 이때는 행 단위 AFTER UPDATE 트리거가 불리지 않으므로 문장 트리거로 건다.
+CREATE OR REPLACE FUNCTION raw_news_propagate_date() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE processed_news p
+    SET published_date = n.published_date
+    FROM new_rows n
+    JOIN old_rows o ON o.id = n.id
+    WHERE n.published_date IS DISTINCT FROM o.published_date
+      AND p.raw_news_id = n.id;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER trg_raw_news_propagate_date
+    AFTER UPDATE ON raw_news
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION raw_news_propagate_date();
+
+-- 없어진 FK 대신: processed_news / user_scrap 의 raw_news_id 는 있는 기사여야 한다.
+-- FOR KEY SHARE 로 잡아 두어 검사와 커밋 사이에 그 기사가 지워지지 않게 한다.
+CREATE OR REPLACE FUNCTION raw_news_id_exists() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM 1 FROM raw_news WHERE id = NEW.raw_news_id FOR KEY SHARE;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'raw_news id % does not exist', NEW.raw_news_id
+            USING ERRCODE = 'foreign_key_violation', TABLE = TG_TABLE_NAME, COLUMN = 'raw_news_id';
+    END IF;
+    RETURN NEW;
+END $$;
+
+CREATE TRIGGER trg_processed_news_raw_news_exists
+    BEFORE INSERT OR UPDATE OF raw_news_id ON processed_news
+    FOR EACH ROW
+    EXECUTE FUNCTION raw_news_id_exists();
+
+CREATE TRIGGER trg_user_scrap_raw_news_exists
+    BEFORE INSERT OR UPDATE OF raw_news_id ON user_scrap
+    FOR EACH ROW
+    EXECUTE FUNCTION raw_news_id_exists();
+
+-- 없어진 FK 대신: 아직 processed_news / user_scrap 이 가리키는 raw_news 는 지울 수 없다 (원래 FK 의 NO ACTION).
+-- 문장이 끝난 뒤 검사하므로 같은 문장(CTE)에서 참조하는 행을 먼저 지우면 통과한다.
+-- 날짜가 바뀌어 파티션을 옮기는 UPDATE 는 DELETE 문장 트리거를 부르지 않는다.
+CREATE OR REPLACE FUNCTION raw_news_delete_references() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    ref RECORD;
+BEGIN
+    SELECT o.id, 'processed_news' AS tbl INTO ref
+    FROM old_rows o
+    WHERE EXISTS (SELECT 1 FROM processed_news p WHERE p.raw_news_id = o.id)
+    LIMIT 1;
+    IF ref.id IS NULL THEN
+        SELECT o.id, 'user_scrap' AS tbl INTO ref
+        FROM old_rows o
+        WHERE EXISTS (SELECT 1 FROM user_scrap s WHERE s.raw_news_id = o.id)
+        LIMIT 1;
+    END IF;
+    IF ref.id IS NOT NULL THEN
+        RAISE EXCEPTION 'raw_news id % is still referenced from %', ref.id, ref.tbl
+            USING ERRCODE = 'foreign_key_violation', TABLE = ref.tbl, COLUMN = 'raw_news_id';
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER trg_raw_news_delete_references
+    AFTER DELETE ON raw_news
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION raw_news_delete_references();
+
+-- id 는 시퀀스로 채우지만 id 를 직접 넣으면 (id, published_date) UNIQUE 가 다른 달의 같은 id 를 통과시킨다.
+-- 넣은 행의 id 가 테이블 전체에서 하나뿐인지 문장 끝에 id 인덱스(UNIQUE 의 앞 컬럼)로 확인한다.
+CREATE OR REPLACE FUNCTION news_id_unique() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    dup BIGINT;
+BEGIN
+    EXECUTE format(
+        'SELECT n.id FROM new_rows n WHERE (SELECT count(*) FROM %I t WHERE t.id = n.id) > 1 LIMIT 1',
+        TG_TABLE_NAME
+    ) INTO dup;
+    IF dup IS NOT NULL THEN
+        RAISE EXCEPTION 'duplicate % id %', TG_TABLE_NAME, dup
+            USING ERRCODE = 'unique_violation', TABLE = TG_TABLE_NAME, COLUMN = 'id';
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER trg_raw_news_id_unique
+    AFTER INSERT ON raw_news
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION news_id_unique();
+
+CREATE TRIGGER trg_processed_news_id_unique
+    AFTER INSERT ON processed_news
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION news_id_unique();
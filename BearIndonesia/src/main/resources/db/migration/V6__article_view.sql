@@ -0,0 +1,215 @@
+-- 기사 조회용 비정규화 읽기 모델.
+-- processed_news + raw_news 조인, is_pharma_related 필터, 제목/요약 COALESCE, 태그 JSON 파싱을 쓰기 시점에 한 번만 한다.
+-- 파이프라인이 두 테이블에 직접 쓰므로 문장 단위 트리거가 바뀐 id 만 다시 계산한다.
+
+-- tags 에서 이름만 뽑는다. 기사 API 가 쓰던 ArticleService.parseTags 와 같은 규칙:
+-- JSON 배열의 문자열 원소와 {"name": 문자열} 원소만 받고, 배열이 아니거나 JSON 이 아니면 빈 배열이다.
+-- 이름은 자르지 않고 그대로 두며, 공백뿐인 이름만 버린다 (Java isBlank). 리포트 쪽 정리는 KeywordNormalizer 가 한다.
+CREATE OR REPLACE FUNCTION article_tag_names(tags TEXT) RETURNS TEXT[]
+LANGUAGE plpgsql IMMUTABLE AS $$
+DECLARE
+    doc JSONB;
+BEGIN
+    IF tags IS NULL OR btrim(tags) = '' THEN
+        RETURN '{}';
+    END IF;
+    BEGIN
+        doc := tags::jsonb;
+    EXCEPTION WHEN others THEN
+        RETURN '{}';
+    END;
+    IF jsonb_typeof(doc) <> 'array' THEN
+        RETURN '{}';
+    END IF;
+    RETURN ARRAY(
+        SELECT name
+        FROM (
+            SELECT ord,
+                   CASE
+                       WHEN jsonb_typeof(e) = 'string' THEN e #>> '{}'
+                       WHEN jsonb_typeof(e) = 'object' AND jsonb_typeof(e -> 'name') = 'string' THEN e ->> 'name'
+                   END AS name
+            FROM jsonb_array_elements(doc) WITH ORDINALITY AS t(e, ord)
+        ) t
+        WHERE name ~ '[^[:space:]]'
+        ORDER BY ord
+    );
+END $$;
+
+CREATE OR REPLACE VIEW article_view_source AS
+SELECT
+    p.id,
+    p.raw_news_id,
+    r.published_date,
+    r.title,
+    r.link,
+    r.content,
+    r.source,
+    r.img,
+    p.kor_title,
+    p.kor_summary,
+    p.id_summary,
+    p.kor_content,
+    p.category,
+    p.eng_category,
+    p.semantic_confidence,
+    p.tag_mismatch,
+    p.category_mismatch,
+    p.importance,
+    p.insight,
+    article_tag_names(p.tags::text) AS tag_names,
+    COALESCE(p.tags::text, '') AS tags_text,
+    COALESCE(p.kor_title, r.title) AS display_title,
+    COALESCE(p.kor_summary, p.kor_content, r.content) AS display_summary
+FROM processed_news p
+JOIN raw_news r ON r.id = p.raw_news_id
+WHERE p.is_pharma_related IS TRUE;
+
+CREATE TABLE article_view (
+    id BIGINT PRIMARY KEY,
+    raw_news_id BIGINT NOT NULL,
+    published_date DATE,
+    title TEXT,
+    link TEXT,
+    content TEXT,
+    source TEXT,
+    img TEXT,
+    kor_title TEXT,
+    kor_summary TEXT,
+    id_summary TEXT,
+    kor_content TEXT,
+    category TEXT,
+    eng_category TEXT,
+    semantic_confidence REAL,
+    tag_mismatch BOOLEAN,
+    category_mismatch BOOLEAN,
+    importance INTEGER,
+    insight TEXT,
+    tag_names TEXT[] NOT NULL DEFAULT '{}',
+    tags_text TEXT NOT NULL DEFAULT '',
+    display_title TEXT,
+    display_summary TEXT,
+    refreshed_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+INSERT INTO article_view (
+    id, raw_news_id, published_date, title, link, content, source, img,
+    kor_title, kor_summary, id_summary, kor_content, category, eng_category,
+    semantic_confidence, tag_mismatch, category_mismatch, importance, insight,
+    tag_names, tags_text, display_title, display_summary
+)
+SELECT
+    id, raw_news_id, published_date, title, link, content, source, img,
+    kor_title, kor_summary, id_summary, kor_content, category, eng_category,
+    semantic_confidence, tag_mismatch, category_mismatch, importance, insight,
+    tag_names, tags_text, display_title, display_summary
+FROM article_view_source;
+
+CREATE INDEX idx_article_view_published_date ON article_view (published_date DESC, id DESC);
+CREATE INDEX idx_article_view_importance
+    ON article_view (importance DESC NULLS LAST, published_date DESC NULLS LAST, id DESC);
+CREATE INDEX idx_article_view_raw_news_id ON article_view (raw_news_id);
+CREATE INDEX idx_article_view_title_trgm ON article_view USING gin (lower(display_title) gin_trgm_ops);
+CREATE INDEX idx_article_view_summary_trgm ON article_view USING gin (lower(display_summary) gin_trgm_ops);
+CREATE INDEX idx_article_view_tags_trgm ON article_view USING gin (lower(tags_text) gin_trgm_ops);
+
+-- 주어진 processed_news id 들을 다시 계산한다. 조건에서 빠졌거나 지워진 행은 읽기 모델에서도 지운다.
+CREATE OR REPLACE FUNCTION article_view_sync(ids BIGINT[]) RETURNS VOID
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF ids IS NULL OR cardinality(ids) = 0 THEN
+        RETURN;
+    END IF;
+    DELETE FROM article_view v
+    WHERE v.id = ANY(ids)
+      AND NOT EXISTS (SELECT 1 FROM article_view_source s WHERE s.id = v.id);
+    INSERT INTO article_view (
+        id, raw_news_id, published_date, title, link, content, source, img,
+        kor_title, kor_summary, id_summary, kor_content, category, eng_category,
+        semantic_confidence, tag_mismatch, category_mismatch, importance, insight,
+        tag_names, tags_text, display_title, display_summary
+    )
+    SELECT
+        id, raw_news_id, published_date, title, link, content, source, img,
+        kor_title, kor_summary, id_summary, kor_content, category, eng_category,
+        semantic_confidence, tag_mismatch, category_mismatch, importance, insight,
+        tag_names, tags_text, display_title, display_summary
+    FROM article_view_source
+    WHERE id = ANY(ids)
+    ON CONFLICT (id) DO UPDATE SET
+        raw_news_id = EXCLUDED.raw_news_id,
+        published_date = EXCLUDED.published_date,
+        title = EXCLUDED.title,
+        link = EXCLUDED.link,
+        content = EXCLUDED.content,
+        source = EXCLUDED.source,
+        img = EXCLUDED.img,
+        kor_title = EXCLUDED.kor_title,
+        kor_summary = EXCLUDED.kor_summary,
+        id_summary = EXCLUDED.id_summary,
+        kor_content = EXCLUDED.kor_content,
+        category = EXCLUDED.category,
+        eng_category = EXCLUDED.eng_category,
+        semantic_confidence = EXCLUDED.semantic_confidence,
+        tag_mismatch = EXCLUDED.tag_mismatch,
+        category_mismatch = EXCLUDED.category_mismatch,
+        importance = EXCLUDED.importance,
+        insight = EXCLUDED.insight,
+        tag_names = EXCLUDED.tag_names,
+        tags_text = EXCLUDED.tags_text,
+        display_title = EXCLUDED.display_title,
+        display_summary = EXCLUDED.display_summary,
+        refreshed_at = now();
+END $$;
+
+CREATE OR REPLACE FUNCTION article_view_on_processed() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM article_view_sync(ARRAY(SELECT id FROM new_rows));
+    ELSIF TG_OP = 'UPDATE' THEN
+        PERFORM article_view_sync(ARRAY(SELECT id FROM new_rows UNION SELECT id FROM old_rows));
+    ELSE
+        DELETE FROM article_view WHERE id IN (SELECT id FROM old_rows);
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE OR REPLACE FUNCTION article_view_on_raw() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        PERFORM article_view_sync(ARRAY(
+            SELECT p.id FROM processed_news p WHERE p.raw_news_id IN (SELECT id FROM new_rows)
+        ));
+    ELSE
+        DELETE FROM article_view WHERE raw_news_id IN (SELECT id FROM old_rows);
+    END IF;
+    RETURN NULL;
+END $$;
+
+-- 트랜지션 테이블을 쓰는 트리거는 이벤트 하나씩만 걸 수 있다.
+CREATE TRIGGER trg_article_view_processed_insert
+    AFTER INSERT ON processed_news
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION article_view_on_processed();
+
+CREATE TRIGGER trg_article_view_processed_update
+    AFTER UPDATE ON processed_news
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION article_view_on_processed();
+
+CREATE TRIGGER trg_article_view_processed_delete
+    AFTER DELETE ON processed_news
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION article_view_on_processed();
+
+CREATE TRIGGER trg_article_view_raw_update
+    AFTER UPDATE ON raw_news
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION article_view_on_raw();
+
+CREATE TRIGGER trg_article_view_raw_delete
+    AFTER DELETE ON raw_news
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION article_view_on_raw();
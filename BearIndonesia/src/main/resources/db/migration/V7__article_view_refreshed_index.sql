@@ -0,0 +1,2 @@
+-- ArticleColumnStore 워터마크의 MAX(refreshed_at) 를 인덱스 끝에서 바로 읽는다.
+CREATE INDEX IF NOT EXISTS idx_article_view_refreshed_at ON article_view (refreshed_at);
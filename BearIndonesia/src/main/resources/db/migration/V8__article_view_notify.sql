@@ -0,0 +1,53 @@
+-- article_view 가 바뀌면 article_view_changed 채널로 NOTIFY 한다 (IngestEventListener 가 LISTEN).
+-- 원본 테이블의 변경은 V6 트리거를 거쳐 article_view 에 반영되므로 여기 한 곳에서 잡으면 된다.
+-- 페이로드 한도(8000 바이트) 때문에 id 는 300 개, 날짜는 100 개까지만 싣고, 넘치면 null 로 보낸다.
+-- NOTIFY 는 커밋될 때 전달되고, 롤백되면 버려진다.
+CREATE OR REPLACE FUNCTION article_view_notify() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    ids BIGINT[];
+    dates DATE[];
+    payload JSONB;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(id), array_agg(published_date) INTO ids, dates FROM new_rows;
+    ELSIF TG_OP = 'UPDATE' THEN
+        SELECT array_agg(id), array_agg(published_date) INTO ids, dates
+        FROM (SELECT id, published_date FROM new_rows UNION ALL SELECT id, published_date FROM old_rows) c;
+    ELSE
+        SELECT array_agg(id), array_agg(published_date) INTO ids, dates FROM old_rows;
+    END IF;
+    IF ids IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    SELECT jsonb_build_object(
+               'op', TG_OP,
+               'count', COUNT(DISTINCT id),
+               'maxId', MAX(id),
+               'ids', CASE WHEN COUNT(DISTINCT id) <= 300 THEN jsonb_agg(DISTINCT id) END,
+               'dates', CASE WHEN COUNT(DISTINCT published_date) <= 100
+                             THEN COALESCE(jsonb_agg(DISTINCT published_date) FILTER (WHERE published_date IS NOT NULL), '[]')
+                        END
+           )
+    INTO payload
+    FROM unnest(ids, dates) AS c(id, published_date);
+
+    PERFORM pg_notify('article_view_changed', payload::text);
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER trg_article_view_notify_insert
+    AFTER INSERT ON article_view
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION article_view_notify();
+
+CREATE TRIGGER trg_article_view_notify_update
+    AFTER UPDATE ON article_view
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION article_view_notify();
+
+CREATE TRIGGER trg_article_view_notify_delete
+    AFTER DELETE ON article_view
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION article_view_notify();
@@ -0,0 +1,4 @@
+-- 대량 적재(BulkIngestService)는 raw_news 를 link 로, processed_news 를 raw_news_id 로 찾아 갱신/삽입한다.
+-- 파티션 테이블이라 UNIQUE 를 둘 수 없어서 일반 인덱스로 조회만 빠르게 한다 (중복 방지는 적재 쪽 advisory lock).
+CREATE INDEX IF NOT EXISTS idx_raw_news_link ON raw_news (link);
+CREATE INDEX IF NOT EXISTS idx_processed_news_raw_news_id ON processed_news (raw_news_id);
@@ -0,0 +1,90 @@
+package com.bearindonesia;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * 운영과 같은 PostgreSQL 16 에 애플리케이션 Flyway 마이그레이션을 적용한 DB 로 도는 테스트의 공통 부분.
+ * 테스트 클래스마다 컨테이너를 새로 띄우고, Docker 가 없으면 건너뛴다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresTestSupport {
+
+    @Container
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    protected static DriverManagerDataSource dataSource;
+    protected static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * raw_news 와 is_pharma_related 인 processed_news 한 쌍을 넣고 processed_news id 를 돌려준다 (article_view 에 바로 보인다).
+     */
+    protected static long insertArticle(String title, LocalDate day, String tagsJson) {
+        Long rawId = jdbcTemplate.queryForObject(
+                "INSERT INTO raw_news (title, content, link, source, published_date) VALUES (?, 'isi', ?, 'detik', ?) RETURNING id",
+                Long.class,
+                title,
+                "https://example.com/" + UUID.randomUUID(),
+                Date.valueOf(day)
+        );
+        // published_date 를 같이 넣으면 라우팅 트리거가 다시 UPDATE 하지 않아 article_view 변경(NOTIFY)이 한 번만 난다.
+        Long id = jdbcTemplate.queryForObject(
+                """
+                INSERT INTO processed_news (raw_news_id, published_date, tags, importance, is_pharma_related)
+                VALUES (?, ?, ?::jsonb, 50, TRUE)
+                RETURNING id
+                """,
+                Long.class,
+                rawId,
+                Date.valueOf(day),
+                tagsJson
+        );
+        return id == null ? 0 : id;
+    }
+
+    /**
+     * 백그라운드 스레드의 결과를 최대 10초 기다린다.
+     */
+    protected static void awaitUntil(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting for " + what);
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    protected static long insertUser(String email) {
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO users_info (username, name, password_hash) VALUES (?, ?, 'x') RETURNING id",
+                Long.class,
+                email,
+                email
+        );
+        return id == null ? 0 : id;
+    }
+}
@@ -0,0 +1,201 @@
+package com.bearindonesia.article;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bearindonesia.PostgresTestSupport;
+import com.bearindonesia.service.KeywordNormalizer;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * article_view(V6) 가 raw_news / processed_news 트리거만으로 원본과 같게 유지되는지 본다.
+ */
+class ArticleViewSyncTest extends PostgresTestSupport {
+
+    private static final LocalDate DAY = LocalDate.now();
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.execute("TRUNCATE user_scrap, processed_news, raw_news, article_view");
+    }
+
+    @Test
+    void insertedPharmaArticleAppearsWithDerivedColumns() {
+        long rawId = insertRaw("Harga obat naik", "https://example.com/a");
+        long id = insertProcessed(rawId, null, "[\"Kalbe\", {\"name\": \" vaksin \"}, {\"name\": \"\"}]", true);
+
+        Map<String, Object> row = view(id);
+
+        assertThat(row.get("raw_news_id")).isEqualTo(rawId);
+        assertThat(row.get("published_date").toString()).isEqualTo(DAY.toString());
+        assertThat(row.get("display_title")).isEqualTo("Harga obat naik");
+        assertThat(tagNames(id)).containsExactly("Kalbe", " vaksin ");
+    }
+
+    @Test
+    void nonPharmaArticleIsLeftOut() {
+        long rawId = insertRaw("Sepak bola", "https://example.com/b");
+        long id = insertProcessed(rawId, "축구", "[]", false);
+
+        assertThat(exists(id)).isFalse();
+
+        jdbcTemplate.update("UPDATE processed_news SET is_pharma_related = TRUE WHERE id = ?", id);
+        assertThat(exists(id)).isTrue();
+
+        jdbcTemplate.update("UPDATE processed_news SET is_pharma_related = FALSE WHERE id = ?", id);
+        assertThat(exists(id)).isFalse();
+    }
+
+    @Test
+    void processedUpdateRefreshesTheRow() throws InterruptedException {
+        long rawId = insertRaw("Harga obat naik", "https://example.com/c");
+        long id = insertProcessed(rawId, null, "[\"Kalbe\"]", true);
+        Timestamp before = (Timestamp) view(id).get("refreshed_at");
+        Thread.sleep(5);
+
+        jdbcTemplate.update("UPDATE processed_news SET kor_title = '약값 인상', tags = '[\"Kimia Farma\"]' WHERE id = ?", id);
+
+        Map<String, Object> row = view(id);
+        assertThat(row.get("display_title")).isEqualTo("약값 인상");
+        assertThat(tagNames(id)).containsExactly("Kimia Farma");
+        assertThat((Timestamp) row.get("refreshed_at")).isAfter(before);
+    }
+
+    @Test
+    void rawUpdateFlowsIntoTheView() {
+        long rawId = insertRaw("Judul lama", "https://example.com/d");
+        long id = insertProcessed(rawId, null, "[]", true);
+
+        jdbcTemplate.update("UPDATE raw_news SET title = 'Judul baru' WHERE id = ?", rawId);
+
+        assertThat(view(id).get("display_title")).isEqualTo("Judul baru");
+    }
+
+    @Test
+    void deletesRemoveTheRow() {
+        long firstRaw = insertRaw("Satu", "https://example.com/e");
+        long first = insertProcessed(firstRaw, null, "[]", true);
+        long secondRaw = insertRaw("Dua", "https://example.com/f");
+        long second = insertProcessed(secondRaw, null, "[]", true);
+
+        jdbcTemplate.update("DELETE FROM processed_news WHERE id = ?", first);
+        // raw_news 는 참조가 남아 있으면 못 지우므로(V5) 같은 문장에서 processed_news 를 먼저 지운다.
+        jdbcTemplate.update(
+                "WITH p AS (DELETE FROM processed_news WHERE raw_news_id = ? RETURNING id) DELETE FROM raw_news WHERE id = ?",
+                secondRaw,
+                secondRaw
+        );
+
+        assertThat(exists(first)).isFalse();
+        assertThat(exists(second)).isFalse();
+    }
+
+    @Test
+    void tagNamesFollowArticleApiParsing() {
+        assertThat(tagNames("[\"a\", {\"name\": \"b\"}, 3, {\"other\": \"x\"}, {\"name\": 4}, [\"n\"], null]"))
+                .containsExactly("a", "b");
+        assertThat(tagNames("[\" kept \", \"  \", \"\"]")).containsExactly(" kept ");
+        assertThat(tagNames("{\"name\": \"c\"}")).isEmpty();
+        assertThat(tagNames("\"plain\"")).isEmpty();
+        assertThat(tagNames("  ")).isEmpty();
+        assertThat(tagNames((String) null)).isEmpty();
+    }
+
+    @Test
+    void malformedOrCommaSeparatedTagsGiveNoNames() {
+        assertThat(tagNames(" x , y ,, ")).isEmpty();
+        assertThat(tagNames("Kalbe, vaksin")).isEmpty();
+        assertThat(tagNames("[\"a\", ")).isEmpty();
+        assertThat(tagNames("{name: a}")).isEmpty();
+    }
+
+    @Test
+    void reportsStillTrimTheStoredNames() {
+        long rawId = insertRaw("Harga obat naik", "https://example.com/g");
+        long id = insertProcessed(rawId, null, "[\" vaksin \", \"Kalbe\"]", true);
+
+        String[] stored = jdbcTemplate.queryForObject(
+                "SELECT tag_names FROM article_view WHERE id = ?",
+                (rs, rowNum) -> (String[]) rs.getArray(1).getArray(),
+                id
+        );
+
+        assertThat(KeywordNormalizer.parseTags(stored)).containsExactly("vaksin", "Kalbe");
+    }
+
+    // V4 는 trigram 을 만들지 않고 V5 파티션 부모에도 없다. 검색용 trigram 은 article_view 에 한 벌만 있다.
+    @Test
+    void searchIsServedByArticleViewTrigramIndexesOnly() {
+        List<String> trigramIndexes = jdbcTemplate.queryForList(
+                """
+                SELECT tablename || '.' || indexname
+                FROM pg_indexes
+                WHERE schemaname = current_schema()
+                  AND indexdef LIKE '%gin_trgm_ops%'
+                ORDER BY 1
+                """,
+                String.class
+        );
+
+        assertThat(trigramIndexes).containsExactly(
+                "article_view.idx_article_view_summary_trgm",
+                "article_view.idx_article_view_tags_trgm",
+                "article_view.idx_article_view_title_trgm"
+        );
+    }
+
+    private long insertRaw(String title, String link) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO raw_news (title, content, link, source, published_date) VALUES (?, 'isi', ?, 'detik', ?) RETURNING id",
+                Long.class,
+                title,
+                link,
+                java.sql.Date.valueOf(DAY)
+        );
+    }
+
+    private long insertProcessed(long rawId, String korTitle, String tags, boolean pharma) {
+        return jdbcTemplate.queryForObject(
+                """
+                INSERT INTO processed_news (raw_news_id, kor_title, tags, importance, is_pharma_related)
+                VALUES (?, ?, ?::jsonb, 50, ?)
+                RETURNING id
+                """,
+                Long.class,
+                rawId,
+                korTitle,
+                tags,
+                pharma
+        );
+    }
+
+    private Map<String, Object> view(long id) {
+        return jdbcTemplate.queryForMap("SELECT * FROM article_view WHERE id = ?", id);
+    }
+
+    private boolean exists(long id) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM article_view WHERE id = ?)", Boolean.class, id));
+    }
+
+    private List<String> tagNames(long id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT tag_names FROM article_view WHERE id = ?",
+                (rs, rowNum) -> Arrays.asList((String[]) rs.getArray(1).getArray()),
+                id
+        );
+    }
+
+    private List<String> tagNames(String tags) {
+        return jdbcTemplate.queryForObject(
+                "SELECT article_tag_names(?)",
+                (rs, rowNum) -> Arrays.asList((String[]) rs.getArray(1).getArray()),
+                tags
+        );
+    }
+}
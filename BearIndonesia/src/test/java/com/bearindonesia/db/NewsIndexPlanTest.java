@@ -0,0 +1,175 @@
+package com.bearindonesia.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bearindonesia.PostgresTestSupport;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.ConnectionCallback;
+
+/**
+ * 주요 조회가 마이그레이션이 만든 인덱스를 "쓸 수 있는지" 본다 (loadtest 의 ExplainCheck 와 같은 조회).
+ * 데이터가 작아서 순차 스캔을 끄고 계획만 확인한다. 운영 규모 데이터에서의 확인은 ./gradlew explainCheck 로 한다.
+ */
+class NewsIndexPlanTest extends PostgresTestSupport {
+
+    private static final LocalDate MONTH = LocalDate.now().withDayOfMonth(1);
+
+    @BeforeAll
+    static void seed() {
+        jdbcTemplate.update(
+                """
+                INSERT INTO raw_news (title, content, link, source, published_date)
+                SELECT 'Harga vaksin ' || g, 'Isi berita ' || g, 'https://example.com/' || g, 'detik', current_date - (g % 40)
+                FROM generate_series(1, 400) g
+                """
+        );
+        jdbcTemplate.update(
+                """
+                INSERT INTO processed_news (raw_news_id, kor_title, kor_summary, tags, importance, is_pharma_related)
+                SELECT id, '백신 가격 ' || id, '요약 ' || id, '["Kalbe", {"name": "vaksin"}]'::jsonb, (id % 100)::int, TRUE
+                FROM raw_news
+                """
+        );
+        long userId = insertUser("plan@example.com");
+        jdbcTemplate.update("INSERT INTO user_scrap (user_id, raw_news_id) SELECT ?, id FROM raw_news WHERE id % 10 = 0", userId);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    static Stream<Check> checks() {
+        return Stream.of(
+                new Check(
+                        "search",
+                        """
+                        SELECT a.id
+                        FROM article_view a
+                        WHERE LOWER(a.display_title) LIKE LOWER(CONCAT('%', ?, '%'))
+                           OR LOWER(a.display_summary) LIKE LOWER(CONCAT('%', ?, '%'))
+                        """,
+                        List.of("idx_article_view_title_trgm", "idx_article_view_summary_trgm"),
+                        List.of("vaksin", "vaksin")
+                ),
+                new Check(
+                        "tag filter",
+                        "SELECT a.id FROM article_view a WHERE LOWER(a.tags_text) LIKE LOWER(CONCAT('%', ?, '%'))",
+                        List.of("idx_article_view_tags_trgm"),
+                        List.of("Kalbe")
+                ),
+                new Check(
+                        "articles by month",
+                        """
+                        SELECT a.id, a.published_date
+                        FROM article_view a
+                        WHERE a.published_date BETWEEN ? AND ?
+                        ORDER BY a.published_date DESC NULLS LAST, a.id DESC
+                        """,
+                        List.of("idx_article_view_published_date"),
+                        List.of(Date.valueOf(MONTH), Date.valueOf(MONTH.plusMonths(1).minusDays(1)))
+                ),
+                new Check(
+                        "top articles by importance",
+                        """
+                        SELECT a.id
+                        FROM article_view a
+                        ORDER BY a.importance DESC NULLS LAST, a.published_date DESC NULLS LAST, a.id DESC
+                        LIMIT 50
+                        """,
+                        List.of("idx_article_view_importance"),
+                        List.of()
+                ),
+                new Check(
+                        "article_view sync",
+                        "SELECT id FROM article_view_source WHERE id = ANY(?)",
+                        List.of("processed_news_id_date_key"),
+                        List.of((Object) new Long[] {1L, 2L, 3L})
+                ),
+                new Check(
+                        "ingest raw_news by link",
+                        "SELECT id FROM raw_news WHERE link = ANY(?)",
+                        List.of("idx_raw_news_link"),
+                        List.of((Object) new String[] {"https://example.com/1", "https://example.com/2"})
+                ),
+                new Check(
+                        "ingest processed_news by raw id",
+                        "SELECT id FROM processed_news WHERE raw_news_id = ANY(?)",
+                        List.of("idx_processed_news_raw_news_id"),
+                        List.of((Object) new Long[] {1L, 2L, 3L})
+                ),
+                new Check(
+                        "scrap list",
+                        "SELECT raw_news_id FROM user_scrap WHERE user_id = ? ORDER BY created_at DESC",
+                        List.of("idx_user_scrap_user_created", "user_scrap_pkey"),
+                        List.of(1L)
+                )
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("checks")
+    void queryCanUseItsIndex(Check check) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("SET enable_seqscan = off");
+            }
+            String plan = explain(con, check);
+            List<String> family = new ArrayList<>();
+            for (String index : check.indexes()) {
+                family.addAll(indexFamily(con, index));
+            }
+            assertThat(family).as("%s: %s", check.name(), plan).anyMatch(plan::contains);
+            return null;
+        });
+    }
+
+    private static String explain(Connection con, Check check) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + check.sql())) {
+            for (int i = 0; i < check.params().size(); i++) {
+                ps.setObject(i + 1, check.params().get(i));
+            }
+            StringBuilder sb = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sb.append(rs.getString(1)).append('\n');
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * 부모 인덱스 이름과, 파티션마다 자동으로 붙은 자식 인덱스 이름들.
+     */
+    private static List<String> indexFamily(Connection con, String index) throws SQLException {
+        List<String> names = new ArrayList<>();
+        names.add(index);
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)")) {
+            ps.setString(1, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+
+    record Check(String name, String sql, List<String> indexes, List<Object> params) {
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.bearindonesia.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bearindonesia.PostgresTestSupport;
+import java.sql.Date;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * 파티션으로 바꾸며(V5) FK/PK 대신 둔 제약이 원래 테이블처럼 동작하는지 본다.
+ */
+class NewsPartitionMigrationTest extends PostgresTestSupport {
+
+    private static final LocalDate DAY = LocalDate.now();
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.execute("TRUNCATE user_scrap, processed_news, raw_news, article_view, users_info RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    void needsPostgres15ForNullsNotDistinct() {
+        Integer version = jdbcTemplate.queryForObject("SELECT current_setting('server_version_num')::int", Integer.class);
+
+        assertThat(version).isGreaterThanOrEqualTo(150000);
+    }
+
+    @Test
+    void rawNewsIdIsUniqueAcrossMonths() {
+        long rawId = insertRaw(DAY);
+
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO raw_news (id, title, content, link, source, published_date) VALUES (?, 't', 'isi', 'https://example.com/dup', 'detik', ?)",
+                rawId,
+                Date.valueOf(DAY.minusMonths(2))
+        )).isInstanceOf(DuplicateKeyException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM raw_news WHERE id = ?", Long.class, rawId)).isEqualTo(1);
+    }
+
+    @Test
+    void processedNewsIdIsUniqueAcrossMonths() {
+        long id = insertArticle("Harga obat", DAY, "[]");
+        long otherRaw = insertRaw(DAY.minusMonths(2));
+
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO processed_news (id, raw_news_id, published_date, is_pharma_related) VALUES (?, ?, ?, TRUE)",
+                id,
+                otherRaw,
+                Date.valueOf(DAY.minusMonths(2))
+        )).isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void referencedRawNewsCannotBeDeleted() {
+        long id = insertArticle("Harga obat", DAY, "[]");
+        long rawId = rawIdOf(id);
+
+        assertThatThrownBy(() -> jdbcTemplate.update("DELETE FROM raw_news WHERE id = ?", rawId))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("processed_news");
+        assertThat(count("raw_news")).isEqualTo(1);
+        assertThat(count("article_view")).isEqualTo(1);
+    }
+
+    @Test
+    void scrappedRawNewsCannotBeDeleted() {
+        long rawId = insertRaw(DAY);
+        long userId = insertUser("scrap@example.com");
+        jdbcTemplate.update("INSERT INTO user_scrap (user_id, raw_news_id) VALUES (?, ?)", userId, rawId);
+
+        assertThatThrownBy(() -> jdbcTemplate.update("DELETE FROM raw_news WHERE id = ?", rawId))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("user_scrap");
+        assertThat(count("user_scrap")).isEqualTo(1);
+    }
+
+    @Test
+    void rawNewsCanBeDeletedOnceNothingReferencesIt() {
+        long id = insertArticle("Harga obat", DAY, "[]");
+        long rawId = rawIdOf(id);
+
+        jdbcTemplate.update("DELETE FROM processed_news WHERE id = ?", id);
+        jdbcTemplate.update("DELETE FROM raw_news WHERE id = ?", rawId);
+
+        assertThat(count("raw_news")).isZero();
+        assertThat(count("article_view")).isZero();
+    }
+
+    private long insertRaw(LocalDate day) {
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO raw_news (title, content, link, source, published_date) VALUES ('t', 'isi', ?, 'detik', ?) RETURNING id",
+                Long.class,
+                "https://example.com/" + day + "/" + System.nanoTime(),
+                Date.valueOf(day)
+        );
+        return id == null ? 0 : id;
+    }
+
+    private long rawIdOf(long processedId) {
+        Long rawId = jdbcTemplate.queryForObject("SELECT raw_news_id FROM processed_news WHERE id = ?", Long.class, processedId);
+        return rawId == null ? 0 : rawId;
+    }
+
+    private long count(String table) {
+        Long n = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+        return n == null ? 0 : n;
+    }
+}
@@ -0,0 +1,281 @@
+package com.bearindonesia.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bearindonesia.db.ReplicaRoutingDataSource.PinScope;
+import com.bearindonesia.db.ReplicaRoutingDataSource.Replica;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * 라우팅 키 결정만 본다. 복제본은 지연 값을 돌려주는 가짜 DataSource 라 Docker 없이 돈다.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final DataSource PRIMARY = lagging(0);
+
+    @Test
+    void routesToPrimaryUntilTheFirstLagMeasurement() {
+        ReplicaRoutingDataSource router = router(1.0, new Replica("r1", lagging(0)));
+
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        router.refreshLag();
+
+        assertThat(router.determineCurrentLookupKey()).isEqualTo("r1");
+    }
+
+    @Test
+    void roundRobinsOverHealthyReplicas() {
+        ReplicaRoutingDataSource router = router(1.0, new Replica("r1", lagging(0)), new Replica("r2", lagging(0)));
+        router.refreshLag();
+
+        List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            keys.add(router.determineCurrentLookupKey());
+        }
+
+        assertThat(keys).containsExactly("r1", "r2", "r1", "r2");
+    }
+
+    @Test
+    void replicaOverTheLagThresholdLeavesRotation() {
+        Replica fresh = new Replica("fresh", lagging(0.5));
+        Replica behind = new Replica("behind", lagging(30));
+        ReplicaRoutingDataSource router = router(1.0, fresh, behind);
+
+        router.refreshLag();
+
+        assertThat(fresh.healthy()).isTrue();
+        assertThat(behind.healthy()).isFalse();
+        assertThat(behind.lagSeconds()).isEqualTo(30.0);
+        for (int i = 0; i < 4; i++) {
+            assertThat(router.determineCurrentLookupKey()).isEqualTo("fresh");
+        }
+    }
+
+    @Test
+    void lagAtTheThresholdStaysInRotation() {
+        Replica edge = new Replica("edge", lagging(1.0));
+        ReplicaRoutingDataSource router = router(1.0, edge);
+
+        router.refreshLag();
+
+        assertThat(edge.healthy()).isTrue();
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenEveryReplicaIsDownOrBehind() {
+        Replica down = new Replica("down", unreachable());
+        Replica behind = new Replica("behind", lagging(30));
+        ReplicaRoutingDataSource router = router(1.0, down, behind);
+
+        router.refreshLag();
+
+        assertThat(down.healthy()).isFalse();
+        assertThat(down.lagSeconds()).isNaN();
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void replicaThatGoesDownIsDroppedAtTheNextRefresh() {
+        Switchable ds = new Switchable(0);
+        Replica r1 = new Replica("r1", ds);
+        ReplicaRoutingDataSource router = router(1.0, r1);
+        router.refreshLag();
+        assertThat(router.determineCurrentLookupKey()).isEqualTo("r1");
+
+        ds.down = true;
+        router.refreshLag();
+
+        assertThat(router.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        ds.down = false;
+        router.refreshLag();
+
+        assertThat(router.determineCurrentLookupKey()).isEqualTo("r1");
+    }
+
+    @Test
+    void pinScopeKeepsOneReplicaPerRouter() {
+        ReplicaRoutingDataSource router = router(1.0, new Replica("r1", lagging(0)), new Replica("r2", lagging(0)));
+        router.refreshLag();
+
+        try (PinScope ignored = ReplicaRoutingDataSource.pinScope()) {
+            Object first = router.determineCurrentLookupKey();
+            for (int i = 0; i < 4; i++) {
+                assertThat(router.determineCurrentLookupKey()).isEqualTo(first);
+            }
+        }
+        assertThat(router.determineCurrentLookupKey()).isNotEqualTo(router.determineCurrentLookupKey());
+    }
+
+    @Test
+    void pinnedReplicaLeavingRotationIsReplaced() {
+        Replica r1 = new Replica("r1", lagging(0));
+        Replica r2 = new Replica("r2", lagging(0));
+        ReplicaRoutingDataSource router = router(1.0, r1, r2);
+        router.refreshLag();
+
+        try (PinScope ignored = ReplicaRoutingDataSource.pinScope()) {
+            Object first = router.determineCurrentLookupKey();
+            Replica pinned = first.equals("r1") ? r1 : r2;
+            pinned.healthy = false;
+
+            Object second = router.determineCurrentLookupKey();
+
+            assertThat(second).isNotEqualTo(first).isIn("r1", "r2");
+            pinned.healthy = true;
+            assertThat(router.determineCurrentLookupKey()).isEqualTo(second);
+        }
+    }
+
+    @Test
+    void requestThatFellBackToPrimaryStaysThere() {
+        Replica r1 = new Replica("r1", lagging(0));
+        ReplicaRoutingDataSource router = router(1.0, r1);
+
+        try (PinScope ignored = ReplicaRoutingDataSource.pinScope()) {
+            assertThat(router.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+            // 요청 도중 복제본이 들어와도 시점이 뒤로 가지 않게 primary 에 남는다.
+            router.refreshLag();
+            assertThat(router.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        }
+        assertThat(router.determineCurrentLookupKey()).isEqualTo("r1");
+    }
+
+    @Test
+    void writeInsideTheScopePinsEveryRouterToPrimary() {
+        ReplicaRoutingDataSource read = router(1.0, new Replica("r1", lagging(0)));
+        ReplicaRoutingDataSource analytics = router(1.0, new Replica("a1", lagging(0)));
+        read.refreshLag();
+        analytics.refreshLag();
+
+        try (PinScope ignored = ReplicaRoutingDataSource.pinScope()) {
+            assertThat(read.determineCurrentLookupKey()).isEqualTo("r1");
+
+            ReplicaRoutingDataSource.pinToPrimary();
+
+            assertThat(read.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+            assertThat(analytics.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        }
+        // 다음 요청은 다시 복제본으로 간다.
+        try (PinScope ignored = ReplicaRoutingDataSource.pinScope()) {
+            assertThat(read.determineCurrentLookupKey()).isEqualTo("r1");
+        }
+    }
+
+    @Test
+    void writeOutsideAScopeChangesNothing() {
+        ReplicaRoutingDataSource router = router(1.0, new Replica("r1", lagging(0)));
+        router.refreshLag();
+
+        ReplicaRoutingDataSource.pinToPrimary();
+
+        assertThat(router.determineCurrentLookupKey()).isEqualTo("r1");
+    }
+
+    @Test
+    void nestedScopeKeepsTheOuterPins() {
+        ReplicaRoutingDataSource router = router(1.0, new Replica("r1", lagging(0)), new Replica("r2", lagging(0)));
+        router.refreshLag();
+
+        try (PinScope outer = ReplicaRoutingDataSource.pinScope()) {
+            Object first = router.determineCurrentLookupKey();
+            try (PinScope inner = ReplicaRoutingDataSource.pinScope()) {
+                assertThat(router.determineCurrentLookupKey()).isEqualTo(first);
+            }
+            // 안쪽 범위가 닫혀도 바깥 고정은 남는다.
+            assertThat(router.determineCurrentLookupKey()).isEqualTo(first);
+        }
+    }
+
+    @Test
+    void filterPinsForTheWholeRequestAndReleasesAfterwards() throws Exception {
+        ReplicaRoutingDataSource router = router(1.0, new Replica("r1", lagging(0)), new Replica("r2", lagging(0)));
+        router.refreshLag();
+        List<Object> beforeWrite = new ArrayList<>();
+        List<Object> afterWrite = new ArrayList<>();
+
+        new ReplicaPinFilter().doFilter(new MockHttpServletRequest("POST", "/api/scraps/1"), new MockHttpServletResponse(), (req, res) -> {
+            for (int i = 0; i < 3; i++) {
+                beforeWrite.add(router.determineCurrentLookupKey());
+            }
+            ReplicaRoutingDataSource.pinToPrimary();
+            afterWrite.add(router.determineCurrentLookupKey());
+        });
+
+        assertThat(beforeWrite).hasSize(3).containsOnly(beforeWrite.get(0));
+        assertThat(afterWrite).containsExactly(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(router.determineCurrentLookupKey()).isIn("r1", "r2");
+    }
+
+    private static ReplicaRoutingDataSource router(double maxLagSeconds, Replica... replicas) {
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(PRIMARY, List.of(replicas), maxLagSeconds);
+        router.afterPropertiesSet();
+        return router;
+    }
+
+    /**
+     * 지연 조회에 주어진 초를 돌려주는 DataSource.
+     */
+    private static DataSource lagging(double seconds) {
+        return new Switchable(seconds);
+    }
+
+    private static DataSource unreachable() {
+        Switchable ds = new Switchable(0);
+        ds.down = true;
+        return ds;
+    }
+
+    private static final class Switchable extends AbstractDataSource {
+        private final double lagSeconds;
+        volatile boolean down;
+
+        Switchable(double lagSeconds) {
+            this.lagSeconds = lagSeconds;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            ResultSet rs = stub(ResultSet.class, (method, args) -> switch (method) {
+                case "next" -> true;
+                case "getDouble" -> lagSeconds;
+                default -> null;
+            });
+            Statement st = stub(Statement.class, (method, args) -> "executeQuery".equals(method) ? rs : null);
+            return stub(Connection.class, (method, args) -> "createStatement".equals(method) ? st : null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(
+                ReplicaRoutingDataSourceTest.class.getClassLoader(),
+                new Class<?>[] {type},
+                (proxy, method, args) -> method.getName().equals("close") ? null : answer.answer(method.getName(), args)
+        ));
+    }
+}
@@ -0,0 +1,146 @@
+package com.bearindonesia.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bearindonesia.PostgresTestSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkIngestServiceTest extends PostgresTestSupport {
+
+    private BulkIngestService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE user_scrap, processed_news, raw_news, article_view");
+        service = new BulkIngestService(jdbcTemplate, new ObjectMapper(), 2, 1 << 20, 1, 10);
+    }
+
+    @AfterEach
+    void dropFailTrigger() {
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS trg_test_fail ON raw_news");
+    }
+
+    @Test
+    void loadsArticlesIntoBothTablesAndTheReadModel() {
+        IngestResult result = ingest(
+                """
+                {"link": "https://example.com/1", "title": "Harga obat", "publishedDate": "2026-01-15T08:00:00", "processed": {"korTitle": "약값", "tags": "Kalbe, vaksin", "importance": 70, "isPharmaRelated": true}}
+                {"link": "https://example.com/2", "title": "Sepak bola", "publishedDate": "2026-01-16"}
+                {"link": "https://example.com/3", "title": "Pabrik baru", "publishedDate": "2026-01-17", "processed": {"isPharmaRelated": false}}
+                """
+        );
+
+        assertThat(result.completed()).isTrue();
+        assertThat(result.lines()).isEqualTo(3);
+        assertThat(result.accepted()).isEqualTo(3);
+        assertThat(result.rejected()).isZero();
+        assertThat(count("raw_news")).isEqualTo(3);
+        assertThat(count("processed_news")).isEqualTo(2);
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT display_title, tag_names::text AS tags, published_date::text AS day FROM article_view");
+        assertThat(row).containsEntry("display_title", "약값").containsEntry("tags", "{Kalbe,vaksin}").containsEntry("day", "2026-01-15");
+    }
+
+    @Test
+    void reingestUpdatesByLinkAndKeepsTheLastDuplicate() {
+        ingest("{\"link\": \"https://example.com/1\", \"title\": \"lama\", \"publishedDate\": \"2026-01-15\"}\n");
+
+        IngestResult result = ingest(
+                """
+                {"link": "https://example.com/1", "title": "baru", "processed": {"importance": 10, "isPharmaRelated": true}}
+                {"link": "https://example.com/1", "title": "terbaru", "processed": {"importance": 20, "isPharmaRelated": true}}
+                """
+        );
+
+        assertThat(result.batches()).singleElement().satisfies(b -> {
+            assertThat(b.duplicates()).isEqualTo(1);
+            assertThat(b.rawInserted()).isZero();
+            assertThat(b.rawUpdated()).isEqualTo(1);
+            assertThat(b.processedInserted()).isEqualTo(1);
+        });
+        assertThat(count("raw_news")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT title FROM raw_news", String.class)).isEqualTo("terbaru");
+        assertThat(jdbcTemplate.queryForObject("SELECT published_date::text FROM processed_news", String.class)).isEqualTo("2026-01-15");
+        assertThat(jdbcTemplate.queryForObject("SELECT importance FROM article_view", Integer.class)).isEqualTo(20);
+    }
+
+    @Test
+    void badLinesAreRejectedWithTheirLineNumbers() {
+        IngestResult result = ingest(
+                """
+                {"link": "https://example.com/1"}
+                {"title": "tanpa link"}
+                {"link": "https://example.com/2", "publishedDate": "15/01/2026"}
+                [1, 2]
+                {"link": "https://example.com/3"}
+                """
+        );
+
+        assertThat(result.completed()).isTrue();
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.accepted()).isEqualTo(2);
+        assertThat(result.errors()).extracting(IngestLineError::line).containsExactly(2L, 3L, 4L);
+        assertThat(count("raw_news")).isEqualTo(2);
+    }
+
+    @Test
+    void malformedJsonStopsTheStreamButKeepsEarlierLines() {
+        IngestResult result = ingest(
+                """
+                {"link": "https://example.com/1"}
+                {"link": "https://example.com/2"
+                {"link": "https://example.com/3"}
+                """
+        );
+
+        assertThat(result.completed()).isFalse();
+        assertThat(result.accepted()).isEqualTo(1);
+        assertThat(count("raw_news")).isEqualTo(1);
+    }
+
+    @Test
+    void acceptedCountsOnlyCommittedBatches() {
+        jdbcTemplate.execute(
+                """
+                CREATE OR REPLACE FUNCTION test_fail() RETURNS trigger LANGUAGE plpgsql AS $$
+                BEGIN
+                    IF NEW.title = 'boom' THEN
+                        RAISE EXCEPTION 'boom';
+                    END IF;
+                    RETURN NEW;
+                END $$
+                """
+        );
+        jdbcTemplate.execute("CREATE TRIGGER trg_test_fail BEFORE INSERT ON raw_news FOR EACH ROW EXECUTE FUNCTION test_fail()");
+
+        IngestResult result = ingest(
+                """
+                {"link": "https://example.com/1"}
+                {"link": "https://example.com/2"}
+                {"link": "https://example.com/3"}
+                {"link": "https://example.com/4", "title": "boom"}
+                {"link": "https://example.com/5"}
+                """
+        );
+
+        assertThat(result.batches()).extracting(IngestBatchResult::committed).containsExactly(true, false, true);
+        assertThat(result.batches().get(1).firstLine()).isEqualTo(3);
+        assertThat(result.batches().get(1).lastLine()).isEqualTo(4);
+        assertThat(result.accepted()).isEqualTo(3);
+        assertThat(count("raw_news")).isEqualTo(3);
+    }
+
+    private IngestResult ingest(String ndjson) {
+        return service.ingest(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
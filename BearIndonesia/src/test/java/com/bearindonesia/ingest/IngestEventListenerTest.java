@@ -0,0 +1,131 @@
+package com.bearindonesia.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bearindonesia.PostgresTestSupport;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+/**
+ * V8 NOTIFY 트리거부터 IngestEvent 발행까지. 핸들러가 LISTEN 스레드가 아닌 dispatch 스레드에서 도는지도 본다.
+ */
+class IngestEventListenerTest extends PostgresTestSupport {
+
+    private static final LocalDate DAY = LocalDate.now();
+
+    private final List<IngestEvent> events = new CopyOnWriteArrayList<>();
+    private final List<String> handlerThreads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean blockHandler;
+    private IngestEventListener listener;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.execute("TRUNCATE user_scrap, processed_news, raw_news, article_view");
+    }
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+
+    @Test
+    void publishesChangedDatesOnTheDispatchThread() throws Exception {
+        start(100);
+
+        long id = insertArticle("Harga obat", DAY, "[\"Kalbe\"]");
+
+        awaitUntil("insert event", () -> events.stream().anyMatch(e -> e.articleIds().contains(id)));
+        IngestEvent event = events.stream().filter(e -> e.articleIds().contains(id)).findFirst().orElseThrow();
+        assertThat(event.dates()).contains(DAY);
+        assertThat(event.resync()).isFalse();
+        assertThat(handlerThreads).containsOnly("ingest-events-dispatch");
+    }
+
+    @Test
+    void tooManyDatesBecomeAResync() throws Exception {
+        start(100);
+
+        jdbcTemplate.update(
+                """
+                INSERT INTO raw_news (title, link, published_date)
+                SELECT 'b' || g, 'https://example.com/bulk-' || g, current_date - g
+                FROM generate_series(1, 150) g
+                """
+        );
+        jdbcTemplate.update("INSERT INTO processed_news (raw_news_id, published_date, is_pharma_related) SELECT id, published_date, TRUE FROM raw_news");
+
+        awaitUntil("bulk event", () -> events.stream().anyMatch(e -> e.count() >= 150));
+        IngestEvent event = events.stream().filter(e -> e.count() >= 150).findFirst().orElseThrow();
+        assertThat(event.resync()).isTrue();
+        assertThat(event.dates()).isEmpty();
+    }
+
+    @Test
+    void slowHandlerGetsTheBacklogAsOneEvent() throws Exception {
+        blockHandler = true;
+        start(100);
+
+        insertArticle("a", DAY, "[]");
+        awaitUntil("first event", () -> !handlerThreads.isEmpty());
+        insertArticle("b", DAY.minusDays(1), "[]");
+        insertArticle("c", DAY.minusDays(2), "[]");
+        insertArticle("d", DAY.minusDays(3), "[]");
+        awaitUntil("queued notifications", () -> listener.stats().notifications() >= 4);
+        release.countDown();
+
+        awaitUntil("backlog events", () -> events.stream().skip(1).flatMap(e -> e.dates().stream()).distinct().count() == 3);
+        assertThat(listener.stats().coalesced()).isPositive();
+        assertThat(events.size()).isLessThan(4);
+        assertThat(events).allMatch(e -> !e.resync());
+    }
+
+    @Test
+    void queueOverflowIsReportedAsAResync() throws Exception {
+        blockHandler = true;
+        start(1);
+
+        insertArticle("a", DAY, "[]");
+        awaitUntil("first event", () -> !handlerThreads.isEmpty());
+        for (int i = 1; i <= 3; i++) {
+            insertArticle("x" + i, DAY.minusDays(i), "[]");
+        }
+        awaitUntil("queued notifications", () -> listener.stats().notifications() >= 4);
+        release.countDown();
+
+        awaitUntil("overflow event", () -> events.stream().anyMatch(IngestEvent::resync));
+        assertThat(listener.stats().overflows()).isPositive();
+        IngestEvent resync = events.stream().filter(IngestEvent::resync).findFirst().orElseThrow();
+        assertThat(resync.dates()).contains(DAY.minusDays(1));
+    }
+
+    private void start(int queueCapacity) throws InterruptedException {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(POSTGRES.getJdbcUrl());
+        properties.setUsername(POSTGRES.getUsername());
+        properties.setPassword(POSTGRES.getPassword());
+        listener = new IngestEventListener(properties, jdbcTemplate, event -> {
+            handlerThreads.add(Thread.currentThread().getName());
+            if (blockHandler && handlerThreads.size() == 1) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add((IngestEvent) event);
+        }, true, 200, 1000, 5000, queueCapacity);
+        listener.start();
+        awaitUntil("LISTEN", () -> listener.stats().connected());
+    }
+}
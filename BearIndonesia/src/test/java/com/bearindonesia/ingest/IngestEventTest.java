@@ -0,0 +1,41 @@
+package com.bearindonesia.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class IngestEventTest {
+
+    private static final LocalDate D1 = LocalDate.of(2026, 1, 1);
+    private static final LocalDate D2 = LocalDate.of(2026, 1, 2);
+
+    @Test
+    void mergeUnionsIdsAndDates() {
+        IngestEvent a = new IngestEvent("INSERT", 2, 11, List.of(10L, 11L), Set.of(D1), false);
+        IngestEvent b = new IngestEvent("INSERT", 1, 12, List.of(11L, 12L), Set.of(D2), false);
+
+        IngestEvent merged = a.merge(b);
+
+        assertThat(merged.operation()).isEqualTo("INSERT");
+        assertThat(merged.count()).isEqualTo(3);
+        assertThat(merged.maxId()).isEqualTo(12);
+        assertThat(merged.articleIds()).containsExactly(10L, 11L, 12L);
+        assertThat(merged.dates()).containsExactlyInAnyOrder(D1, D2);
+        assertThat(merged.resync()).isFalse();
+    }
+
+    @Test
+    void mergeKeepsKnownDatesOfAResync() {
+        IngestEvent update = new IngestEvent("UPDATE", 1, 5, List.of(5L), Set.of(D1), false);
+
+        IngestEvent merged = update.merge(IngestEvent.overflow(20));
+
+        assertThat(merged.operation()).isEqualTo("MERGED");
+        assertThat(merged.maxId()).isEqualTo(20);
+        assertThat(merged.dates()).containsExactly(D1);
+        assertThat(merged.resync()).isTrue();
+    }
+}
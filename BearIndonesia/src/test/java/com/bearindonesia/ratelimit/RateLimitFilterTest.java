@@ -0,0 +1,61 @@
+package com.bearindonesia.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new TokenBucketRateLimiter(10, 1, 8), null, new ObjectMapper(), true, 10, 20, 10, 5, 2);
+
+    @Test
+    void throttlesAnExpensiveEndpointWithRetryAfter() throws Exception {
+        assertThat(send("POST", "/api/wordcloud", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse throttled = send("POST", "/api/wordcloud", "10.0.0.1");
+
+        assertThat(throttled.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(throttled.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 10L);
+        assertThat(filter.stats().allowed()).containsEntry("wordcloud", 1L);
+        assertThat(filter.stats().throttled()).containsEntry("wordcloud", 1L);
+    }
+
+    @Test
+    void termEndpointHasItsOwnRule() throws Exception {
+        assertThat(send("GET", "/api/wordcloud/terms", "10.0.0.3").getStatus()).isEqualTo(200);
+        assertThat(send("GET", "/api/wordcloud/terms", "10.0.0.3").getStatus()).isEqualTo(200);
+
+        assertThat(send("GET", "/api/wordcloud/terms", "10.0.0.3").getStatus()).isEqualTo(429);
+        assertThat(filter.stats().allowed()).containsEntry("wordcloud-terms", 2L);
+    }
+
+    @Test
+    void clientsAreLimitedSeparately() throws Exception {
+        send("POST", "/api/wordcloud", "10.0.0.1");
+
+        assertThat(send("POST", "/api/wordcloud", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void leavesOtherEndpointsAlone() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertThat(send("GET", "/api/articles", "10.0.0.1").getStatus()).isEqualTo(200);
+            assertThat(send("GET", "/api/wordcloud", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse send(String method, String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
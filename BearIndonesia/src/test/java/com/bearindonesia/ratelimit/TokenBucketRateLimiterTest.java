@@ -0,0 +1,73 @@
+package com.bearindonesia.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void allowsUpToCapacityThenReportsTheWait() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1, 8);
+
+        assertThat(limiter.tryAcquire("ip:1", 1)).isZero();
+        assertThat(limiter.tryAcquire("ip:1", 1)).isZero();
+        assertThat(limiter.tryAcquire("ip:1", 1)).isZero();
+
+        long wait = limiter.tryAcquire("ip:1", 1);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void chargesTheRequestCost() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 8);
+
+        assertThat(limiter.tryAcquire("u:1", 8)).isZero();
+        assertThat(limiter.tryAcquire("u:1", 8)).isPositive();
+        assertThat(limiter.tryAcquire("u:1", 2)).isZero();
+    }
+
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 1);
+
+        assertThat(limiter.tryAcquire("u:1", 1)).isZero();
+        assertThat(limiter.tryAcquire("u:1", 1)).isPositive();
+        assertThat(limiter.tryAcquire("u:2", 1)).isZero();
+        assertThat(limiter.trackedKeys()).isEqualTo(2);
+    }
+
+    @Test
+    void costAboveCapacityIsCappedSoTheRequestCanEverPass() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 1, 8);
+
+        assertThat(limiter.tryAcquire("ip:1", 50)).isZero();
+        assertThat(limiter.tryAcquire("ip:1", 50)).isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1000, 8);
+
+        assertThat(limiter.tryAcquire("ip:1", 1)).isZero();
+        Thread.sleep(20);
+
+        assertThat(limiter.tryAcquire("ip:1", 1)).isZero();
+    }
+
+    @Test
+    void purgeDropsOnlyBucketsThatAreFullAgain() throws InterruptedException {
+        TokenBucketRateLimiter fast = new TokenBucketRateLimiter(1, 1000, 8);
+        TokenBucketRateLimiter slow = new TokenBucketRateLimiter(60, 1, 8);
+        fast.tryAcquire("ip:1", 1);
+        slow.tryAcquire("ip:1", 1);
+        Thread.sleep(20);
+
+        fast.purgeIdle();
+        slow.purgeIdle();
+
+        assertThat(fast.trackedKeys()).isZero();
+        assertThat(slow.trackedKeys()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,140 @@
+package com.bearindonesia.sales;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bearindonesia.PostgresTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SalesReportRepositoryTest extends PostgresTestSupport {
+
+    private SalesReportRepository repository;
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("TRUNCATE sales_reports, users_info RESTART IDENTITY CASCADE");
+        repository = new SalesReportRepository(jdbcTemplate);
+        userId = insertUser("sales@example.com");
+    }
+
+    @Test
+    void claimCountsAttemptsAndIsExclusive() {
+        long id = repository.createPending("r", "r.xlsx", "blob", null, userId);
+
+        assertThat(repository.claim(id)).hasValueSatisfying(job -> assertThat(job.attempts()).isEqualTo(1));
+        assertThat(repository.claim(id)).isEmpty();
+    }
+
+    @Test
+    void markPendingWaitsForBackoff() {
+        long id = repository.createPending("r", "r.xlsx", "blob", null, userId);
+        repository.claim(id);
+
+        repository.markPending(id, 1, "boom", 60);
+
+        assertThat(repository.listPendingIds(10)).isEmpty();
+        assertThat(repository.claim(id)).isEmpty();
+        assertThat(status(id)).isEqualTo("PENDING");
+    }
+
+    @Test
+    void staleWorkerLosesAfterRequeue() {
+        long id = repository.createPending("r", "r.xlsx", "blob", null, userId);
+        int stale = repository.claim(id).orElseThrow().attempts();
+        stall(id);
+        repository.resetStuck(60, 3, 0, 0);
+        int fresh = repository.claim(id).orElseThrow().attempts();
+
+        assertThat(repository.markPending(id, stale, "late failure", 60)).isFalse();
+        assertThat(repository.markFailed(id, stale, "late failure")).isFalse();
+        assertThat(repository.markReady(id, fresh, "<p>new</p>")).isTrue();
+        assertThat(repository.markReady(id, stale, "<p>stale</p>")).isFalse();
+
+        assertThat(status(id)).isEqualTo("READY");
+        assertThat(repository.findHtml(id)).contains("<p>new</p>");
+    }
+
+    @Test
+    void finishingWhileRequeuedButUnclaimedIsDiscarded() {
+        long id = repository.createPending("r", "r.xlsx", "blob", null, userId);
+        int attempt = repository.claim(id).orElseThrow().attempts();
+        stall(id);
+        repository.resetStuck(60, 3, 30, 1800);
+
+        assertThat(repository.markReady(id, attempt, "<p>late</p>")).isFalse();
+        assertThat(status(id)).isEqualTo("PENDING");
+    }
+
+    @Test
+    void resetStuckRequeuesWithBackoffWithoutCountingAnotherAttempt() {
+        long id = repository.createPending("r", "r.xlsx", "blob", null, userId);
+        repository.claim(id);
+        stall(id);
+
+        SalesReportRepository.StuckJobs stuck = repository.resetStuck(60, 3, 30, 1800);
+
+        assertThat(stuck).isEqualTo(new SalesReportRepository.StuckJobs(1, 0));
+        assertThat(status(id)).isEqualTo("PENDING");
+        assertThat(attempts(id)).isEqualTo(1);
+        assertThat(backoffSeconds(id)).isBetween(25L, 30L);
+        assertThat(repository.claim(id)).isEmpty();
+    }
+
+    @Test
+    void resetStuckBackoffDoublesAndIsCapped() {
+        long second = repository.createPending("a", "a.xlsx", "blob-a", null, userId);
+        long many = repository.createPending("b", "b.xlsx", "blob-b", null, userId);
+        jdbcTemplate.update("UPDATE sales_reports SET status = 'PROCESSING', attempts = 2 WHERE id = ?", second);
+        jdbcTemplate.update("UPDATE sales_reports SET status = 'PROCESSING', attempts = 9 WHERE id = ?", many);
+        stall(second);
+        stall(many);
+
+        repository.resetStuck(60, 20, 30, 100);
+
+        assertThat(backoffSeconds(second)).isBetween(55L, 60L);
+        assertThat(backoffSeconds(many)).isBetween(95L, 100L);
+    }
+
+    @Test
+    void resetStuckFailsJobsThatUsedEveryAttempt() {
+        long id = repository.createPending("r", "r.xlsx", "blob", null, userId);
+        jdbcTemplate.update("UPDATE sales_reports SET status = 'PROCESSING', attempts = 3 WHERE id = ?", id);
+        stall(id);
+
+        SalesReportRepository.StuckJobs stuck = repository.resetStuck(60, 3, 30, 1800);
+
+        assertThat(stuck).isEqualTo(new SalesReportRepository.StuckJobs(0, 1));
+        assertThat(status(id)).isEqualTo("FAILED");
+        assertThat(repository.listPendingIds(10)).isEmpty();
+    }
+
+    @Test
+    void resetStuckLeavesRecentlyUpdatedJobsAlone() {
+        long id = repository.createPending("r", "r.xlsx", "blob", null, userId);
+        repository.claim(id);
+
+        assertThat(repository.resetStuck(60, 3, 30, 1800)).isEqualTo(new SalesReportRepository.StuckJobs(0, 0));
+        assertThat(status(id)).isEqualTo("PROCESSING");
+    }
+
+    private void stall(long id) {
+        jdbcTemplate.update("UPDATE sales_reports SET updated_at = now() - INTERVAL '1 hour' WHERE id = ?", id);
+    }
+
+    private String status(long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM sales_reports WHERE id = ?", String.class, id);
+    }
+
+    private int attempts(long id) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM sales_reports WHERE id = ?", Integer.class, id);
+    }
+
+    private long backoffSeconds(long id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT CEIL(EXTRACT(EPOCH FROM next_attempt_at - now()))::bigint FROM sales_reports WHERE id = ?",
+                Long.class,
+                id
+        );
+    }
+}
@@ -0,0 +1,101 @@
+package com.bearindonesia.sales.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.time.YearMonth;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class StreamingSalesWorkbookParserTest {
+
+    @TempDir
+    File dir;
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "1.500.000      | 1500000",
+            "1,500,000      | 1500000",
+            "1.234,56       | 1234.56",
+            "1,234.56       | 1234.56",
+            "1.234          | 1234",
+            "1,5            | 1.5",
+            "(1.000)        | -1000",
+            "-2.500         | -2500",
+            "Rp 1.500.000   | 1500000",
+            "1.5E+12        | 1500000000000",
+            "2e3            | 2000",
+            "-              | 0",
+            "''             | 0",
+    })
+    void parsesStringCells(String value, double expected) {
+        assertThat(StreamingSalesWorkbookParser.parseNumber(value)).isCloseTo(expected, within(1e-9));
+    }
+
+    @Test
+    void unreadableStringCellIsNaN() {
+        assertThat(StreamingSalesWorkbookParser.parseNumber("n/a")).isNaN();
+        assertThat(StreamingSalesWorkbookParser.parseNumber(null)).isZero();
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "2024-03-15          | 2024-03",
+            "2024-03-15T00:00:00 | 2024-03",
+            "2024-3              | 2024-03",
+            "2024/03             | 2024-03",
+            "2024.03             | 2024-03",
+            "2024년 3월           | 2024-03",
+            "202403              | 2024-03",
+    })
+    void parsesMonths(String value, String expected) {
+        assertThat(StreamingSalesWorkbookParser.parseMonth(value)).isEqualTo(YearMonth.parse(expected));
+    }
+
+    @Test
+    void unreadableMonthIsNull() {
+        assertThat(StreamingSalesWorkbookParser.parseMonth("2024-13")).isNull();
+        assertThat(StreamingSalesWorkbookParser.parseMonth("March")).isNull();
+        assertThat(StreamingSalesWorkbookParser.parseMonth(" ")).isNull();
+    }
+
+    @Test
+    void numericCellsKeepTheirRawValue() throws Exception {
+        File file = new File(dir, "sales.xlsx");
+        try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = wb.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Product");
+            header.createCell(1).setCellValue("Amount");
+            header.createCell(2).setCellValue("Qty");
+            // 일반 서식 숫자 셀: 문자열로 바꿔 읽으면 1.234 가 1234 로 바뀐다.
+            Row numeric = sheet.createRow(1);
+            numeric.createCell(0).setCellValue("A");
+            numeric.createCell(1).setCellValue(1.234);
+            numeric.createCell(2).setCellValue(1.5e12);
+            // 텍스트로 저장된 셀은 여전히 구분자 규칙으로 읽는다.
+            Row text = sheet.createRow(2);
+            text.createCell(0).setCellValue("B");
+            text.createCell(1).setCellValue("1.234");
+            text.createCell(2).setCellValue("1.234,5");
+            wb.write(out);
+        }
+
+        SalesDataset ds = StreamingSalesWorkbookParser.parse(file);
+
+        assertThat(ds.size()).isEqualTo(2);
+        assertThat(ds.amount(0)).isEqualTo(1.234);
+        assertThat(ds.quantity(0)).isEqualTo(1.5e12);
+        assertThat(ds.amount(1)).isEqualTo(1234.0);
+        assertThat(ds.quantity(1)).isEqualTo(1234.5);
+        assertThat(ds.invalidCells()).isZero();
+    }
+}
@@ -0,0 +1,124 @@
+package com.bearindonesia.wordcloud;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bearindonesia.PostgresTestSupport;
+import com.bearindonesia.ingest.IngestEvent;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+/**
+ * IngestEvent 를 받은 뒤 일별 용어 집계가 다시 만들어지는지 본다. resync 라도 알려진 날짜는 빠지면 안 된다.
+ */
+class TermFrequencyServiceTest extends PostgresTestSupport {
+
+    private static final LocalDate D1 = LocalDate.now().minusDays(2);
+    private static final LocalDate D2 = LocalDate.now().minusDays(1);
+
+    private TermFrequencyService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE user_scrap, processed_news, raw_news, article_view, term_daily_counts, term_daily_watermarks");
+        service = service(7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void firstRequestBuildsTheDaysInline() {
+        insertArticle("a", D1, "[\"Kalbe\", \"Sanbe\"]");
+        insertArticle("b", D2, "[\"Kalbe\"]");
+
+        TermFrequencies result = service.frequencies(D1, D2, 10);
+
+        assertThat(result.complete()).isTrue();
+        assertThat(result.terms()).extracting(TermFrequency::term).containsExactly("Kalbe", "Sanbe");
+        assertThat(result.terms().get(0).count()).isEqualTo(2);
+    }
+
+    @Test
+    void firstRequestBuildsOnlyTheNewestDaysInlineAndTheRestInTheBackground() throws Exception {
+        service.shutdown();
+        service = service(1);
+        insertArticle("a", D1, "[\"Sanbe\"]");
+        insertArticle("b", D2, "[\"Kalbe\"]");
+
+        TermFrequencies first = service.frequencies(D1, D2, 10);
+
+        assertThat(first.complete()).isFalse();
+        assertThat(first.terms()).extracting(TermFrequency::term).containsExactly("Kalbe");
+
+        awaitUntil("background build of " + D1, () -> docCount(D1, "sanbe") == 1);
+        TermFrequencies second = service.frequencies(D1, D2, 10);
+        assertThat(second.complete()).isTrue();
+        assertThat(second.terms()).extracting(TermFrequency::term).containsExactlyInAnyOrder("Kalbe", "Sanbe");
+    }
+
+    @Test
+    void resyncEventStillRebuildsItsKnownDates() throws Exception {
+        insertArticle("a", D1, "[\"Kalbe\"]");
+        service.frequencies(D1, D1, 10);
+
+        long id = insertArticle("b", D1, "[\"Kalbe\", \"Sanbe\"]");
+        service.onIngest(new IngestEvent("CATCH_UP", 1, id, List.of(id), Set.of(D1), true));
+
+        awaitUntil("rebuild of " + D1, () -> docCount(D1, "kalbe") == 2);
+        assertThat(docCount(D1, "sanbe")).isEqualTo(1);
+    }
+
+    @Test
+    void resyncWithoutDatesSweepsOnlyStaleBuiltDays() throws Exception {
+        long first = insertArticle("a", D1, "[\"Kalbe\"]");
+        insertArticle("b", D2, "[\"Kalbe\"]");
+        service.frequencies(D1, D2, 10);
+        Timestamp d2BuiltAt = builtAt(D2);
+
+        // 기사 수와 최대 id 는 그대로이고 refreshed_at 만 바뀐다.
+        jdbcTemplate.update("UPDATE processed_news SET tags = '[\"Sanbe\"]'::jsonb WHERE id = ?", first);
+        service.onIngest(new IngestEvent("OVERFLOW", 0, 0, List.of(), Set.of(), true));
+
+        awaitUntil("sweep of " + D1, () -> docCount(D1, "sanbe") == 1);
+        assertThat(docCount(D1, "kalbe")).isZero();
+        assertThat(builtAt(D2)).isEqualTo(d2BuiltAt);
+    }
+
+    @Test
+    void plainEventRebuildsInTheBackground() throws Exception {
+        insertArticle("a", D2, "[\"Kalbe\"]");
+        service.frequencies(D2, D2, 10);
+
+        long id = insertArticle("b", D2, "[\"Kalbe\"]");
+        service.onIngest(new IngestEvent("INSERT", 1, id, List.of(id), Set.of(D2), false));
+
+        awaitUntil("rebuild of " + D2, () -> docCount(D2, "kalbe") == 2);
+    }
+
+    private static TermFrequencyService service(int inlineBuildDays) {
+        return new TermFrequencyService(jdbcTemplate, new DataSourceTransactionManager(dataSource), 16, inlineBuildDays);
+    }
+
+    private int docCount(LocalDate day, String term) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(doc_count), 0)::int FROM term_daily_counts WHERE day = ? AND term = ?",
+                Integer.class,
+                Date.valueOf(day),
+                term
+        );
+        return count == null ? 0 : count;
+    }
+
+    private Timestamp builtAt(LocalDate day) {
+        return jdbcTemplate.queryForObject("SELECT built_at FROM term_daily_watermarks WHERE day = ?", Timestamp.class, Date.valueOf(day));
+    }
+}
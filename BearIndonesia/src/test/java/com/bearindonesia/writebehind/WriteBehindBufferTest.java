@@ -0,0 +1,120 @@
+package com.bearindonesia.writebehind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+
+class WriteBehindBufferTest {
+
+    private final List<Map<String, Integer>> writes = new ArrayList<>();
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final Executor queued = tasks::add;
+
+    @Test
+    void mergesValuesForTheSameKey() {
+        WriteBehindBuffer<String, Integer> buffer = new WriteBehindBuffer<>("test", Integer::sum, writes::add, 100, queued);
+
+        buffer.put("a", 1);
+        buffer.put("a", 2);
+        buffer.put("b", 5);
+
+        assertThat(buffer.flush()).isEqualTo(2);
+        assertThat(writes).containsExactly(Map.of("a", 3, "b", 5));
+        assertThat(buffer.stats().pending()).isZero();
+        assertThat(buffer.stats().enqueued()).isEqualTo(3);
+        assertThat(buffer.stats().written()).isEqualTo(2);
+    }
+
+    @Test
+    void putNeverWritesOnTheCallingThread() {
+        WriteBehindBuffer<String, Integer> buffer = new WriteBehindBuffer<>("test", Integer::sum, writes::add, 4, queued);
+
+        for (int i = 0; i < 4; i++) {
+            buffer.put("k" + i, i);
+        }
+
+        assertThat(writes).isEmpty();
+        assertThat(tasks).hasSize(1);
+
+        tasks.get(0).run();
+
+        assertThat(writes).hasSize(1);
+        assertThat(writes.get(0)).hasSize(4);
+    }
+
+    @Test
+    void requestsAnotherFlushOnlyAfterThePreviousOneStarted() {
+        WriteBehindBuffer<String, Integer> buffer = new WriteBehindBuffer<>("test", Integer::sum, writes::add, 4, queued);
+
+        buffer.put("a", 1);
+        buffer.put("b", 1);
+        buffer.put("c", 1);
+        assertThat(tasks).hasSize(1);
+
+        tasks.get(0).run();
+        buffer.put("d", 1);
+        buffer.put("e", 1);
+
+        assertThat(tasks).hasSize(2);
+    }
+
+    @Test
+    void dropsNewKeysWhenFullButKeepsMergingExistingOnes() {
+        WriteBehindBuffer<String, Integer> buffer = new WriteBehindBuffer<>("test", Integer::sum, writes::add, 2, queued);
+
+        buffer.put("a", 1);
+        buffer.put("b", 1);
+        buffer.put("c", 1);
+        buffer.put("a", 1);
+
+        assertThat(buffer.stats().dropped()).isEqualTo(1);
+        assertThat(buffer.stats().pending()).isEqualTo(2);
+        buffer.flush();
+        assertThat(writes).containsExactly(Map.of("a", 2, "b", 1));
+    }
+
+    @Test
+    void keepsAFailedBatchForTheNextFlush() {
+        List<Map<String, Integer>> attempts = new ArrayList<>();
+        WriteBehindBuffer<String, Integer> buffer = new WriteBehindBuffer<>("test", Integer::sum, batch -> {
+            attempts.add(Map.copyOf(batch));
+            if (attempts.size() == 1) {
+                throw new IllegalStateException("db down");
+            }
+        }, 100, queued);
+
+        buffer.put("a", 1);
+        assertThat(buffer.flush()).isZero();
+        buffer.put("a", 2);
+
+        assertThat(buffer.flush()).isEqualTo(1);
+        assertThat(attempts).containsExactly(Map.of("a", 1), Map.of("a", 3));
+        assertThat(buffer.stats().failures()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedFlushRequestIsRetriedOnTheNextPut() {
+        List<Runnable> accepted = new ArrayList<>();
+        boolean[] reject = {true};
+        Executor flusher = task -> {
+            if (reject[0]) {
+                throw new RejectedExecutionException("busy");
+            }
+            accepted.add(task);
+        };
+        WriteBehindBuffer<String, Integer> buffer = new WriteBehindBuffer<>("test", Integer::sum, writes::add, 2, flusher);
+
+        assertThatCode(() -> buffer.put("a", 1)).doesNotThrowAnyException();
+        reject[0] = false;
+        buffer.put("a", 1);
+
+        assertThat(accepted).hasSize(1);
+        assertThat(writes).isEmpty();
+    }
+}